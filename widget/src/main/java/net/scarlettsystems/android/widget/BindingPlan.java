@@ -0,0 +1,85 @@
+package net.scarlettsystems.android.widget;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Per type code plan for locating the child views a binder declares.
+ *
+ * The first holder of a type resolves each declared id with {@link View#findViewById(int)} and
+ * records the child index path from the item view to it. Later holders of the same type follow
+ * the recorded paths instead of searching the hierarchy, falling back to a search only where
+ * their hierarchy differs.
+ */
+class BindingPlan
+{
+	private final int[] mIds;
+	private int[][] mPaths = null;
+
+	BindingPlan(int[] ids)
+	{
+		mIds = ids.clone();
+	}
+
+	int size()
+	{
+		return mIds.length;
+	}
+
+	/**
+	 * Locate the declared views within {@code root}, storing them in {@code out} in declaration
+	 * order. Views that cannot be found are stored as null.
+	 */
+	void resolve(View root, View[] out)
+	{
+		if(mPaths == null)
+		{
+			int[][] paths = new int[mIds.length][];
+			for(int c = 0; c < mIds.length; c++)
+			{
+				View view = root.findViewById(mIds[c]);
+				out[c] = view;
+				paths[c] = view == null ? null : pathTo(root, view);
+			}
+			mPaths = paths;
+			return;
+		}
+		for(int c = 0; c < mIds.length; c++)
+		{
+			out[c] = follow(root, mPaths[c], mIds[c]);
+		}
+	}
+
+	private static View follow(View root, int[] path, int id)
+	{
+		if(path == null){return root.findViewById(id);}
+		View view = root;
+		for(int index : path)
+		{
+			if(!(view instanceof ViewGroup) || index >= ((ViewGroup)view).getChildCount())
+			{
+				return root.findViewById(id);
+			}
+			view = ((ViewGroup)view).getChildAt(index);
+		}
+		return view.getId() == id ? view : root.findViewById(id);
+	}
+
+	private static int[] pathTo(View root, View target)
+	{
+		int depth = 0;
+		for(View view = target; view != root; view = (View)view.getParent())
+		{
+			depth++;
+		}
+		int[] path = new int[depth];
+		View view = target;
+		while(view != root)
+		{
+			ViewGroup parent = (ViewGroup)view.getParent();
+			path[--depth] = parent.indexOfChild(view);
+			view = parent;
+		}
+		return path;
+	}
+}
@@ -0,0 +1,123 @@
+package net.scarlettsystems.android.widget;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * Sizes a RecyclerView's item view cache from how the list is scrolled.
+ *
+ * The cached views are the ones scrolled off most recently, so the cache pays off when the
+ * user scrolls back. Lists scrolled steadily one way keep a screen of items; lists whose
+ * direction is reversed often, or that were just flung fast and are likely to be flung back
+ * past an overshoot, keep up to one and a half screens. Screens are converted to views with the average
+ * extent of the items laid out, and the result is held within a view count and an estimated
+ * memory budget.
+ */
+class CacheSizer
+{
+	//Flings covering more screens than this per second count as fast
+	private static final int FAST_FLING_SCREENS = 4;
+	//Reversals per screen scrolled at which the most screens are kept
+	private static final float FULL_REVERSAL_RATE = 0.5f;
+	//Screens of items kept when scrolling steadily, and at most
+	private static final float MIN_SCREENS = 1f;
+	private static final float MAX_SCREENS = 1.5f;
+	//Estimated bytes per pixel of a cached item view
+	private static final int BYTES_PER_PIXEL = 4;
+
+	private final RecyclerView mRecyclerView;
+	private final int mMaxViews;
+	private final long mMaxBytes;
+
+	private int mLastSign = 0;
+	private int mWindowReversals = 0;
+	private int mWindowDistance = 0;
+	//Moving average of direction reversals per screen scrolled
+	private float mReversalRate = 0;
+	//Number of idle states still influenced by the last fast fling
+	private int mFlingCooldown = 0;
+
+	CacheSizer(RecyclerView recyclerView, int maxViews, long maxBytes)
+	{
+		mRecyclerView = recyclerView;
+		mMaxViews = maxViews;
+		mMaxBytes = maxBytes;
+	}
+
+	void onScrolled(int dx, int dy)
+	{
+		RecyclerView.LayoutManager lm = mRecyclerView.getLayoutManager();
+		if(lm == null){return;}
+		int delta = lm.canScrollVertically() ? dy : dx;
+		if(delta == 0){return;}
+		int sign = delta > 0 ? 1 : -1;
+		if(mLastSign != 0 && sign != mLastSign){mWindowReversals++;}
+		mLastSign = sign;
+		mWindowDistance += Math.abs(delta);
+		int viewport = getViewportExtent(lm);
+		if(viewport > 0 && mWindowDistance >= viewport)
+		{
+			float reversals = (float)mWindowReversals * viewport / mWindowDistance;
+			mReversalRate = 0.75f * mReversalRate + 0.25f * reversals;
+			mWindowReversals = 0;
+			mWindowDistance = 0;
+		}
+	}
+
+	void onFling(int velocityX, int velocityY)
+	{
+		RecyclerView.LayoutManager lm = mRecyclerView.getLayoutManager();
+		if(lm == null){return;}
+		int velocity = Math.abs(lm.canScrollVertically() ? velocityY : velocityX);
+		if(velocity > FAST_FLING_SCREENS * getViewportExtent(lm))
+		{
+			mFlingCooldown = 2;
+		}
+	}
+
+	/**
+	 * Work out the cache size once scrolling has stopped.
+	 *
+	 * @return number of item views to cache, or -1 if no items are laid out to measure
+	 */
+	int onScrollIdle()
+	{
+		RecyclerView.LayoutManager lm = mRecyclerView.getLayoutManager();
+		int children = mRecyclerView.getChildCount();
+		if(lm == null || children == 0){return -1;}
+		boolean vertical = lm.canScrollVertically();
+		int start = Integer.MAX_VALUE, end = Integer.MIN_VALUE;
+		for(int c = 0; c < children; c++)
+		{
+			View child = mRecyclerView.getChildAt(c);
+			start = Math.min(start, vertical ? lm.getDecoratedTop(child) : lm.getDecoratedLeft(child));
+			end = Math.max(end, vertical ? lm.getDecoratedBottom(child) : lm.getDecoratedRight(child));
+		}
+		int viewport = getViewportExtent(lm);
+		if(end <= start || viewport <= 0){return -1;}
+		//Covered extent per child, which accounts for several children side by side in grids
+		float itemExtent = (float)(end - start) / children;
+		float screens = MIN_SCREENS + (MAX_SCREENS - MIN_SCREENS) * Math.min(1f, mReversalRate / FULL_REVERSAL_RATE);
+		if(mFlingCooldown > 0)
+		{
+			screens = MAX_SCREENS;
+			mFlingCooldown--;
+		}
+		int size = (int)Math.ceil(screens * viewport / itemExtent);
+		if(mMaxBytes > 0)
+		{
+			int cross = vertical ? mRecyclerView.getWidth() : mRecyclerView.getHeight();
+			long itemBytes = (long)Math.ceil(itemExtent * cross) * BYTES_PER_PIXEL;
+			if(itemBytes > 0){size = (int)Math.min(size, mMaxBytes / itemBytes);}
+		}
+		if(mMaxViews > 0){size = Math.min(size, mMaxViews);}
+		return Math.max(size, 0);
+	}
+
+	private int getViewportExtent(RecyclerView.LayoutManager lm)
+	{
+		return lm.canScrollVertically()
+				? mRecyclerView.getHeight() - mRecyclerView.getPaddingTop() - mRecyclerView.getPaddingBottom()
+				: mRecyclerView.getWidth() - mRecyclerView.getPaddingLeft() - mRecyclerView.getPaddingRight();
+	}
+}
@@ -0,0 +1,107 @@
+package net.scarlettsystems.android.widget;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map from item classes to the type codes assigned to them when their binders are registered.
+ *
+ * Type codes are assigned process-wide, once per class, so every registry gives a class the
+ * same code whichever classes it registers and in whatever order. Lists sharing a recycled
+ * view pool therefore agree on the codes of the classes they have in common.
+ *
+ * Items of a subclass of a registered class, or of a class implementing a registered interface,
+ * resolve to that class's type code. The result is cached per concrete class, so each class is
+ * resolved once. Lookups are safe from any thread; registration must happen on the main
+ * thread.
+ */
+class ClassTypeRegistry
+{
+	static final int NOT_FOUND = -1;
+
+	//Well above type codes chosen by hand, so automatically assigned codes do not collide
+	private static final int FIRST_TYPE_CODE = 1 << 30;
+
+	private static final HashMap<Class<?>, Integer> sTypeCodes = new HashMap<>();
+	private static int sNextTypeCode = FIRST_TYPE_CODE;
+
+	private final ConcurrentHashMap<Class<?>, Integer> mRegistered = new ConcurrentHashMap<>();
+	//Replaced on registration, so lookups racing it fill a map that is then discarded
+	private volatile ConcurrentHashMap<Class<?>, Integer> mResolved = new ConcurrentHashMap<>();
+
+	/**
+	 * Register {@code itemClass}, returning its process-wide type code.
+	 */
+	int register(Class<?> itemClass)
+	{
+		Integer typeCode = mRegistered.get(itemClass);
+		if(typeCode != null){return typeCode;}
+		typeCode = typeCodeFor(itemClass);
+		mRegistered.put(itemClass, typeCode);
+		//Classes resolved through a superclass may now resolve to the new class instead
+		mResolved = new ConcurrentHashMap<>();
+		return typeCode;
+	}
+
+	/**
+	 * Get the type code of {@code item}, or {@link #NOT_FOUND} if none of its classes are
+	 * registered.
+	 */
+	int typeCodeOf(Object item)
+	{
+		if(item == null){return NOT_FOUND;}
+		Class<?> itemClass = item.getClass();
+		ConcurrentHashMap<Class<?>, Integer> resolved = mResolved;
+		Integer typeCode = resolved.get(itemClass);
+		if(typeCode == null)
+		{
+			typeCode = resolve(itemClass);
+			resolved.put(itemClass, typeCode);
+		}
+		return typeCode;
+	}
+
+	/**
+	 * Get the type code of {@code itemClass}, assigning it the next free code on first use.
+	 */
+	private static int typeCodeFor(Class<?> itemClass)
+	{
+		synchronized(sTypeCodes)
+		{
+			Integer typeCode = sTypeCodes.get(itemClass);
+			if(typeCode == null)
+			{
+				typeCode = sNextTypeCode++;
+				sTypeCodes.put(itemClass, typeCode);
+			}
+			return typeCode;
+		}
+	}
+
+	private int resolve(Class<?> itemClass)
+	{
+		for(Class<?> c = itemClass; c != null; c = c.getSuperclass())
+		{
+			Integer typeCode = mRegistered.get(c);
+			if(typeCode != null){return typeCode;}
+		}
+		for(Class<?> c = itemClass; c != null; c = c.getSuperclass())
+		{
+			int typeCode = resolveInterfaces(c);
+			if(typeCode != NOT_FOUND){return typeCode;}
+		}
+		return NOT_FOUND;
+	}
+
+	private int resolveInterfaces(Class<?> type)
+	{
+		for(Class<?> i : type.getInterfaces())
+		{
+			Integer typeCode = mRegistered.get(i);
+			if(typeCode != null){return typeCode;}
+			int inherited = resolveInterfaces(i);
+			if(inherited != NOT_FOUND){return inherited;}
+		}
+		return NOT_FOUND;
+	}
+}
@@ -0,0 +1,155 @@
+package net.scarlettsystems.android.widget;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Binary snapshot of a dataset and scroll anchor.
+ *
+ * The snapshot starts with a header holding the item count, the type codes of the items and
+ * the anchor. Type codes are written as a packed int array, or as runs of equal codes when
+ * that is smaller, as it is for the long runs of few types most datasets hold. The items
+ * follow in order, each written by the {@link EasyRecyclerView.ItemCodec} with its type code
+ * known, so the codec never has to record it.
+ *
+ * Items are decoded all at once rather than as they are first displayed. Decoding runs on a
+ * background thread, so it costs the main thread nothing, and the adapter needs every item
+ * as soon as it is restored to index keys, sort and filter.
+ */
+class DatasetSnapshot
+{
+	private static final int MAGIC = 0x45525653;
+	private static final int VERSION = 2;
+	private static final int TYPES_PACKED = 0;
+	private static final int TYPES_RUNS = 1;
+
+	final Object[] items;
+	final int[] types;
+	final int anchorPosition;
+	final int anchorOffset;
+
+	DatasetSnapshot(Object[] items, int[] types, int anchorPosition, int anchorOffset)
+	{
+		this.items = items;
+		this.types = types;
+		this.anchorPosition = anchorPosition;
+		this.anchorOffset = anchorOffset;
+	}
+
+	byte[] encode(EasyRecyclerView.ItemCodec codec) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + items.length * 16);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(items.length);
+		int runs = 0;
+		for(int c = 0; c < types.length; c++)
+		{
+			if(c == 0 || types[c] != types[c - 1]){runs++;}
+		}
+		//A run takes two ints, a packed code one
+		if(2 * runs >= types.length)
+		{
+			out.writeInt(TYPES_PACKED);
+			for(int type : types)
+			{
+				out.writeInt(type);
+			}
+		}
+		else
+		{
+			out.writeInt(TYPES_RUNS);
+			out.writeInt(runs);
+			for(int start = 0; start < types.length;)
+			{
+				int end = start + 1;
+				while(end < types.length && types[end] == types[start])
+				{
+					end++;
+				}
+				out.writeInt(types[start]);
+				out.writeInt(end - start);
+				start = end;
+			}
+		}
+		out.writeInt(anchorPosition);
+		out.writeInt(anchorOffset);
+		for(int c = 0; c < items.length; c++)
+		{
+			codec.encode(items[c], types[c], out);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	static DatasetSnapshot decode(InputStream stream, EasyRecyclerView.ItemCodec codec) throws IOException
+	{
+		DataInputStream in = new DataInputStream(stream);
+		if(in.readInt() != MAGIC || in.readInt() != VERSION)
+		{
+			throw new IOException("Not a dataset snapshot, or written by another version.");
+		}
+		int count = in.readInt();
+		if(count < 0){throw new IOException("Corrupt dataset snapshot.");}
+		int encoding = in.readInt();
+		int[] types;
+		if(encoding == TYPES_PACKED)
+		{
+			types = readPackedTypes(in, count);
+		}
+		else if(encoding == TYPES_RUNS)
+		{
+			types = readTypeRuns(in, count);
+		}
+		else
+		{
+			throw new IOException("Corrupt dataset snapshot.");
+		}
+		int anchorPosition = in.readInt();
+		int anchorOffset = in.readInt();
+		Object[] items = new Object[count];
+		for(int c = 0; c < count; c++)
+		{
+			items[c] = codec.decode(types[c], in);
+		}
+		return new DatasetSnapshot(items, types, anchorPosition, anchorOffset);
+	}
+
+	private static int[] readPackedTypes(DataInputStream in, int count) throws IOException
+	{
+		int[] types = new int[count];
+		for(int c = 0; c < count; c++)
+		{
+			types[c] = in.readInt();
+			if(types[c] < 0){throw new IOException("Corrupt dataset snapshot.");}
+		}
+		return types;
+	}
+
+	private static int[] readTypeRuns(DataInputStream in, int count) throws IOException
+	{
+		int runs = in.readInt();
+		if(runs < 0 || runs > count){throw new IOException("Corrupt dataset snapshot.");}
+		int[] types = new int[count];
+		int position = 0;
+		for(int c = 0; c < runs; c++)
+		{
+			int type = in.readInt();
+			int length = in.readInt();
+			if(type < 0 || length < 1 || length > count - position)
+			{
+				throw new IOException("Corrupt dataset snapshot.");
+			}
+			for(int end = position + length; position < end; position++)
+			{
+				types[position] = type;
+			}
+		}
+		if(position != count){throw new IOException("Corrupt dataset snapshot.");}
+		return types;
+	}
+}
@@ -1,23 +1,47 @@
 package net.scarlettsystems.android.widget;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.annotation.IdRes;
 import android.support.annotation.IntDef;
 import android.support.annotation.LayoutRes;
+import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.OrientationHelper;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.StaggeredGridLayoutManager;
 import android.util.AttributeSet;
+import android.util.Log;
+import android.util.SparseBooleanArray;
 import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.Interpolator;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A wrapper widget for Android's RecyclerView that simplifies instantiation and configuration
@@ -38,12 +62,64 @@ public class EasyRecyclerView extends RecyclerView
 	private Context mContext;
 	private ScarlettRecyclerAdapter mAdapter;
 	private ScarlettItemAnimator mAnimator;
+	private Editor mEditor = new Editor();
+	private List<Object> mItemsView = null;
+	private boolean mSharedPool = false;
+	private long mTimingBudgetNanos = 0;
+	private OnItemOverBudgetListener mOverBudgetListener = null;
+	private StickyHeaderDecoration mStickyHeaders = null;
+	private PrefetchTracker mPrefetchTracker = null;
+	private PrefetchTracker mTextPrefetchTracker = null;
+	private int mTextPrefetchDistance = DEFAULT_TEXT_PREFETCH_DISTANCE;
+	private boolean mItemPrefetchEnabled = true;
+	private boolean mSizeCacheEnabled = false;
+	private boolean mSizeCacheSet = false;
+	private int mItemViewCacheSize = DEFAULT_ITEM_VIEW_CACHE_SIZE;
+	private int mTrimLevel = 0;
+	private long mTrimTime = 0;
+	private CacheSizer mCacheSizer = null;
+	private final LayerTracker mLayers = new LayerTracker(this);
+	private SparseBooleanArray mFlingLayerTypes = new SparseBooleanArray();
+	private boolean mFlinging = false;
+	private final ComponentCallbacks2 mTrimCallbacks = new ComponentCallbacks2()
+	{
+		@Override
+		public void onTrimMemory(int level)
+		{
+			trimMemory(level);
+		}
+
+		@Override
+		public void onLowMemory()
+		{
+			trimMemory(TRIM_MEMORY_COMPLETE);
+		}
+
+		@Override
+		public void onConfigurationChanged(Configuration configuration)
+		{
+
+		}
+	};
+	private int mInitialPrefetchItemCount = 0;
+	private final ConcurrentLinkedQueue<Mutation> mPostedMutations = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger mPostedCount = new AtomicInteger();
+	private final AtomicBoolean mDrainScheduled = new AtomicBoolean(false);
+	private final Runnable mDrainMutations = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			drainPostedMutations();
+		}
+	};
 
 
 	//Callbacks
 	private ArrayList<OnItemClickListener> mOnItemClickListeners = new ArrayList<>();
 	private ArrayList<OnItemLongClickListener> mOnItemLongClickListeners = new ArrayList<>();
 	private ArrayList<OnLoadRequestListener> mOnLoadRequestListeners = new ArrayList<>();
+	private ArrayList<OnTrimMemoryListener> mOnTrimMemoryListeners = new ArrayList<>();
 
 	private int mAnimationDuration = getResources().getInteger(android.R.integer.config_mediumAnimTime);
 	private boolean mEnabled = true;
@@ -66,9 +142,25 @@ public class EasyRecyclerView extends RecyclerView
 	public static final int EAST = ScarlettItemAnimator.EAST;
 	public static final int WEST = ScarlettItemAnimator.WEST;
 
+	@SuppressWarnings("WeakerAccess")
+	@IntDef({PHASE_CREATE, PHASE_BIND})
+	@Retention(RetentionPolicy.SOURCE)
+	public @interface Phase {}
+
+	public static final int PHASE_CREATE = 0;
+	public static final int PHASE_BIND = 1;
+
+	private static final int DEFAULT_MAX_PAGES = 8;
+	private static final int DEFAULT_ITEM_VIEW_CACHE_SIZE = 20;
+	private static final int DEFAULT_TEXT_PREFETCH_DISTANCE = 10;
+	private static final long TRIM_DECAY_MS = 60000;
+
 	private static final String EX_TYPE_CODE = "Type code must be a positive integer.";
 	private static final String EX_SPAN_COUNT = "Span count must be an integer larger than zero.";
 	private static final String EX_ORIENTATION = "Unrecognised orientation. Required: VERTICAL or HORIZONTAL.";
+	private static final String EX_CACHE_LIMIT = "Cache limits must be zero or positive.";
+	private static final String EX_PREFETCH_COUNT = "Prefetch item count must be zero or a positive integer.";
+	private static final String EX_PREFETCH_DISTANCE = "Prefetch distance must be an integer larger than zero.";
 
 	//Constructors
 	public EasyRecyclerView(Context context)
@@ -174,823 +266,3232 @@ public class EasyRecyclerView extends RecyclerView
 	}
 
 	/**
-	 * Interface definition for a callback to be invoked when user reaches the end of the list of
-	 * items and more items should be loaded.
+	 * Interface definition for a callback to be invoked when a data object is associated with
+	 * the item's View within the EasyRecyclerView, which can also bind partial changes.
 	 *
+	 * @see #replaceItem(Object, int, int, Object)
 	 */
-	public interface OnLoadRequestListener
+	public interface OnBindItemViewPayloadListener extends OnBindItemViewListener
 	{
-		void OnLoadRequest();
+		/**
+		 * Called when an item was replaced with a payload describing the change, so only the
+		 * affected parts of the item's view need to be updated. Not called for full rebinds.
+		 *
+		 * @param view instantiated view of the item
+		 * @param viewCache cache of all children of the view, accessed by view id
+		 * @param item data object of the item
+		 * @param payloads payloads of the changes since the view was last bound, in order
+		 */
+		void OnBindItemView(View view, SparseArray<View> viewCache, Object item, List<Object> payloads);
 	}
 
-	//Internal Configuration Methods
-
-	private void init(Context context)
+	/**
+	 * Interface definition for a callback to be invoked when a data object is associated with
+	 * the item's View, for items whose child views were declared by id.
+	 *
+	 * @see #addOnBindItemViewListener(int, int, int[], OnBindItemViewsListener)
+	 */
+	public interface OnBindItemViewsListener
 	{
-		mContext = context;
-		configureRecyclerView();
-		configureAdapter();
-		configureLayoutManager();
-		configureAnimator();
+		/**
+		 * Called when the data needs to be bound to the item's view.
+		 * The necessary data should be read from {@code item} and bound to {@code view}.
+		 *
+		 * @param view instantiated view of the item
+		 * @param views declared child views of the item, in declaration order
+		 * @param item data object of the item
+		 */
+		void OnBindItemView(View view, ItemViews views, Object item);
 	}
 
-	private void configureRecyclerView()
+	/**
+	 * Interface definition for a callback to be invoked when a data object is associated with
+	 * the item's View, for items whose child views were declared by id, which can also bind
+	 * partial changes.
+	 *
+	 * @see #replaceItem(Object, int, int, Object)
+	 */
+	public interface OnBindItemViewsPayloadListener extends OnBindItemViewsListener
 	{
-		setHasFixedSize(true);
-		setItemViewCacheSize(20);
-		setDrawingCacheEnabled(true);
-		setLayoutTransition(null);
-		setDrawingCacheQuality(View.DRAWING_CACHE_QUALITY_AUTO);
-		addOnScrollListener(new OnScrollListener()
-		{
-			@Override
-			public void onScrollStateChanged(RecyclerView recyclerView, int newState)
-			{
-				if (!recyclerView.canScrollVertically(1) && newState == SCROLL_STATE_IDLE)
-				{
-					if(mAdapter.isLoaderShown()){return;}
-					for(OnLoadRequestListener l : mOnLoadRequestListeners)
-					{
-						l.OnLoadRequest();
-					}
-				}
-			}
-		});
+		/**
+		 * Called when an item was replaced with a payload describing the change, so only the
+		 * affected parts of the item's view need to be updated. Not called for full rebinds.
+		 *
+		 * @param view instantiated view of the item
+		 * @param views declared child views of the item, in declaration order
+		 * @param item data object of the item
+		 * @param payloads payloads of the changes since the view was last bound, in order
+		 */
+		void OnBindItemView(View view, ItemViews views, Object item, List<Object> payloads);
 	}
 
-	@Override
-	protected void onAttachedToWindow()
+	/**
+	 * Interface definition for a callback to be invoked when an item of class {@code T} is
+	 * associated with its View within the EasyRecyclerView.
+	 *
+	 * @param <T> class of the items bound
+	 * @see #registerBinder(Class, int, TypedBinder)
+	 */
+	public interface TypedBinder<T>
 	{
-		((ViewGroup)getParent()).setLayoutTransition(null);
-		super.onAttachedToWindow();
+		/**
+		 * Called when the data needs to be bound to the item's view.
+		 * The necessary data should be read from {@code item} and bound to {@code view}.
+		 *
+		 * @param view instantiated view of the item
+		 * @param viewCache cache of all children of the view, accessed by view id
+		 * @param item data object of the item
+		 */
+		void OnBindItemView(View view, SparseArray<View> viewCache, T item);
 	}
 
-	@Override
-	public void onScrolled(int dx, int dy)
+	/**
+	 * Interface definition for a callback that determines the type code of items supplied
+	 * through {@link #submitList(List, TypeResolver)}.
+	 *
+	 */
+	public interface TypeResolver
 	{
-
+		/**
+		 * Called to determine the type code of an item. This method is invoked on the thread
+		 * submitting the list, before the difference is computed in the background.
+		 *
+		 * @param item data object of the item
+		 * @return user defined type code of the item
+		 */
+		int getTypeCode(Object item);
 	}
 
-	@Override
-	protected boolean isPaddingOffsetRequired()
+	/**
+	 * Interface definition for a callback that provides a unique, stable key for each item.
+	 *
+	 */
+	public interface ItemKeyProvider
 	{
-		return true;
+		/**
+		 * Called to obtain the key identifying an item. The same item must always produce the
+		 * same key, and no two items in EasyRecyclerView may share a key. Keys below
+		 * {@code Long.MIN_VALUE + 2^32} are reserved for placeholders and the loader and empty
+		 * prompt views, and must not be used. This method may be invoked on a background
+		 * thread.
+		 *
+		 * @param item data object of the item
+		 * @return key of the item
+		 */
+		long getKey(Object item);
 	}
 
-	@Override
-	protected int getTopPaddingOffset()
+	/**
+	 * Interface definition for a source of items that are loaded in pages on demand, as they are
+	 * about to be displayed.
+	 *
+	 * @see #setDataSource(PagedSource)
+	 */
+	public interface PagedSource
 	{
-		return -getPaddingTop();
-	}
+		/**
+		 * Called to determine the total number of items available from the source.
+		 *
+		 * @return number of items
+		 */
+		int getItemCount();
 
-	@Override
-	protected int getBottomPaddingOffset()
-	{
-		return getPaddingBottom();
-	}
+		/**
+		 * Called to determine the number of items in each page. Every page except the last must
+		 * contain exactly this many items.
+		 *
+		 * @return number of items per page
+		 */
+		int getPageSize();
 
-	@Override
-	protected int getLeftPaddingOffset()
-	{
-		return -getPaddingLeft();
+		/**
+		 * Called when a page of items is needed. Items should be loaded asynchronously, and
+		 * delivered through {@code callback} from any thread.
+		 *
+		 * @param pageIndex index of the page, starting from zero
+		 * @param callback {@link PageCallback} to deliver the page's items to
+		 */
+		void loadPage(int pageIndex, PageCallback callback);
 	}
 
-	@Override
-	protected int getRightPaddingOffset()
+	/**
+	 * Interface definition for a callback to be invoked by a {@link PagedSource} when a page of
+	 * items has been loaded.
+	 *
+	 */
+	public interface PageCallback
 	{
-		return getPaddingRight();
+		/**
+		 * Deliver the items of the requested page. May be called from any thread.
+		 *
+		 * @param items items of the page
+		 * @param typeCode user defined type code of the items
+		 */
+		void onPageLoaded(List<?> items, int typeCode);
 	}
 
-	private void configureAdapter()
+	/**
+	 * Interface definition for a callback to be invoked when creating or binding a single item
+	 * view takes longer than the configured budget.
+	 *
+	 * @see #setOnItemOverBudgetListener(long, OnItemOverBudgetListener)
+	 */
+	public interface OnItemOverBudgetListener
 	{
-		mAdapter = new ScarlettRecyclerAdapter();
-		setAdapter(mAdapter);
-		mAdapter.setAnimationDuration(mAnimationDuration);
-		mAdapter.setOnItemClickListener(new ScarlettRecyclerAdapter.OnItemClickListener()
-		{
-			@Override
-			public void OnItemClick(View v, Object object)
-			{
-				if(!mEnabled){return;}
-				for(OnItemClickListener l : mOnItemClickListeners)
-				{
-					l.OnItemClick(v, object);
-				}
-			}
-		});
-		mAdapter.setOnItemLongClickListener(new ScarlettRecyclerAdapter.OnItemLongClickListener()
-		{
-			@Override
-			public void OnItemLongClick(View v, Object object)
-			{
-				if(!mEnabled){return;}
-				for(OnItemLongClickListener l : mOnItemLongClickListeners)
-				{
-					l.OnItemLongClick(v, object);
-				}
-			}
-		});
+		/**
+		 * Called on the main thread after the slow creation or binding has completed.
+		 *
+		 * @param typeCode user defined type code of the item
+		 * @param phase {@link #PHASE_CREATE} or {@link #PHASE_BIND}
+		 * @param nanos duration of the call in nanoseconds
+		 */
+		void OnItemOverBudget(int typeCode, @Phase int phase, long nanos);
 	}
 
-	private void configureLayoutManager()
+	/**
+	 * Interface definition for a callback to be invoked with the items about to scroll into
+	 * view, so that their content can be loaded before they are displayed.
+	 *
+	 * @see #setOnPrefetchListener(int, OnPrefetchListener)
+	 */
+	public interface OnPrefetchListener
 	{
-		super.setLayoutManager(new ScarlettLayoutManager(mContext, LinearLayoutManager.VERTICAL, false));
+		/**
+		 * Called on the main thread, while it is idle, with items not yet reported.
+		 *
+		 * @param positions indices of the items, nearest to the viewport first
+		 * @param direction direction in which the items lie beyond the viewport, one of
+		 *                  {@link #NORTH}, {@link #SOUTH}, {@link #EAST} or {@link #WEST}
+		 */
+		void OnPrefetch(int[] positions, @Direction int direction);
 	}
 
-	private void configureAnimator()
+	/**
+	 * Interface definition for a callback to be invoked when the system asks the application
+	 * to release memory.
+	 *
+	 */
+	public interface OnTrimMemoryListener
 	{
-		mAnimator = new ScarlettItemAnimator();
-		setItemAnimator(mAnimator);
+		/**
+		 * Called on the main thread after EasyRecyclerView has released its own cached views.
+		 * Bitmaps and other heavy state held for items that are not displayed should be
+		 * released here.
+		 *
+		 * @param level trim level, as passed to
+		 *              {@link ComponentCallbacks2#onTrimMemory(int)}
+		 */
+		void OnTrimMemory(int level);
 	}
 
-	//Public Settings Methods
-
-	//Callbacks
 	/**
-	 * Add a listener to handle creation of the item view and subsequent binding of data, for a
-	 * user specified item of type {@code typeCode}.
+	 * Interface definition for a provider of the text of a TextView in an item view.
 	 *
-	 * @param l {@link OnCreateItemViewListener}
-	 * @param typeCode type code of the item this listener should be invoked for
+	 * @see #addTextPrefetch(int, int, TextProvider)
 	 */
-	@SuppressWarnings("unused")
-	public void addOnCreateItemViewListener(int typeCode, final OnCreateItemViewListener l)
+	public interface TextProvider
 	{
-		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
-		mAdapter.addOnItemViewListener(new ScarlettRecyclerAdapter.ItemViewListener()
-		{
-			@Override
-			public View OnCreateItemView(ViewGroup parent)
-			{
-				return l.OnCreateItemView();
-			}
-
-			@Override
-			public void OnBindItemView(View v, SparseArray<View> cache, Object item)
-			{
-				l.OnBindItemView(v, cache, item);
-			}
-		}, typeCode);
+		/**
+		 * Called on the main thread when binding, and on background threads when prefetching,
+		 * to get the text of an item.
+		 *
+		 * @param item data object of the item
+		 * @return text to display
+		 */
+		CharSequence getText(Object item);
 	}
 
 	/**
-	 * Specify a view layout and add a listener to handle binding of data, for a
-	 * user specified item of type {@code typeCode}.
+	 * Interface definition for a filter selecting the items displayed by EasyRecyclerView.
 	 *
-	 * @param l {@link OnBindItemViewListener}
-	 * @param typeCode type code of the item this listener should be invoked for
+	 * @see #setFilter(ItemFilter)
 	 */
-	@SuppressWarnings("unused")
-	public void addOnBindItemViewListener(int typeCode, @LayoutRes final int resId, final OnBindItemViewListener l)
+	public interface ItemFilter
 	{
-		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
-		mAdapter.addOnItemViewListener(new ScarlettRecyclerAdapter.ItemViewListener()
-		{
-			@Override
-			public View OnCreateItemView(ViewGroup parent)
-			{
-				return LayoutInflater
-						.from(mContext)
-						.inflate(resId, parent, false);
-			}
-
-			@Override
-			public void OnBindItemView(View v, SparseArray<View> cache, Object item)
-			{
-				l.OnBindItemView(v, cache, item);
-			}
-		}, typeCode);
+		/**
+		 * Called to test an item. Filtering the dataset calls it on background threads, possibly
+		 * on several at once; items appended while the filter is set are tested on the main
+		 * thread as they are added, unless many are appended at once.
+		 *
+		 * @param item data object of the item
+		 * @return true to display the item
+		 */
+		boolean matches(Object item);
 	}
 
 	/**
-	 * Remove the listener related to an item code.
+	 * Interface definition for a resolver grouping items into sections.
 	 *
-	 * @param typeCode user defined type code for which listener should be removed
+	 * @see #setSectionResolver(SectionResolver)
 	 */
-	@SuppressWarnings("unused")
-	public void removeOnItemListener(int typeCode)
+	public interface SectionResolver
 	{
-		mAdapter.removeOnItemViewListener(typeCode);
+		/**
+		 * Called to get the section of an item. Consecutive items with equal sections, as
+		 * compared by {@link Object#equals(Object)}, form one section.
+		 *
+		 * @param item data object of the item, or null for a placeholder
+		 * @return object identifying the section of the item
+		 */
+		Object getSection(Object item);
 	}
 
 	/**
-	 * Clear all item creation and binding listeners.
+	 * Interface definition for a callback to be invoked when a section header is to be bound.
 	 *
+	 * @see #setStickyHeader(int, OnBindSectionHeaderListener)
+	 */
+	public interface OnBindSectionHeaderListener
+	{
+		/**
+		 * Called to bind the header view to a section.
+		 *
+		 * @param header header view
+		 * @param section object identifying the section, as returned by the
+		 *                {@link SectionResolver}
+		 */
+		void OnBindSectionHeader(View header, Object section);
+	}
+
+	/**
+	 * Interface definition for a codec writing items to, and reading them from, a dataset
+	 * snapshot.
+	 *
+	 * @see #saveSnapshot(File, ItemCodec)
+	 * @see #restoreSnapshot(File, ItemCodec, OnRestoreListener)
+	 */
+	public interface ItemCodec
+	{
+		/**
+		 * Called on the main thread to write an item.
+		 *
+		 * @param item data object of the item
+		 * @param typeCode type code of the item
+		 * @param out output to write the item to
+		 * @throws IOException if the item cannot be written
+		 */
+		void encode(Object item, int typeCode, DataOutput out) throws IOException;
+
+		/**
+		 * Called on a background thread to read an item written by
+		 * {@link #encode(Object, int, DataOutput)}.
+		 *
+		 * @param typeCode type code of the item
+		 * @param in input to read the item from
+		 * @return data object of the item
+		 * @throws IOException if the item cannot be read
+		 */
+		Object decode(int typeCode, DataInput in) throws IOException;
+	}
+
+	/**
+	 * Interface definition for a callback to be invoked when restoring a dataset snapshot has
+	 * finished.
+	 *
+	 */
+	public interface OnRestoreListener
+	{
+		/**
+		 * Called on the main thread.
+		 *
+		 * @param restored true if the snapshot was displayed, false if it was missing, could not
+		 *                 be read, or the dataset was changed while it was being read
+		 */
+		void OnRestore(boolean restored);
+	}
+
+	/**
+	 * Interface definition for a callback to be invoked for each item visited by
+	 * {@link #forEachItem(int, int, ItemVisitor)}.
+	 *
+	 */
+	public interface ItemVisitor
+	{
+		/**
+		 * Called for each visited item, in order.
+		 *
+		 * @param index index of the item
+		 * @param item data object of the item
+		 * @return true to continue visiting, false to stop
+		 */
+		boolean onVisitItem(int index, Object item);
+	}
+
+	/**
+	 * Interface definition for a set of edits to be applied to EasyRecyclerView's dataset as a
+	 * single batch.
+	 *
+	 * @see #mutate(Mutation)
+	 */
+	public interface Mutation
+	{
+		/**
+		 * Called to apply edits to the dataset.
+		 *
+		 * @param editor {@link Editor} through which the edits should be made
+		 */
+		void apply(Editor editor);
+	}
+
+	/**
+	 * Interface definition for a callback to be invoked when user reaches the end of the list of
+	 * items and more items should be loaded.
+	 *
+	 */
+	public interface OnLoadRequestListener
+	{
+		void OnLoadRequest();
+	}
+
+	/**
+	 * Editing interface to EasyRecyclerView's dataset, supplied to a {@link Mutation}. Edits
+	 * take effect immediately, while their notifications are merged and dispatched once the
+	 * mutation returns.
+	 *
+	 * @see #mutate(Mutation)
+	 */
+	public final class Editor
+	{
+		private Editor(){}
+
+		/**
+		 * Add an item to the end of the dataset.
+		 *
+		 * @param item object to be added
+		 * @param typeCode user defined type code of the item
+		 * @see EasyRecyclerView#addItem(Object, int)
+		 */
+		@SuppressWarnings("unused")
+		public void addItem(Object item, int typeCode)
+		{
+			EasyRecyclerView.this.addItem(item, typeCode);
+		}
+
+		/**
+		 * Add items of the same type to the end of the dataset.
+		 *
+		 * @param items list of objects to be added
+		 * @param typeCode user defined type code of the items
+		 * @see EasyRecyclerView#addItems(ArrayList, int)
+		 */
+		@SuppressWarnings("unused")
+		public void addItems(ArrayList<?> items, int typeCode)
+		{
+			EasyRecyclerView.this.addItems(items, typeCode);
+		}
+
+		/**
+		 * Insert an item at the specified index.
+		 *
+		 * @param item object to be added
+		 * @param index destination index
+		 * @param typeCode user defined type code of the item
+		 * @see EasyRecyclerView#addItemAt(Object, int, int)
+		 */
+		@SuppressWarnings("unused")
+		public void addItemAt(Object item, int index, int typeCode)
+		{
+			EasyRecyclerView.this.addItemAt(item, index, typeCode);
+		}
+
+		/**
+		 * Insert items of the same type at the specified index.
+		 *
+		 * @param items list of objects to be added
+		 * @param index destination index of the first item
+		 * @param typeCode user defined type code of the items
+		 * @see EasyRecyclerView#addItemsAt(List, int, int)
+		 */
+		@SuppressWarnings("unused")
+		public void addItemsAt(List<?> items, int index, int typeCode)
+		{
+			EasyRecyclerView.this.addItemsAt(items, index, typeCode);
+		}
+
+		/**
+		 * Add an item to the end of the dataset, with the type code of its class.
+		 *
+		 * @param item object to be added
+		 * @see EasyRecyclerView#addItem(Object)
+		 */
+		@SuppressWarnings("unused")
+		public void addItem(Object item)
+		{
+			EasyRecyclerView.this.addItem(item);
+		}
+
+		/**
+		 * Add items to the end of the dataset, each with the type code of its class.
+		 *
+		 * @param items list of objects to be added
+		 * @see EasyRecyclerView#addItems(List)
+		 */
+		@SuppressWarnings("unused")
+		public void addItems(List<?> items)
+		{
+			EasyRecyclerView.this.addItems(items);
+		}
+
+		/**
+		 * Insert an item at the specified index, with the type code of its class.
+		 *
+		 * @param item object to be added
+		 * @param index destination index
+		 * @see EasyRecyclerView#addItemAt(Object, int)
+		 */
+		@SuppressWarnings("unused")
+		public void addItemAt(Object item, int index)
+		{
+			EasyRecyclerView.this.addItemAt(item, index);
+		}
+
+		/**
+		 * Insert items at the specified index, each with the type code of its class.
+		 *
+		 * @param items list of objects to be added
+		 * @param index destination index of the first item
+		 * @see EasyRecyclerView#addItemsAt(List, int)
+		 */
+		@SuppressWarnings("unused")
+		public void addItemsAt(List<?> items, int index)
+		{
+			EasyRecyclerView.this.addItemsAt(items, index);
+		}
+
+		/**
+		 * Replace the item at the specified index, with the type code of the new item's class.
+		 *
+		 * @param item new item to replace with
+		 * @param index index of the item to replace
+		 * @see EasyRecyclerView#replaceItem(Object, int)
+		 */
+		@SuppressWarnings("unused")
+		public void replaceItem(Object item, int index)
+		{
+			EasyRecyclerView.this.replaceItem(item, index);
+		}
+
+		/**
+		 * Move an item that was modified in place to its sorted position.
+		 *
+		 * @param index current index of the item
+		 * @return new index of the item
+		 * @see EasyRecyclerView#resortItem(int)
+		 */
+		@SuppressWarnings("unused")
+		public int resortItem(int index)
+		{
+			return EasyRecyclerView.this.resortItem(index);
+		}
+
+		/**
+		 * Remove the item at the specified index.
+		 *
+		 * @param index index of the item to remove
+		 * @see EasyRecyclerView#removeItem(int)
+		 */
+		@SuppressWarnings("unused")
+		public void removeItem(int index)
+		{
+			EasyRecyclerView.this.removeItem(index);
+		}
+
+		/**
+		 * Remove a range of items.
+		 *
+		 * @param startIndex index of the first item to remove
+		 * @param count number of items to remove
+		 * @see EasyRecyclerView#removeItems(int, int)
+		 */
+		@SuppressWarnings("unused")
+		public void removeItems(int startIndex, int count)
+		{
+			EasyRecyclerView.this.removeItems(startIndex, count);
+		}
+
+		/**
+		 * Move an item to another index.
+		 *
+		 * @param fromIndex current index of the item
+		 * @param toIndex destination index
+		 * @see EasyRecyclerView#moveItem(int, int)
+		 */
+		@SuppressWarnings("unused")
+		public void moveItem(int fromIndex, int toIndex)
+		{
+			EasyRecyclerView.this.moveItem(fromIndex, toIndex);
+		}
+
+		/**
+		 * Replace the item at the specified index.
+		 *
+		 * @param item new item to replace with
+		 * @param index index of the item to replace
+		 * @param typeCode user defined type code of the new item
+		 * @see EasyRecyclerView#replaceItem(Object, int, int)
+		 */
+		@SuppressWarnings("unused")
+		public void replaceItem(Object item, int index, int typeCode)
+		{
+			EasyRecyclerView.this.replaceItem(item, index, typeCode);
+		}
+
+		/**
+		 * Replace the item at the specified index, rebinding only the parts described by a payload.
+		 *
+		 * @param item new item to replace with
+		 * @param index index of the item to replace
+		 * @param typeCode user defined type code of the new item
+		 * @param payload description of the change passed to the binder
+		 * @see EasyRecyclerView#replaceItem(Object, int, int, Object)
+		 */
+		@SuppressWarnings("unused")
+		public void replaceItem(Object item, int index, int typeCode, Object payload)
+		{
+			EasyRecyclerView.this.replaceItem(item, index, typeCode, payload);
+		}
+
+		/**
+		 * Replace a range of items with items of the same type.
+		 *
+		 * @param items new items to replace with
+		 * @param startIndex index of the first item to replace
+		 * @param typeCode user defined type code of the new items
+		 * @see EasyRecyclerView#replaceItems(List, int, int)
+		 */
+		@SuppressWarnings("unused")
+		public void replaceItems(List<?> items, int startIndex, int typeCode)
+		{
+			EasyRecyclerView.this.replaceItems(items, startIndex, typeCode);
+		}
+
+		/**
+		 * Remove every item from the dataset.
+		 *
+		 * @see EasyRecyclerView#removeAll()
+		 */
+		@SuppressWarnings("unused")
+		public void removeAll()
+		{
+			EasyRecyclerView.this.removeAll();
+		}
+
+		/**
+		 * Get the item at the specified index, including edits made earlier in this mutation.
+		 *
+		 * @param index index of the item
+		 * @return item object
+		 * @see EasyRecyclerView#getItem(int)
+		 */
+		@SuppressWarnings("unused")
+		public Object getItem(int index)
+		{
+			return EasyRecyclerView.this.getItem(index);
+		}
+
+		/**
+		 * Get the number of items in the dataset, including edits made earlier in this mutation.
+		 *
+		 * @return number of items
+		 * @see EasyRecyclerView#getItemCount()
+		 */
+		@SuppressWarnings("unused")
+		public int getItemCount()
+		{
+			return EasyRecyclerView.this.getItemCount();
+		}
+
+		/**
+		 * Replace the item in the dataset that matches {@code item}, keeping its type code.
+		 *
+		 * @param item new item to replace with
+		 * @return true if a matching item was found and replaced
+		 * @see EasyRecyclerView#replaceItem(Object)
+		 */
+		@SuppressWarnings("unused")
+		public boolean replaceItem(Object item)
+		{
+			return EasyRecyclerView.this.replaceItem(item);
+		}
+
+		/**
+		 * Get the index of an item in the dataset.
+		 *
+		 * @param item item to look for
+		 * @return index of the item, or -1 if it is not in the dataset
+		 * @see EasyRecyclerView#indexOf(Object)
+		 */
+		@SuppressWarnings("unused")
+		public int indexOf(Object item)
+		{
+			return EasyRecyclerView.this.indexOf(item);
+		}
+
+		/**
+		 * Get whether an item is in the dataset.
+		 *
+		 * @param item item to look for
+		 * @return true if the item is in the dataset
+		 * @see EasyRecyclerView#contains(Object)
+		 */
+		@SuppressWarnings("unused")
+		public boolean contains(Object item)
+		{
+			return EasyRecyclerView.this.contains(item);
+		}
+	}
+
+	/**
+	 * Reusable read-only cursor over EasyRecyclerView's dataset. A cursor reads the live dataset
+	 * and performs no allocation while moving, so a single instance can be kept and reused.
+	 *
+	 * @see #newItemCursor()
+	 */
+	public final class ItemCursor
+	{
+		private int mPosition = -1;
+
+		private ItemCursor(){}
+
+		/**
+		 * Get the number of items in the dataset.
+		 *
+		 * @return number of items
+		 */
+		public int getCount()
+		{
+			return mAdapter.getItemCountProtected();
+		}
+
+		/**
+		 * Get the current position of the cursor.
+		 *
+		 * @return current position, or -1 before the first item
+		 */
+		public int getPosition()
+		{
+			return mPosition;
+		}
+
+		/**
+		 * Move the cursor to the specified position.
+		 *
+		 * @param position target position
+		 * @return true if the position is within the dataset
+		 */
+		public boolean moveToPosition(int position)
+		{
+			int count = getCount();
+			if(position < 0)
+			{
+				mPosition = -1;
+				return false;
+			}
+			if(position >= count)
+			{
+				mPosition = count;
+				return false;
+			}
+			mPosition = position;
+			return true;
+		}
+
+		/**
+		 * Move the cursor to the first item.
+		 *
+		 * @return true if the dataset is not empty
+		 */
+		public boolean moveToFirst()
+		{
+			return moveToPosition(0);
+		}
+
+		/**
+		 * Move the cursor to the next item.
+		 *
+		 * @return true if the cursor is still within the dataset
+		 */
+		public boolean moveToNext()
+		{
+			return moveToPosition(mPosition + 1);
+		}
+
+		/**
+		 * Move the cursor before the first item, so the next {@link #moveToNext()} moves to it.
+		 *
+		 */
+		public void reset()
+		{
+			mPosition = -1;
+		}
+
+		/**
+		 * Get the item at the cursor's current position.
+		 *
+		 * @return item
+		 */
+		public Object getItem()
+		{
+			return EasyRecyclerView.this.getItem(mPosition);
+		}
+	}
+
+	//Internal Configuration Methods
+
+	private void init(Context context)
+	{
+		mContext = context;
+		configureRecyclerView();
+		configureAdapter();
+		configureLayoutManager();
+		configureAnimator();
+	}
+
+	private void configureRecyclerView()
+	{
+		setHasFixedSize(true);
+		setItemViewCacheSize(DEFAULT_ITEM_VIEW_CACHE_SIZE);
+		setLayoutTransition(null);
+		addOnScrollListener(new OnScrollListener()
+		{
+			@Override
+			public void onScrollStateChanged(RecyclerView recyclerView, int newState)
+			{
+				onFlingStateChanged(newState == SCROLL_STATE_SETTLING);
+				if(newState == SCROLL_STATE_IDLE
+						&& SystemClock.uptimeMillis() - mTrimTime >= TRIM_DECAY_MS)
+				{
+					//Memory pressure the system has not reported for a while has passed
+					restoreTrimmedCache();
+				}
+				if(newState == SCROLL_STATE_IDLE && mCacheSizer != null)
+				{
+					int size = mCacheSizer.onScrollIdle();
+					if(size >= 0){applyItemViewCacheSize(size);}
+				}
+				if (!recyclerView.canScrollVertically(1) && newState == SCROLL_STATE_IDLE)
+				{
+					if(mAdapter.isLoaderShown()){return;}
+					for(OnLoadRequestListener l : mOnLoadRequestListeners)
+					{
+						l.OnLoadRequest();
+					}
+				}
+			}
+		});
+		addOnChildAttachStateChangeListener(new OnChildAttachStateChangeListener()
+		{
+			@Override
+			public void onChildViewAttachedToWindow(View view)
+			{
+				if(mFlinging && mFlingLayerTypes.get(getChildViewHolder(view).getItemViewType()))
+				{
+					mLayers.acquire(view, LayerTracker.SOURCE_FLING);
+				}
+			}
+
+			@Override
+			public void onChildViewDetachedFromWindow(View view)
+			{
+				mLayers.release(view, LayerTracker.SOURCE_FLING);
+			}
+		});
+	}
+
+	@Override
+	protected void onAttachedToWindow()
+	{
+		((ViewGroup)getParent()).setLayoutTransition(null);
+		super.onAttachedToWindow();
+		mContext.getApplicationContext().registerComponentCallbacks(mTrimCallbacks);
+	}
+
+	@Override
+	protected void onDetachedFromWindow()
+	{
+		mContext.getApplicationContext().unregisterComponentCallbacks(mTrimCallbacks);
+		super.onDetachedFromWindow();
+	}
+
+	@Override
+	protected void onWindowVisibilityChanged(int visibility)
+	{
+		super.onWindowVisibilityChanged(visibility);
+		//Memory released while hidden is taken back once the list is shown again
+		if(visibility == VISIBLE)
+		{
+			restoreTrimmedCache();
+		}
+	}
+
+	@Override
+	public void onScrolled(int dx, int dy)
+	{
+		if(mPrefetchTracker != null)
+		{
+			mPrefetchTracker.onScrolled(dx, dy);
+		}
+		if(mTextPrefetchTracker != null)
+		{
+			mTextPrefetchTracker.onScrolled(dx, dy);
+		}
+		if(mCacheSizer != null)
+		{
+			mCacheSizer.onScrolled(dx, dy);
+		}
+	}
+
+	@Override
+	public boolean fling(int velocityX, int velocityY)
+	{
+		boolean flung = super.fling(velocityX, velocityY);
+		if(flung && mCacheSizer != null)
+		{
+			mCacheSizer.onFling(velocityX, velocityY);
+		}
+		return flung;
+	}
+
+	@Override
+	protected boolean isPaddingOffsetRequired()
+	{
+		return true;
+	}
+
+	@Override
+	protected int getTopPaddingOffset()
+	{
+		return -getPaddingTop();
+	}
+
+	@Override
+	protected int getBottomPaddingOffset()
+	{
+		return getPaddingBottom();
+	}
+
+	@Override
+	protected int getLeftPaddingOffset()
+	{
+		return -getPaddingLeft();
+	}
+
+	@Override
+	protected int getRightPaddingOffset()
+	{
+		return getPaddingRight();
+	}
+
+	private void configureAdapter()
+	{
+		mAdapter = new ScarlettRecyclerAdapter();
+		setAdapter(mAdapter);
+		mAdapter.setAnimationDuration(mAnimationDuration);
+		mAdapter.setOnItemClickListener(new ScarlettRecyclerAdapter.OnItemClickListener()
+		{
+			@Override
+			public void OnItemClick(View v, Object object)
+			{
+				if(!mEnabled){return;}
+				for(OnItemClickListener l : mOnItemClickListeners)
+				{
+					l.OnItemClick(v, object);
+				}
+			}
+		});
+		mAdapter.setOnItemLongClickListener(new ScarlettRecyclerAdapter.OnItemLongClickListener()
+		{
+			@Override
+			public void OnItemLongClick(View v, Object object)
+			{
+				if(!mEnabled){return;}
+				for(OnItemLongClickListener l : mOnItemLongClickListeners)
+				{
+					l.OnItemLongClick(v, object);
+				}
+			}
+		});
+	}
+
+	private void configureLayoutManager()
+	{
+		LayoutManager lm = new ScarlettLayoutManager(mContext, LinearLayoutManager.VERTICAL, false);
+		configurePrefetch(lm);
+		configureSizeCache(lm);
+		super.setLayoutManager(lm);
+	}
+
+	private void configurePoolSharing(LayoutManager lm)
+	{
+		//Return children to the shared pool when a nested list is detached from its parent
+		if(lm instanceof LinearLayoutManager)
+		{
+			((LinearLayoutManager)lm).setRecycleChildrenOnDetach(mSharedPool);
+		}
+	}
+
+	private void configurePrefetch(LayoutManager lm)
+	{
+		lm.setItemPrefetchEnabled(mItemPrefetchEnabled);
+		if(!(lm instanceof LinearLayoutManager)){return;}
+		int count = mInitialPrefetchItemCount;
+		if(count == 0 && lm instanceof GridLayoutManager)
+		{
+			//Prefetch a whole row when nested, rather than the default of two cells
+			count = ((GridLayoutManager)lm).getSpanCount();
+		}
+		if(count > 0)
+		{
+			((LinearLayoutManager)lm).setInitialPrefetchItemCount(count);
+		}
+	}
+
+	private void configureSizeCache(LayoutManager lm)
+	{
+		//Layout managers keep their own setting until one is chosen here
+		if(mSizeCacheSet && lm instanceof ScarlettLayoutManager)
+		{
+			((ScarlettLayoutManager)lm).setSizeCacheEnabled(mSizeCacheEnabled);
+		}
+	}
+
+	private void trimMemory(int level)
+	{
+		mTrimTime = SystemClock.uptimeMillis();
+		if(level > mTrimLevel)
+		{
+			mTrimLevel = level;
+			super.setItemViewCacheSize(getTrimmedCacheSize());
+		}
+		//A pool shared with other lists is left to whoever shares it
+		if(!mSharedPool && level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND)
+		{
+			getRecycledViewPool().clear();
+		}
+		else if(!mSharedPool && level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW)
+		{
+			//Keep holders of types on screen, which are the ones scrolling will need next
+			SparseBooleanArray onScreen = new SparseBooleanArray();
+			for(int c = 0; c < getChildCount(); c++)
+			{
+				onScreen.put(getChildViewHolder(getChildAt(c)).getItemViewType(), true);
+			}
+			mAdapter.trimPool(getRecycledViewPool(), onScreen);
+		}
+		if(level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW)
+		{
+			mAdapter.clearTextCache();
+		}
+		for(OnTrimMemoryListener l : new ArrayList<>(mOnTrimMemoryListeners))
+		{
+			l.OnTrimMemory(level);
+		}
+	}
+
+	private void restoreTrimmedCache()
+	{
+		if(mTrimLevel == 0){return;}
+		mTrimLevel = 0;
+		super.setItemViewCacheSize(mItemViewCacheSize);
+	}
+
+	private int getTrimmedCacheSize()
+	{
+		if(mTrimLevel >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL){return 0;}
+		if(mTrimLevel >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW){return Math.min(mItemViewCacheSize, 2);}
+		if(mTrimLevel >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE){return mItemViewCacheSize / 2;}
+		return mItemViewCacheSize;
+	}
+
+	private void onFlingStateChanged(boolean flinging)
+	{
+		if(flinging == mFlinging){return;}
+		mFlinging = flinging;
+		if(!flinging)
+		{
+			mLayers.releaseAll(LayerTracker.SOURCE_FLING);
+			return;
+		}
+		for(int c = 0; c < getChildCount(); c++)
+		{
+			View child = getChildAt(c);
+			if(mFlingLayerTypes.get(getChildViewHolder(child).getItemViewType()))
+			{
+				mLayers.acquire(child, LayerTracker.SOURCE_FLING);
+			}
+		}
+	}
+
+	private void configureAnimator()
+	{
+		mAnimator = new ScarlettItemAnimator();
+		setItemAnimator(mAnimator);
+	}
+
+	//Public Settings Methods
+
+	//Callbacks
+	/**
+	 * Add a listener to handle creation of the item view and subsequent binding of data, for a
+	 * user specified item of type {@code typeCode}.
+	 *
+	 * @param l {@link OnCreateItemViewListener}
+	 * @param typeCode type code of the item this listener should be invoked for
+	 */
+	@SuppressWarnings("unused")
+	public void addOnCreateItemViewListener(int typeCode, final OnCreateItemViewListener l)
+	{
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		mAdapter.addOnItemViewListener(new ScarlettRecyclerAdapter.ItemViewListener()
+		{
+			@Override
+			public View OnCreateItemView(ViewGroup parent)
+			{
+				return l.OnCreateItemView();
+			}
+
+			@Override
+			public void OnBindItemView(View v, SparseArray<View> cache, Object item)
+			{
+				l.OnBindItemView(v, cache, item);
+			}
+		}, typeCode);
+	}
+
+	/**
+	 * Specify a view layout and add a listener to handle binding of data, for a
+	 * user specified item of type {@code typeCode}. If {@code l} is an
+	 * {@link OnBindItemViewPayloadListener}, items replaced with a payload are bound through it.
+	 *
+	 * @param l {@link OnBindItemViewListener}
+	 * @param typeCode type code of the item this listener should be invoked for
+	 */
+	@SuppressWarnings("unused")
+	public void addOnBindItemViewListener(int typeCode, @LayoutRes final int resId, final OnBindItemViewListener l)
+	{
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		final OnBindItemViewPayloadListener payloadListener =
+				l instanceof OnBindItemViewPayloadListener ? (OnBindItemViewPayloadListener)l : null;
+		mAdapter.addOnItemViewListener(new ScarlettRecyclerAdapter.ItemViewListener()
+		{
+			@Override
+			public View OnCreateItemView(ViewGroup parent)
+			{
+				return LayoutInflater
+						.from(mContext)
+						.inflate(resId, parent, false);
+			}
+
+			@Override
+			public void OnBindItemView(View v, SparseArray<View> cache, Object item)
+			{
+				l.OnBindItemView(v, cache, item);
+			}
+
+			@Override
+			public void OnBindItemView(View v, SparseArray<View> cache, Object item, List<Object> payloads)
+			{
+				if(payloadListener == null)
+				{
+					l.OnBindItemView(v, cache, item);
+					return;
+				}
+				payloadListener.OnBindItemView(v, cache, item, payloads);
+			}
+		}, typeCode, resId);
+	}
+
+	/**
+	 * Specify a view layout, the ids of the child views to be bound, and a listener to handle
+	 * binding of data, for a user specified item of type {@code typeCode}.
+	 *
+	 * <p>The declared views are located once for each item view and passed to the listener as
+	 * {@link ItemViews}, in the order of {@code viewIds}. This is faster than the view cache
+	 * passed to {@link OnBindItemViewListener}, particularly for deep layouts. If {@code l} is an
+	 * {@link OnBindItemViewsPayloadListener}, items replaced with a payload are bound through it.
+	 *
+	 * @param typeCode type code of the item this listener should be invoked for
+	 * @param resId layout resource of the item view
+	 * @param viewIds ids of the child views to be bound
+	 * @param l {@link OnBindItemViewsListener}
+	 */
+	@SuppressWarnings("unused")
+	public void addOnBindItemViewListener(int typeCode, @LayoutRes final int resId, @IdRes int[] viewIds, final OnBindItemViewsListener l)
+	{
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		final BindingPlan plan = new BindingPlan(viewIds);
+		final OnBindItemViewsPayloadListener payloadListener =
+				l instanceof OnBindItemViewsPayloadListener ? (OnBindItemViewsPayloadListener)l : null;
+		mAdapter.addOnItemViewListener(new ScarlettRecyclerAdapter.ItemViewListener()
+		{
+			@Override
+			public View OnCreateItemView(ViewGroup parent)
+			{
+				return LayoutInflater
+						.from(mContext)
+						.inflate(resId, parent, false);
+			}
+
+			@Override
+			public void OnBindItemView(View v, ItemViews views, Object item)
+			{
+				l.OnBindItemView(v, views, item);
+			}
+
+			@Override
+			public void OnBindItemView(View v, ItemViews views, Object item, List<Object> payloads)
+			{
+				if(payloadListener == null)
+				{
+					l.OnBindItemView(v, views, item);
+					return;
+				}
+				payloadListener.OnBindItemView(v, views, item, payloads);
+			}
+
+			@Override
+			BindingPlan getBindingPlan()
+			{
+				return plan;
+			}
+		}, typeCode, resId);
+	}
+
+	/**
+	 * Create item views of type {@code typeCode} ahead of time and hold them in the recycled
+	 * view pool, so that scrolling to the first items of that type does not have to create
+	 * views. Views of types added through
+	 * {@link #addOnBindItemViewListener(int, int, OnBindItemViewListener)} are inflated off the
+	 * main thread. Views of types added through
+	 * {@link #addOnCreateItemViewListener(int, OnCreateItemViewListener)} are created on the
+	 * main thread while it is idle. Must be called on the main thread, after the item listener
+	 * for {@code typeCode} has been added.
+	 *
+	 * @param typeCode user defined type code of the views to create
+	 * @param count number of views to create
+	 */
+	@SuppressWarnings("unused")
+	public void preinflate(int typeCode, int count)
+	{
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		mAdapter.preinflate(typeCode, count);
+	}
+
+	/**
+	 * Enable or disable timing of item view creation and binding. While enabled, the duration
+	 * of every {@code OnCreateItemView} and {@code OnBindItemView} call is recorded per type
+	 * code. Disabling timing discards the recorded timings; while disabled, no timing work is
+	 * done.
+	 *
+	 * @param enabled true to record timings
+	 */
+	@SuppressWarnings("unused")
+	public void setItemTimingEnabled(boolean enabled)
+	{
+		mAdapter.setTimingEnabled(enabled);
+		applyTimingBudget();
+	}
+
+	/**
+	 * Set a callback to be invoked when a single item view creation or binding takes longer
+	 * than {@code budgetNanos}, while timing is enabled.
+	 *
+	 * @param budgetNanos budget of a single call in nanoseconds
+	 * @param l {@link OnItemOverBudgetListener}, or null to remove
+	 */
+	@SuppressWarnings("unused")
+	public void setOnItemOverBudgetListener(long budgetNanos, OnItemOverBudgetListener l)
+	{
+		mTimingBudgetNanos = budgetNanos;
+		mOverBudgetListener = l;
+		applyTimingBudget();
+	}
+
+	private void applyTimingBudget()
+	{
+		ItemTimingRecorder timings = mAdapter.getTimings();
+		if(timings == null){return;}
+		final OnItemOverBudgetListener l = mOverBudgetListener;
+		timings.setBudget(mTimingBudgetNanos, l == null ? null : new ItemTimingRecorder.OverBudgetListener()
+		{
+			@Override
+			public void onOverBudget(int typeCode, int phase, long nanos)
+			{
+				l.OnItemOverBudget(typeCode, phase, nanos);
+			}
+		});
+	}
+
+	/**
+	 * Get the item view creation and binding timings recorded since timing was enabled or last
+	 * reset, one entry per type code and phase.
+	 *
+	 * @return snapshot of the recorded timings, empty if timing is disabled
+	 */
+	@SuppressWarnings("unused")
+	public List<ItemTimingStats> getItemTimings()
+	{
+		ItemTimingRecorder timings = mAdapter.getTimings();
+		if(timings == null){return new ArrayList<>();}
+		return timings.snapshot();
+	}
+
+	/**
+	 * Discard the recorded item view creation and binding timings.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void resetItemTimings()
+	{
+		ItemTimingRecorder timings = mAdapter.getTimings();
+		if(timings != null){timings.reset();}
+	}
+
+	/**
+	 * Set whether item views are given hardware layers while they are animated by the item
+	 * animator, so that fading and moving them only composites their cached rendering. Layers
+	 * are released as soon as each animation ends. Worth enabling for items that are expensive
+	 * to draw; for simple items, rendering the layer costs more than it saves. Views larger
+	 * than the list are never given a layer. Disabled by default.
+	 *
+	 * @param enabled true to use layers during item animations
+	 * @see #getLayerStats()
+	 */
+	@SuppressWarnings("unused")
+	public void setAnimationLayersEnabled(boolean enabled)
+	{
+		mAnimator.setLayerTracker(enabled ? mLayers : null);
+	}
+
+	/**
+	 * Set whether item views of type {@code typeCode} are given hardware layers while the list
+	 * is flung or otherwise settling, and released once it stops or is touched. Worth enabling
+	 * for items that are expensive to draw, such as those with elevation shadows or complex
+	 * backgrounds, and whose content does not change while scrolling. Disabled by default.
+	 *
+	 * @param typeCode type code of the items
+	 * @param enabled true to use layers while flinging
+	 * @see #getLayerStats()
+	 */
+	@SuppressWarnings("unused")
+	public void setFlingLayersEnabled(int typeCode, boolean enabled)
+	{
+		mFlingLayerTypes.put(typeCode, enabled);
+	}
+
+	/**
+	 * Get the counts of hardware layers given to item views since the counts were last reset,
+	 * with the layers currently held and their estimated memory.
+	 *
+	 * @return snapshot of the layer counts
+	 */
+	@SuppressWarnings("unused")
+	public LayerStats getLayerStats()
+	{
+		return mLayers.snapshot();
+	}
+
+	/**
+	 * Reset the counts of created and released layers, and the peaks to the layers currently
+	 * held.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void resetLayerStats()
+	{
+		mLayers.reset();
+	}
+
+	/**
+	 * Set the maximum number of recycled views of type {@code typeCode} held for reuse. The
+	 * default is 5 per type, which is usually too few for grids and wide carousels.
+	 *
+	 * @param typeCode user defined type code
+	 * @param max maximum number of recycled views to keep
+	 */
+	@SuppressWarnings("unused")
+	public void setMaxRecycledViews(int typeCode, int max)
+	{
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		mAdapter.setMaxRecycledViews(typeCode, max);
+	}
+
+	/**
+	 * Set the number of offscreen item views kept ready to be displayed again without being
+	 * rebound, turning off adaptive sizing. The cache is shrunk temporarily under memory
+	 * pressure.
+	 *
+	 * @param size number of item views
+	 * @see #setAdaptiveItemViewCache(int, long)
+	 * @see #addOnTrimMemoryListener(OnTrimMemoryListener)
+	 */
+	@Override
+	public void setItemViewCacheSize(int size)
+	{
+		mCacheSizer = null;
+		applyItemViewCacheSize(size);
+	}
+
+	/**
+	 * Size the item view cache from how the list is scrolled, each time scrolling stops. The
+	 * cache covers a screen of items when the list is scrolled steadily one way, and up to one
+	 * and a half screens when the scroll direction is reversed often or after a fast fling,
+	 * counted with the average extent of the items displayed. Memory is estimated at four bytes
+	 * per pixel of item area. Calling {@link #setItemViewCacheSize(int)} turns adaptive sizing
+	 * off.
+	 *
+	 * @param maxViews largest number of item views to cache, or 0 for no limit
+	 * @param maxBytes largest estimated memory of the cached item views, or 0 for no limit
+	 */
+	@SuppressWarnings("unused")
+	public void setAdaptiveItemViewCache(int maxViews, long maxBytes)
+	{
+		if(maxViews < 0 || maxBytes < 0){throw new IllegalArgumentException(EX_CACHE_LIMIT);}
+		mCacheSizer = new CacheSizer(this, maxViews, maxBytes);
+	}
+
+	private void applyItemViewCacheSize(int size)
+	{
+		mItemViewCacheSize = size;
+		super.setItemViewCacheSize(getTrimmedCacheSize());
+	}
+
+	/**
+	 * Set the pool of recycled views used by EasyRecyclerView. Sharing one pool between several
+	 * EasyRecyclerView instances, such as carousels nested inside a vertical list, lets them
+	 * reuse each other's item views instead of creating their own. Instances sharing a pool
+	 * must use the same type codes for the same item views.
+	 *
+	 * Per type limits set through {@link #setMaxRecycledViews(int, int)} are applied to the new
+	 * pool, and linear layouts return their views to the pool when detached.
+	 *
+	 * @param pool pool to use, or null to create a new one
+	 */
+	@Override
+	public void setRecycledViewPool(RecycledViewPool pool)
+	{
+		super.setRecycledViewPool(pool);
+		mSharedPool = pool != null;
+		if(mAdapter != null)
+		{
+			mAdapter.onRecycledViewPoolChanged(getRecycledViewPool());
+		}
+		configurePoolSharing(getLayoutManager());
+	}
+
+	/**
+	 * Specify a view layout and a binder for items of class {@code itemClass}. Items of that
+	 * class, its subclasses, and classes implementing it if it is an interface, can then be
+	 * added without a type code, for example through {@link #addItem(Object)}; the type code of
+	 * each item is resolved from its class, once per class.
+	 *
+	 * <p>Type codes are assigned automatically, from a range far above type codes chosen by hand.
+	 * A class is given the same type code by every EasyRecyclerView in the process, whatever
+	 * classes each registers and in whatever order, so lists sharing a pool through
+	 * {@link #setRecycledViewPool(RecycledViewPool)} agree on them; such lists must register the
+	 * same layout for a class. Registering a binder for a class again replaces its binder and
+	 * keeps its type code.
+	 *
+	 * @param itemClass class of the items bound
+	 * @param resId layout resource of the item view
+	 * @param binder {@link TypedBinder} to bind items of the class
+	 * @param <T> class of the items bound
+	 * @return type code assigned to the class, for use with methods taking a type code
+	 */
+	@SuppressWarnings("unused")
+	public <T> int registerBinder(Class<T> itemClass, @LayoutRes final int resId, final TypedBinder<T> binder)
+	{
+		int typeCode = mAdapter.registerItemClass(itemClass);
+		mAdapter.addOnItemViewListener(new ScarlettRecyclerAdapter.ItemViewListener()
+		{
+			@Override
+			public View OnCreateItemView(ViewGroup parent)
+			{
+				return LayoutInflater
+						.from(mContext)
+						.inflate(resId, parent, false);
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public void OnBindItemView(View v, SparseArray<View> cache, Object item)
+			{
+				binder.OnBindItemView(v, cache, (T)item);
+			}
+		}, typeCode, resId);
+		return typeCode;
+	}
+
+	/**
+	 * Remove the listener related to an item code.
+	 *
+	 * @param typeCode user defined type code for which listener should be removed
+	 */
+	@SuppressWarnings("unused")
+	public void removeOnItemListener(int typeCode)
+	{
+		mAdapter.removeOnItemViewListener(typeCode);
+	}
+
+	/**
+	 * Clear all item creation and binding listeners.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void clearOnItemListeners()
+	{
+		mAdapter.clearOnItemViewListeners();
+	}
+
+	/**
+	 * Add a callback to be invoked when user clicks on an item in EasyRecyclerView.
+	 *
+	 * @param l {@link OnItemClickListener}
+	 */
+	@SuppressWarnings("unused")
+	public void addOnItemClickListener(OnItemClickListener l)
+	{
+		mOnItemClickListeners.add(l);
+	}
+
+	/**
+	 * Remove an on item click callback.
+	 *
+	 * @param l {@link OnItemClickListener}
+	 */
+	@SuppressWarnings("unused")
+	public void removeOnItemClickListener(OnItemClickListener l)
+	{
+		mOnItemClickListeners.remove(l);
+	}
+
+	/**
+	 * Clear all item click callbacks.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void clearOnItemClickListeners()
+	{
+		mOnItemClickListeners.clear();
+	}
+
+	/**
+	 * Add a callback to be invoked when user long clicks on an item in EasyRecyclerView.
+	 *
+	 * @param l {@link OnItemLongClickListener}
+	 */
+	@SuppressWarnings("unused")
+	public void addOnItemLongClickListener(OnItemLongClickListener l)
+	{
+		mOnItemLongClickListeners.add(l);
+	}
+
+	/**
+	 * Remove an on item long click callback.
+	 *
+	 * @param l {@link OnItemLongClickListener}
+	 */
+	@SuppressWarnings("unused")
+	public void removeOnItemLongClickListener(OnItemLongClickListener l)
+	{
+		mOnItemLongClickListeners.remove(l);
+	}
+
+	/**
+	 * Clear all item long click callbacks.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void clearOnItemLongClickListeners()
+	{
+		mOnItemLongClickListeners.clear();
+	}
+
+	/**
+	 * Add a callback to be invoked when user reaches the end of the list of items and more
+	 * items should be loaded.
+	 *
+	 * @param l {@link OnLoadRequestListener}
+	 */
+	@SuppressWarnings("unused")
+	public void addOnLoadRequestListener(OnLoadRequestListener l)
+	{
+		mOnLoadRequestListeners.add(l);
+	}
+
+	/**
+	 * Remove an on load request callback.
+	 *
+	 * @param l {@link OnLoadRequestListener}
+	 */
+	@SuppressWarnings("unused")
+	public void removeOnLoadRequestListener(OnLoadRequestListener l)
+	{
+		mOnLoadRequestListeners.remove(l);
+	}
+
+	/**
+	 * Clear all on load request callbacks.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void clearOnLoadRequestListener()
+	{
+		mOnLoadRequestListeners.clear();
+	}
+
+	/**
+	 * Add a callback to be invoked when the system asks the application to release memory,
+	 * while EasyRecyclerView is attached to a window.
+	 *
+	 * <p>EasyRecyclerView reacts to memory pressure itself: the item view cache shrinks as
+	 * pressure rises, pooled views of types not on screen are discarded once memory runs low,
+	 * and every pooled view is discarded once the application is in the background. A pool set
+	 * through {@link #setRecycledViewPool(RecycledViewPool)} is left untouched, as other lists
+	 * may share it. The cache is restored when the list is next shown, or when it stops scrolling
+	 * a minute or more after memory pressure was last reported.
+	 *
+	 * @param l {@link OnTrimMemoryListener}
+	 */
+	@SuppressWarnings("unused")
+	public void addOnTrimMemoryListener(OnTrimMemoryListener l)
+	{
+		mOnTrimMemoryListeners.add(l);
+	}
+
+	/**
+	 * Remove a trim memory callback.
+	 *
+	 * @param l {@link OnTrimMemoryListener}
+	 */
+	@SuppressWarnings("unused")
+	public void removeOnTrimMemoryListener(OnTrimMemoryListener l)
+	{
+		mOnTrimMemoryListeners.remove(l);
+	}
+
+	//Behaviour
+	/**
+	 * Enables user interaction with EasyRecyclerView.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void enable()
+	{
+		mEnabled = true;
+	}
+
+	/**
+	 * Disables all user input to EasyRecyclerView.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void disable()
+	{
+		mEnabled = false;
+	}
+
+	/**
+	 * Set enabled state for EasyRecyclerView.
+	 *
+	 * @param enabled desired enabled state
+	 */
+	@SuppressWarnings("unused")
+	public void setEnabled(boolean enabled)
+	{
+		mEnabled = enabled;
+	}
+
+	//Appearance
+
+	/**
+	 * Set the layout manager for the EasyRecyclerView. A {@link ScarlettLayoutManager} keeps
+	 * its own size cache setting unless {@link #setSizeCacheEnabled(boolean)} has been called.
+	 *
+	 * @param lm layout manager to be used
+	 */
+	@Override
+	public void setLayoutManager(RecyclerView.LayoutManager lm)
+	{
+		configureSizeCache(lm);
+		super.setLayoutManager(lm);
+	}
+
+	/**
+	 * Automatically create and set the EasyRecyclerView's layout manager with specified configuration.
+	 * Single column or row lists use a {@link ScarlettLayoutManager}, and so can cache item
+	 * extents; grids cannot.
+	 *
+	 * @param spanCount the number of columns (or rows if horizontal) the list should be presented in
+	 * @param orientation orientation of list in {@link OrientationHelper#HORIZONTAL} or {@link OrientationHelper#VERTICAL}
+	 * @param staggered specification of whether views in list should be staggered
+	 * @param reverseLayout specification of whether list should be reversed
+	 */
+	@SuppressWarnings("unused")
+	public void setLayoutManager(int spanCount, @Orientation int orientation, boolean staggered, boolean reverseLayout)
+	{
+		LayoutManager lm;
+		//Input validation
+		if(spanCount < 1)
+		{
+			throw new IllegalArgumentException(EX_SPAN_COUNT);
+		}
+		if(orientation != VERTICAL && orientation != HORIZONTAL)
+		{
+			throw new IllegalArgumentException(EX_ORIENTATION);
+		}
+		//Create manager
+		if(spanCount == 1)
+		{
+			lm = new ScarlettLayoutManager(mContext, orientation, reverseLayout);
+		}
+		else if(!staggered)
+		{
+			lm = new GridLayoutManager(mContext, spanCount, orientation, reverseLayout);
+		}
+		else
+		{
+			lm = new StaggeredGridLayoutManager(spanCount, orientation);
+		}
+		//Set
+		lm.setAutoMeasureEnabled(true);
+		configurePoolSharing(lm);
+		configurePrefetch(lm);
+		configureSizeCache(lm);
+		mAdapter.setOrientation(orientation);
+		super.setLayoutManager(lm);
+	}
+
+	/**
+	 * Set whether the layout manager may lay out items ahead of scrolling, in the idle time
+	 * between frames. Applies to the current layout manager and to those created by
+	 * {@link #setLayoutManager(int, int, boolean, boolean)}. Enabled by default.
+	 *
+	 * @param enabled true to allow item prefetch
+	 */
+	@SuppressWarnings("unused")
+	public void setItemPrefetchEnabled(boolean enabled)
+	{
+		mItemPrefetchEnabled = enabled;
+		LayoutManager lm = getLayoutManager();
+		if(lm != null){lm.setItemPrefetchEnabled(enabled);}
+	}
+
+	/**
+	 * Set the number of items laid out ahead of time when this EasyRecyclerView is nested in
+	 * another list and is about to scroll into view. Applies to the current layout manager and
+	 * to those created by {@link #setLayoutManager(int, int, boolean, boolean)}, if linear or
+	 * grid. By default, grids prefetch one row and linear lists two items.
+	 *
+	 * @param count number of items, or 0 for the default
+	 */
+	@SuppressWarnings("unused")
+	public void setInitialPrefetchItemCount(int count)
+	{
+		if(count < 0){throw new IllegalArgumentException(EX_PREFETCH_COUNT);}
+		mInitialPrefetchItemCount = count;
+		LayoutManager lm = getLayoutManager();
+		if(lm != null){configurePrefetch(lm);}
+	}
+
+	/**
+	 * Set whether the measured extents of items are cached, by item key where a key provider
+	 * is set, and used to compute the scroll range and offset shown by the scrollbar. Without
+	 * it, both are estimated from the items in view, so the scrollbar jumps as items of
+	 * different heights scroll in. Applies to the current layout manager and to those set
+	 * afterwards, if they are a {@link ScarlettLayoutManager}, including the single column or
+	 * row lists created by {@link #setLayoutManager(int, int, boolean, boolean)}. Disabled by
+	 * default.
+	 *
+	 * @param enabled true to cache item extents
+	 * @see ScarlettLayoutManager#setSizeCacheEnabled(boolean)
+	 */
+	@SuppressWarnings("unused")
+	public void setSizeCacheEnabled(boolean enabled)
+	{
+		mSizeCacheEnabled = enabled;
+		mSizeCacheSet = true;
+		configureSizeCache(getLayoutManager());
+	}
+
+	/**
+	 * Declare that the TextView {@code viewId} of items of type {@code typeCode} displays the
+	 * text given by {@code provider}. EasyRecyclerView then sets the text of that TextView
+	 * itself, after the item's binder has run, so binders should not set it.
+	 *
+	 * <p>Once the TextView has been bound, the text of items about to scroll into view is
+	 * measured ahead of time on background threads with the TextView's text style, as
+	 * {@link android.support.v4.text.PrecomputedTextCompat}, and cached by item key, set
+	 * through {@link #setItemKeyProvider(ItemKeyProvider)}, or by item if no key provider is
+	 * set. Binding then attaches the measured text, skipping most of the work of laying it out.
+	 * Text is only reused while the provider returns equal text for the item and the TextView
+	 * keeps its text style.
+	 *
+	 * @param typeCode type code of the items
+	 * @param viewId id of the TextView within the item view
+	 * @param provider {@link TextProvider} giving the text of each item
+	 * @see #setTextPrefetchDistance(int)
+	 */
+	@SuppressWarnings("unused")
+	public void addTextPrefetch(int typeCode, @IdRes int viewId, final TextProvider provider)
+	{
+		mAdapter.addTextField(typeCode, viewId, new ScarlettRecyclerAdapter.TextProvider()
+		{
+			@Override
+			public CharSequence getText(Object item)
+			{
+				return provider.getText(item);
+			}
+		});
+		if(mTextPrefetchTracker == null)
+		{
+			startTextPrefetch();
+		}
+	}
+
+	/**
+	 * Set the number of items beyond the viewport, in the direction of scrolling, whose text is
+	 * prefetched. The default is 10.
+	 *
+	 * @param count number of items
+	 * @see #addTextPrefetch(int, int, TextProvider)
+	 */
+	@SuppressWarnings("unused")
+	public void setTextPrefetchDistance(int count)
+	{
+		if(count < 1){throw new IllegalArgumentException(EX_PREFETCH_DISTANCE);}
+		mTextPrefetchDistance = count;
+		if(mTextPrefetchTracker != null)
+		{
+			mTextPrefetchTracker.release();
+			startTextPrefetch();
+		}
+	}
+
+	/**
+	 * Remove every text declared with {@link #addTextPrefetch(int, int, TextProvider)}, and
+	 * discard the prefetched text.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void clearTextPrefetch()
+	{
+		mAdapter.clearTextFields();
+		if(mTextPrefetchTracker != null)
+		{
+			mTextPrefetchTracker.release();
+			mTextPrefetchTracker = null;
+		}
+	}
+
+	private void startTextPrefetch()
+	{
+		mTextPrefetchTracker = new PrefetchTracker(this, mAdapter, mTextPrefetchDistance, new PrefetchTracker.Listener()
+		{
+			@Override
+			public void onPrefetch(int[] positions, int direction)
+			{
+				mAdapter.prefetchText(positions);
+			}
+		});
+		mTextPrefetchTracker.onScrolled(0, 0);
+	}
+
+	/**
+	 * Report items about to scroll into view, so that their images, text layouts or other
+	 * content can be loaded before they are displayed. As the list scrolls, up to {@code count}
+	 * items beyond the viewport in the direction of scrolling are reported, once the main thread
+	 * is idle. Each item is reported once until the dataset changes.
+	 *
+	 * @param count number of items beyond the viewport to report
+	 * @param l {@link OnPrefetchListener}, or null to stop reporting
+	 */
+	@SuppressWarnings("unused")
+	public void setOnPrefetchListener(int count, final OnPrefetchListener l)
+	{
+		if(mPrefetchTracker != null)
+		{
+			mPrefetchTracker.release();
+			mPrefetchTracker = null;
+		}
+		if(l == null){return;}
+		if(count < 1){throw new IllegalArgumentException(EX_PREFETCH_DISTANCE);}
+		mPrefetchTracker = new PrefetchTracker(this, mAdapter, count, new PrefetchTracker.Listener()
+		{
+			@Override
+			public void onPrefetch(int[] positions, int direction)
+			{
+				l.OnPrefetch(positions, direction);
+			}
+		});
+		mPrefetchTracker.onScrolled(0, 0);
+	}
+
+	/**
+	 * Set the height of the loader that appears at the end of the list while additional items
+	 * are being loaded.
+	 *
+	 * @param height height in pixels
+	 */
+	@SuppressWarnings("unused")
+	public void setLoaderHeight(int height)
+	{
+		mAdapter.setLoaderHeight(height);
+	}
+
+	/**
+	 * Set the amount of padding around the loader.
+	 *
+	 * @param padding size in pixels
+	 */
+	@SuppressWarnings("unused")
+	public void setLoaderPadding(int padding)
+	{
+		mAdapter.setLoaderPadding(padding);
+	}
+
+	/**
+	 * Set the amount of padding above the loader.
+	 *
+	 * @param padding size in pixels
+	 */
+	@SuppressWarnings("unused")
+	public void setLoaderPaddingTop(int padding)
+	{
+		mAdapter.setLoaderPaddingTop(padding);
+	}
+
+	/**
+	 * Set the amount of padding below the loader.
+	 *
+	 * @param padding size in pixels
+	 */
+	@SuppressWarnings("unused")
+	public void setLoaderPaddingBottom(int padding)
+	{
+		mAdapter.setLoaderPaddingBottom(padding);
+	}
+
+	/**
+	 * Set the colour of the loader.
+	 *
+	 * @param colour colour as {@link android.support.annotation.ColorInt}
+	 */
+	@SuppressWarnings("unused")
+	public void setLoaderColour(int colour)
+	{
+		mAdapter.setLoaderColour(colour);
+	}
+
+	/**
+	 * Show the loader that appears at the end of the list.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void showLoader()
+	{
+		mAdapter.showLoader();
+	}
+
+	/**
+	 * Hide the loader that appears at the end of the list.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void hideLoader()
+	{
+		mAdapter.hideLoader();
+	}
+
+	/**
+	 * Set size of padding on the very bottom of the list. Useful when transparent soft navigation
+	 * buttons overlay EasyRecyclerView. The padding prevents the last item from being displayed
+	 * under the soft navigation buttons.
+	 *
+	 * @param padding size in pixels
+	 */
+	@SuppressWarnings("unused")
+	public void setBottomPadding(int padding)
+	{
+		mAdapter.setBottomPadding(padding);
+	}
+
+	public void setEmptyPromptView(View v)
+	{
+		mAdapter.setEmptyPromptView(v);
+	}
+
+	//Animation
+	/**
+	 * Enable animations associated with EasyRecyclerView.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void enableAnimation()
+	{
+		setItemAnimator(mAnimator);
+		mAdapter.setAnimationEnabled(true);
+	}
+
+	/**
+	 * Disable animations associated with EasyRecyclerView.
+	 *
+	 */
+	@SuppressWarnings("unused")
+	public void disableAnimation()
+	{
+		setItemAnimator(null);
+		mAdapter.setAnimationEnabled(false);
+	}
+
+	/**
+	 * Set enabled state of animations associated with EasyRecyclerView.
+	 *
+	 * @param enabled enabled state
+	 */
+	@SuppressWarnings("unused")
+	public void setAnimationEnabled(boolean enabled)
+	{
+		if(enabled)
+			enableAnimation();
+		else
+			disableAnimation();
+	}
+
+	/**
+	 * Set direction the item should enter from when being added.
+	 *
+	 * @param direction animation direction
+	 */
+	@SuppressWarnings("unused")
+	public void setItemAddDirection(@Direction int direction)
+	{
+		mAnimator.setAddDirection(direction);
+	}
+
+	/**
+	 * Set direction the item should exit towards when being removed.
+	 *
+	 * @param direction animation direction
+	 */
+	@SuppressWarnings("unused")
+	public void setItemRemoveDirection(@Direction int direction)
+	{
+		mAnimator.setRemoveDirection(direction);
+	}
+
+	/**
+	 * Set a single direction for both items entering and exiting the view.
+	 *
+	 * @param direction animation direction
+	 */
+	@SuppressWarnings("unused")
+	public void setItemDirection(@Direction int direction)
+	{
+		mAnimator.setDirection(direction);
+	}
+
+	/**
+	 * Set the distance item views should travel when animating entrance.
+	 *
+	 * @param distance translation distance in pixels
+	 */
+	@SuppressWarnings("unused")
+	public void setItemTranslationAmount(int distance)
+	{
+		mAnimator.setTranslationAmount(distance);
+	}
+
+	/**
+	 * Set duration of animations associated with EasyRecyclerView.
+	 *
+	 * @param duration duration in milliseconds
+	 */
+	@SuppressWarnings("unused")
+	public void setAnimationDuration(int duration)
+	{
+		mAdapter.setAnimationDuration(duration);
+		mAnimator.setRemoveDuration(duration);
+		mAnimator.setAddDuration(duration);
+		mAnimator.setMoveDuration(duration);
+		mAnimator.setChangeDuration(duration);
+	}
+
+	/**
+	 * Set the interpolator to be used when animating items as they enter EasyRecyclerView.
+	 *
+	 * @param interpolator {@link Interpolator}
+	 */
+	@SuppressWarnings("unused")
+	public void setItemAddInterpolator(Interpolator interpolator)
+	{
+		mAnimator.setAddInterpolator(interpolator);
+	}
+
+	/**
+	 * Set the interpolator to be used when animating items as they leave EasyRecyclerView.
+	 *
+	 * @param interpolator {@link Interpolator}
+	 */
+	@SuppressWarnings("unused")
+	public void setItemRemoveInterpolator(Interpolator interpolator)
+	{
+		mAnimator.setRemoveInterpolator(interpolator);
+	}
+
+	/**
+	 * Set the interpolator to be used when animating items as they move within EasyRecyclerView.
+	 *
+	 * @param interpolator {@link Interpolator}
+	 */
+	@SuppressWarnings("unused")
+	public void setItemMoveInterpolator(Interpolator interpolator)
+	{
+		mAnimator.setMoveInterpolator(interpolator);
+	}
+
+	/**
+	 * Set the interpolator to be used in all item animations.
+	 *
+	 * @param interpolator {@link Interpolator}
+	 */
+	@SuppressWarnings("unused")
+	public void setItemInterpolator(Interpolator interpolator)
+	{
+		mAnimator.setAddInterpolator(interpolator);
+		mAnimator.setRemoveInterpolator(interpolator);
+		mAnimator.setMoveInterpolator(interpolator);
+	}
+
+	/**
+	 * Set duration of stagger (delay) between animating entrance of each item view.
+	 * Item animations are staggered sequentially from the first item being added.
+	 *
+	 * @param duration stagger duration in milliseconds
+	 */
+	@SuppressWarnings("unused")
+	public void setAnimationStagger(int duration)
+	{
+		mAnimator.setStaggerDelay(duration);
+	}
+
+	/**
+	 * Set the interpolator to be used when showing the loader in EasyRecyclerView.
+	 *
+	 * @param interpolator {@link Interpolator}
+	 */
+	@SuppressWarnings("unused")
+	public void setLoaderShowInterpolator(Interpolator interpolator)
+	{
+		mAdapter.setLoaderShowInterpolator(interpolator);
+	}
+
+	/**
+	 * Set the interpolator to be used when hiding the loader in EasyRecyclerView.
+	 *
+	 * @param interpolator {@link Interpolator}
+	 */
+	@SuppressWarnings("unused")
+	public void setLoaderHideInterpolator(Interpolator interpolator)
+	{
+		mAdapter.setLoaderHideInterpolator(interpolator);
+	}
+
+	/**
+	 * Set the interpolator to be used in all loader animations.
+	 *
+	 * @param interpolator {@link Interpolator}
+	 */
+	@SuppressWarnings("unused")
+	public void setLoaderInterpolator(Interpolator interpolator)
+	{
+		mAdapter.setLoaderShowInterpolator(interpolator);
+		mAdapter.setLoaderHideInterpolator(interpolator);
+	}
+
+	//State
+
+	//Data
+	/**
+	 * Add item to the end of the dataset displayed in EasyRecyclerView.
+	 *
+	 * @param item item to add
+	 * @param typeCode user defined type code of item
+	 */
+	@SuppressWarnings("unused")
+	public void addItem(Object item, int typeCode)
+	{
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		mAdapter.addItem(item, typeCode);
+	}
+
+	/**
+	 * Add a set of items to the end of the dataset displayed in EasyRecyclerView.
+	 *
+	 * @param items list of items to add
+	 * @param typeCode user defined type code of item
+	 */
+	@SuppressWarnings("unused")
+	public void addItems(ArrayList<?> items, int typeCode)
+	{
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		mAdapter.addItems(items, typeCode);
+	}
+
+	/**
+	 * Add item at specified index of the dataset displayed in EasyRecyclerView.
+	 *
+	 * @param item item to add
+	 * @param index destination index
+	 * @param typeCode user defined type code of item
 	 */
 	@SuppressWarnings("unused")
-	public void clearOnItemListeners()
+	public void addItemAt(Object item, int index, int typeCode)
 	{
-		mAdapter.clearOnItemViewListeners();
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		mAdapter.addItemAt(item, index, typeCode);
 	}
 
 	/**
-	 * Add a callback to be invoked when user clicks on an item in EasyRecyclerView.
+	 * Add item to the end of the dataset displayed in EasyRecyclerView, with the type code of
+	 * its class.
 	 *
-	 * @param l {@link OnItemClickListener}
+	 * @param item item to add
+	 * @throws IllegalArgumentException if no binder is registered for the item's class
+	 * @see #registerBinder(Class, int, TypedBinder)
 	 */
 	@SuppressWarnings("unused")
-	public void addOnItemClickListener(OnItemClickListener l)
+	public void addItem(Object item)
 	{
-		mOnItemClickListeners.add(l);
+		mAdapter.addItem(item, mAdapter.typeCodeOf(item));
 	}
 
 	/**
-	 * Remove an on item click callback.
+	 * Add a set of items to the end of the dataset displayed in EasyRecyclerView, each with the
+	 * type code of its class.
 	 *
-	 * @param l {@link OnItemClickListener}
+	 * @param items list of items to add
+	 * @throws IllegalArgumentException if no binder is registered for the class of an item
+	 * @see #registerBinder(Class, int, TypedBinder)
 	 */
 	@SuppressWarnings("unused")
-	public void removeOnItemClickListener(OnItemClickListener l)
+	public void addItems(List<?> items)
 	{
-		mOnItemClickListeners.remove(l);
+		mAdapter.addItems(items);
 	}
 
 	/**
-	 * Clear all item click callbacks.
+	 * Add item at specified index of the dataset displayed in EasyRecyclerView, with the type
+	 * code of its class.
 	 *
+	 * @param item item to add
+	 * @param index destination index
+	 * @throws IllegalArgumentException if no binder is registered for the item's class
+	 * @see #registerBinder(Class, int, TypedBinder)
 	 */
 	@SuppressWarnings("unused")
-	public void clearOnItemClickListeners()
+	public void addItemAt(Object item, int index)
 	{
-		mOnItemClickListeners.clear();
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		mAdapter.addItemAt(item, index, mAdapter.typeCodeOf(item));
 	}
 
 	/**
-	 * Add a callback to be invoked when user long clicks on an item in EasyRecyclerView.
+	 * Add a set of items at specified index of the dataset displayed in EasyRecyclerView, each
+	 * with the type code of its class. The items are inserted with a single shift of the dataset
+	 * and a single notification.
 	 *
-	 * @param l {@link OnItemLongClickListener}
+	 * @param items list of items to add
+	 * @param index destination index of the first item, up to and including the item count
+	 * @throws IllegalArgumentException if no binder is registered for the class of an item
+	 * @see #registerBinder(Class, int, TypedBinder)
 	 */
 	@SuppressWarnings("unused")
-	public void addOnItemLongClickListener(OnItemLongClickListener l)
+	public void addItemsAt(List<?> items, int index)
 	{
-		mOnItemLongClickListeners.add(l);
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index > mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		mAdapter.addItemsAt(items, index);
 	}
 
 	/**
-	 * Remove an on item long click callback.
+	 * Add a set of items at specified index of the dataset displayed in EasyRecyclerView.
+	 * The items are inserted with a single shift of the dataset and a single notification.
 	 *
-	 * @param l {@link OnItemLongClickListener}
+	 * @param items list of items to add
+	 * @param index destination index of the first item, up to and including the item count
+	 * @param typeCode user defined type code of items
 	 */
 	@SuppressWarnings("unused")
-	public void removeOnItemLongClickListener(OnItemLongClickListener l)
+	public void addItemsAt(List<?> items, int index, int typeCode)
 	{
-		mOnItemLongClickListeners.remove(l);
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index > mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		mAdapter.addItemsAt(items, index, typeCode);
 	}
 
 	/**
-	 * Clear all item long click callbacks.
+	 * Remove item at specified index from the dataset displayed in EasyRecyclerVIew.
 	 *
+	 * @param index target index
 	 */
 	@SuppressWarnings("unused")
-	public void clearOnItemLongClickListeners()
+	public void removeItem(int index)
 	{
-		mOnItemLongClickListeners.clear();
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		mAdapter.removeItem(index);
 	}
 
 	/**
-	 * Add a callback to be invoked when user reaches the end of the list of items and more
-	 * items should be loaded.
+	 * Remove a range of items from the dataset displayed in EasyRecyclerView.
+	 * The items are removed with a single shift of the dataset and a single notification.
 	 *
-	 * @param l {@link OnLoadRequestListener}
+	 * @param startIndex index of the first item to remove
+	 * @param count number of items to remove
 	 */
 	@SuppressWarnings("unused")
-	public void addOnLoadRequestListener(OnLoadRequestListener l)
+	public void removeItems(int startIndex, int count)
 	{
-		mOnLoadRequestListeners.add(l);
+		if(startIndex < 0 || count < 0){throw new IndexOutOfBoundsException();}
+		if(startIndex + count > mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		if(count == 0){return;}
+		mAdapter.removeItems(startIndex, count);
 	}
 
 	/**
-	 * Remove an on load request callback.
+	 * Move an item to a new index within the dataset displayed in EasyRecyclerView.
 	 *
-	 * @param l {@link OnLoadRequestListener}
+	 * @param fromIndex current index of the item
+	 * @param toIndex destination index of the item
 	 */
 	@SuppressWarnings("unused")
-	public void removeOnLoadRequestListener(OnLoadRequestListener l)
+	public void moveItem(int fromIndex, int toIndex)
 	{
-		mOnLoadRequestListeners.remove(l);
+		if(fromIndex < 0 || toIndex < 0){throw new IndexOutOfBoundsException();}
+		if(fromIndex >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		if(toIndex >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		if(fromIndex == toIndex){return;}
+		mAdapter.moveItem(fromIndex, toIndex);
 	}
 
 	/**
-	 * Clear all on load request callbacks.
+	 * Replace item at specified index of the dataset displayed in EasyRecyclerView.
 	 *
+	 * @param item new item to replace with
+	 * @param index destination index
+	 * @param typeCode user defined type code of item
 	 */
 	@SuppressWarnings("unused")
-	public void clearOnLoadRequestListener()
+	public void replaceItem(Object item, int index, int typeCode)
 	{
-		mOnLoadRequestListeners.clear();
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		mAdapter.replaceItem(item, index, typeCode);
 	}
 
-	//Behaviour
 	/**
-	 * Enables user interaction with EasyRecyclerView.
+	 * Replace item at specified index of the dataset displayed in EasyRecyclerView, describing
+	 * the change with {@code payload}. The item view is kept rather than cross-faded, and if
+	 * the type's listener is an {@link OnBindItemViewPayloadListener} or
+	 * {@link OnBindItemViewsPayloadListener} it receives the payloads so that only the changed
+	 * parts of the view need updating. Payloads of several replacements made before the view is
+	 * rebound are delivered together.
 	 *
+	 * @param item new item to replace with
+	 * @param index destination index
+	 * @param typeCode user defined type code of item
+	 * @param payload description of the change, or null for a full rebind
 	 */
 	@SuppressWarnings("unused")
-	public void enable()
+	public void replaceItem(Object item, int index, int typeCode, Object payload)
 	{
-		mEnabled = true;
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		mAdapter.replaceItem(item, index, typeCode, payload);
 	}
 
 	/**
-	 * Disables all user input to EasyRecyclerView.
+	 * Replace item at specified index of the dataset displayed in EasyRecyclerView, with the type
+	 * code of its class.
 	 *
+	 * @param item new item to replace with
+	 * @param index destination index
+	 * @throws IllegalArgumentException if no binder is registered for the item's class
+	 * @see #registerBinder(Class, int, TypedBinder)
 	 */
 	@SuppressWarnings("unused")
-	public void disable()
+	public void replaceItem(Object item, int index)
 	{
-		mEnabled = false;
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		mAdapter.replaceItem(item, index, mAdapter.typeCodeOf(item));
 	}
 
 	/**
-	 * Set enabled state for EasyRecyclerView.
+	 * Replace the dataset displayed in EasyRecyclerView with a new list of items, each with the
+	 * type code of its class. Behaves as {@link #submitList(List, TypeResolver)}.
 	 *
-	 * @param enabled desired enabled state
+	 * @param items new list of items
+	 * @throws IllegalArgumentException if no binder is registered for the class of an item
+	 * @see #registerBinder(Class, int, TypedBinder)
 	 */
 	@SuppressWarnings("unused")
-	public void setEnabled(boolean enabled)
+	public void submitList(List<?> items)
 	{
-		mEnabled = enabled;
+		mAdapter.submitList(items, mAdapter.getClassTypeResolver());
 	}
 
-	//Appearance
+	/**
+	 * Replace the dataset displayed in EasyRecyclerView with a new list of items.
+	 *
+	 * <p>The difference between the current and new lists is computed on a background thread
+	 * and applied on the main thread as the minimal set of insertions, removals, moves and changes,
+	 * so unchanged item views are neither rebound nor have their animations interrupted. Items are
+	 * matched by key if an {@link ItemKeyProvider} is set, and otherwise using
+	 * {@link Object#equals(Object)}. If another list is submitted before the difference has been
+	 * computed, the earlier list is discarded.
+	 *
+	 * @param items new list of items
+	 * @param resolver resolver of each item's user defined type code
+	 * @throws IllegalArgumentException if the resolver returns a negative type code
+	 */
+	@SuppressWarnings("unused")
+	public void submitList(List<?> items, final TypeResolver resolver)
+	{
+		mAdapter.submitList(items, new ScarlettRecyclerAdapter.TypeResolver()
+		{
+			@Override
+			public int getTypeCode(Object item)
+			{
+				return resolver.getTypeCode(item);
+			}
+		});
+	}
 
 	/**
-	 * Set the layout manager for the EasyRecyclerView.
+	 * Replace the item in the dataset that matches {@code item}, keeping its type code. Items are
+	 * matched as in {@link #indexOf(Object)}, so with an {@link ItemKeyProvider} this updates the
+	 * item with the same key, and with the item index enabled it rebinds an item that was modified
+	 * in place.
 	 *
-	 * @param lm layout manager to be used
+	 * @param item new item to replace with
+	 * @return true if a matching item was found and replaced
 	 */
-	@Override
-	public void setLayoutManager(RecyclerView.LayoutManager lm)
+	@SuppressWarnings("unused")
+	public boolean replaceItem(Object item)
 	{
-		super.setLayoutManager(lm);
+		return mAdapter.replaceItem(item);
 	}
 
 	/**
-	 * Automatically create and set the EasyRecyclerView's layout manager with specified configuration.
+	 * Replace a range of items of the dataset displayed in EasyRecyclerView, starting at the
+	 * specified index. The items are replaced with a single notification.
 	 *
-	 * @param spanCount the number of columns (or rows if horizontal) the list should be presented in
-	 * @param orientation orientation of list in {@link OrientationHelper#HORIZONTAL} or {@link OrientationHelper#VERTICAL}
-	 * @param staggered specification of whether views in list should be staggered
-	 * @param reverseLayout specification of whether list should be reversed
+	 * @param items list of new items to replace with
+	 * @param startIndex index of the first item to replace
+	 * @param typeCode user defined type code of items
 	 */
 	@SuppressWarnings("unused")
-	public void setLayoutManager(int spanCount, @Orientation int orientation, boolean staggered, boolean reverseLayout)
+	public void replaceItems(List<?> items, int startIndex, int typeCode)
 	{
-		LayoutManager lm;
-		//Input validation
-		if(spanCount < 1)
-		{
-			throw new IllegalArgumentException(EX_SPAN_COUNT);
-		}
-		if(orientation != VERTICAL && orientation != HORIZONTAL)
-		{
-			throw new IllegalArgumentException(EX_ORIENTATION);
-		}
-		//Create manager
-		if(spanCount == 1)
-		{
-			lm = new LinearLayoutManager(mContext, orientation, reverseLayout);
-		}
-		else if(!staggered)
-		{
-			lm = new GridLayoutManager(mContext, spanCount, orientation, reverseLayout);
-		}
-		else
-		{
-			lm = new StaggeredGridLayoutManager(spanCount, orientation);
-		}
-		//Set
-		lm.setAutoMeasureEnabled(true);
-		mAdapter.setOrientation(orientation);
-		super.setLayoutManager(lm);
+		if(startIndex < 0){throw new IndexOutOfBoundsException();}
+		if(startIndex + items.size() > mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+		if(items.isEmpty()){return;}
+		mAdapter.replaceItems(items, startIndex, typeCode);
 	}
 
 	/**
-	 * Set the height of the loader that appears at the end of the list while additional items
-	 * are being loaded.
+	 * Start a batch of edits. Until the matching {@link #commitBatch()}, notifications from
+	 * adjacent edits are merged into range notifications, and the empty prompt is only
+	 * evaluated once at commit. Batches may be nested.
 	 *
-	 * @param height height in pixels
 	 */
 	@SuppressWarnings("unused")
-	public void setLoaderHeight(int height)
+	public void beginBatch()
 	{
-		mAdapter.setLoaderHeight(height);
+		mAdapter.beginBatch();
 	}
 
 	/**
-	 * Set the amount of padding around the loader.
+	 * Commit a batch of edits started with {@link #beginBatch()}.
 	 *
-	 * @param padding size in pixels
 	 */
 	@SuppressWarnings("unused")
-	public void setLoaderPadding(int padding)
+	public void commitBatch()
 	{
-		mAdapter.setLoaderPadding(padding);
+		mAdapter.commitBatch();
 	}
 
 	/**
-	 * Set the amount of padding above the loader.
+	 * Apply a set of edits to the dataset as a single batch.
 	 *
-	 * @param padding size in pixels
+	 * @param mutation {@link Mutation} making the edits
+	 * @see #beginBatch()
 	 */
 	@SuppressWarnings("unused")
-	public void setLoaderPaddingTop(int padding)
+	public void mutate(Mutation mutation)
 	{
-		mAdapter.setLoaderPaddingTop(padding);
+		mAdapter.beginBatch();
+		try
+		{
+			mutation.apply(mEditor);
+		}
+		finally
+		{
+			mAdapter.commitBatch();
+		}
 	}
 
 	/**
-	 * Set the amount of padding below the loader.
+	 * Keep the dataset sorted by {@code comparator}. The current items are sorted, and from then
+	 * on items added through {@link #addItem(Object, int)}, {@link #addItems(ArrayList, int)}
+	 * and their variants without a type code are inserted in sort order rather than at the end,
+	 * each found by binary search. Large sets of added items are sorted across several cores
+	 * and merged into the dataset. Equal items keep the order in which they were added.
 	 *
-	 * @param padding size in pixels
+	 * <p>Replaced items are moved to their new place if their sort order changed. Items changed
+	 * in place should be passed to {@link #resortItem(int)}. Lists passed to
+	 * {@link #submitList(List, TypeResolver)} are sorted before being displayed. Adding or moving
+	 * items by position throws {@link IllegalStateException} while a comparator is set.
+	 *
+	 * @param comparator {@link Comparator} defining the order of items, or null to stop sorting
+	 *                   and keep the current order
 	 */
 	@SuppressWarnings("unused")
-	public void setLoaderPaddingBottom(int padding)
+	public void setComparator(Comparator<Object> comparator)
 	{
-		mAdapter.setLoaderPaddingBottom(padding);
+		mAdapter.setComparator(comparator);
 	}
 
 	/**
-	 * Set the colour of the loader.
+	 * Move an item whose sort order changed in place to its new position, while a comparator
+	 * is set.
 	 *
-	 * @param colour colour as {@link android.support.annotation.ColorInt}
+	 * @param index index of the changed item
+	 * @return new index of the item
+	 * @see #setComparator(Comparator)
 	 */
 	@SuppressWarnings("unused")
-	public void setLoaderColour(int colour)
+	public int resortItem(int index)
 	{
-		mAdapter.setLoaderColour(colour);
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		return mAdapter.resortItem(index);
 	}
 
 	/**
-	 * Show the loader that appears at the end of the list.
+	 * Display only the items matching {@code filter}, keeping the full dataset intact. Setting a
+	 * null filter displays every item again.
+	 *
+	 * <p>The filter runs on background threads, split across cores for large datasets, and the
+	 * matching items are displayed in chunks, from the top of the list down, as they are found.
+	 * Until then, the items matching the previous filter remain displayed, and only items whose
+	 * match changed are inserted or removed. Setting a new filter abandons the previous one.
 	 *
+	 * <p>While a filter is set, positions, item counts and reads refer to the displayed items.
+	 * Items may be appended, replaced, removed altogether, or submitted with
+	 * {@link #submitList(List, TypeResolver)}; other edits by position throw
+	 * {@link IllegalStateException}. Appended items are filtered as they are added, on the main
+	 * thread unless many are appended at once. Replaced items remain displayed until the next
+	 * filter is set, even if they no longer match.
+	 *
+	 * @param filter {@link ItemFilter} selecting the items to display, or null to display all
 	 */
 	@SuppressWarnings("unused")
-	public void showLoader()
+	public void setFilter(final ItemFilter filter)
 	{
-		mAdapter.showLoader();
+		mAdapter.setFilter(filter == null ? null : new ScarlettRecyclerAdapter.ItemFilter()
+		{
+			@Override
+			public boolean matches(Object item)
+			{
+				return filter.matches(item);
+			}
+		});
 	}
 
 	/**
-	 * Hide the loader that appears at the end of the list.
+	 * Determine whether the current filter is still being applied.
 	 *
+	 * @return true if some filter results have yet to be displayed
 	 */
 	@SuppressWarnings("unused")
-	public void hideLoader()
+	public boolean isFiltering()
 	{
-		mAdapter.hideLoader();
+		return mAdapter.isFiltering();
 	}
 
 	/**
-	 * Set size of padding on the very bottom of the list. Useful when transparent soft navigation
-	 * buttons overlay EasyRecyclerView. The padding prevents the last item from being displayed
-	 * under the soft navigation buttons.
+	 * Group the items into sections. Consecutive items that {@code resolver} places in equal
+	 * sections form one section, so items should be ordered by section, for example with
+	 * {@link #setComparator(Comparator)}. The start of each section is indexed and kept up to
+	 * date as items are edited, so finding the section of a position takes a binary search.
 	 *
-	 * @param padding size in pixels
+	 * @param resolver {@link SectionResolver} giving the section of each item, or null to
+	 *                 remove sections
+	 * @see #setStickyHeader(int, OnBindSectionHeaderListener)
 	 */
 	@SuppressWarnings("unused")
-	public void setBottomPadding(int padding)
+	public void setSectionResolver(final SectionResolver resolver)
 	{
-		mAdapter.setBottomPadding(padding);
+		mAdapter.setSectionResolver(resolver == null ? null : new ScarlettRecyclerAdapter.SectionResolver()
+		{
+			@Override
+			public Object getSection(Object item)
+			{
+				return resolver.getSection(item);
+			}
+		});
+		invalidateItemDecorations();
 	}
 
-	public void setEmptyPromptView(View v)
+	/**
+	 * Get the number of sections.
+	 *
+	 * @return number of sections, or 0 if no {@link SectionResolver} is set
+	 */
+	@SuppressWarnings("unused")
+	public int getSectionCount()
 	{
-		mAdapter.setEmptyPromptView(v);
+		return mAdapter.getSectionCount();
 	}
 
-	//Animation
 	/**
-	 * Enable animations associated with EasyRecyclerView.
+	 * Get the section containing an item.
 	 *
+	 * @param index index of the item
+	 * @return index of the section, or -1 if there is no such item or no {@link SectionResolver}
+	 *         is set
 	 */
 	@SuppressWarnings("unused")
-	public void enableAnimation()
+	public int getSectionForPosition(int index)
 	{
-		setItemAnimator(mAnimator);
-		mAdapter.setAnimationEnabled(true);
+		return mAdapter.getSectionForPosition(index);
 	}
 
 	/**
-	 * Disable animations associated with EasyRecyclerView.
+	 * Get the index of the first item of a section.
 	 *
+	 * @param section index of the section
+	 * @return index of the first item of the section
 	 */
 	@SuppressWarnings("unused")
-	public void disableAnimation()
+	public int getSectionStart(int section)
 	{
-		setItemAnimator(null);
-		mAdapter.setAnimationEnabled(false);
+		return mAdapter.getSectionStart(section);
 	}
 
 	/**
-	 * Set enabled state of animations associated with EasyRecyclerView.
+	 * Get the object identifying a section.
 	 *
-	 * @param enabled enabled state
+	 * @param section index of the section
+	 * @return object identifying the section, as returned by the {@link SectionResolver}
 	 */
 	@SuppressWarnings("unused")
-	public void setAnimationEnabled(boolean enabled)
+	public Object getSection(int section)
 	{
-		if(enabled)
-			enableAnimation();
-		else
-			disableAnimation();
+		return mAdapter.getSectionKey(section);
 	}
 
 	/**
-	 * Set direction the item should enter from when being added.
+	 * Draw a header above the first item of each section, with the header of the topmost
+	 * section held at the top of the list until the next header pushes it off. Headers are not
+	 * items and do not affect item indices. Header views are inflated from {@code resId}, one
+	 * for each section in view, and bound when their section scrolls into view. Headers are
+	 * drawn in vertical, non-reversed lists, and should have the same height for every section.
 	 *
-	 * @param direction animation direction
+	 * @param resId layout resource of the header view
+	 * @param l {@link OnBindSectionHeaderListener} binding the header, or null to remove headers
+	 * @see #setSectionResolver(SectionResolver)
 	 */
 	@SuppressWarnings("unused")
-	public void setItemAddDirection(@Direction int direction)
+	public void setStickyHeader(@LayoutRes int resId, final OnBindSectionHeaderListener l)
 	{
-		mAnimator.setAddDirection(direction);
+		if(mStickyHeaders != null)
+		{
+			removeItemDecoration(mStickyHeaders);
+			mStickyHeaders = null;
+		}
+		if(l == null){return;}
+		mStickyHeaders = new StickyHeaderDecoration(mAdapter, resId, new StickyHeaderDecoration.HeaderBinder()
+		{
+			@Override
+			public void onBindHeader(View header, Object section)
+			{
+				l.OnBindSectionHeader(header, section);
+			}
+		});
+		addItemDecoration(mStickyHeaders);
 	}
 
 	/**
-	 * Set direction the item should exit towards when being removed.
+	 * Save the dataset and scroll position to a compact binary snapshot in {@code outState}, to
+	 * be restored with {@link #restoreSnapshot(Bundle, String, ItemCodec, OnRestoreListener)}.
+	 * Saved state is limited in size by the system, so large datasets are better saved to a
+	 * file with {@link #saveSnapshot(File, ItemCodec)}. Paged datasets cannot be saved.
 	 *
-	 * @param direction animation direction
+	 * @param outState bundle to save the snapshot to
+	 * @param key key of the snapshot in the bundle
+	 * @param codec {@link ItemCodec} writing each item
+	 * @throws IOException if {@code codec} fails to write an item
 	 */
 	@SuppressWarnings("unused")
-	public void setItemRemoveDirection(@Direction int direction)
+	public void saveSnapshot(Bundle outState, String key, ItemCodec codec) throws IOException
 	{
-		mAnimator.setRemoveDirection(direction);
+		outState.putByteArray(key, captureSnapshot().encode(codec));
+	}
+
+	/**
+	 * Save the dataset and scroll position to a compact binary snapshot in {@code file}, to be
+	 * restored with {@link #restoreSnapshot(File, ItemCodec, OnRestoreListener)}. Items are
+	 * encoded before this method returns; the file is written on a background thread to a temporary
+	 * file of its own, replacing the previous snapshot only once complete, so that saves in flight
+	 * together never write the same file. Paged datasets cannot be saved.
+	 *
+	 * @param file file to save the snapshot to
+	 * @param codec {@link ItemCodec} writing each item
+	 * @throws IOException if {@code codec} fails to write an item
+	 */
+	@SuppressWarnings("unused")
+	public void saveSnapshot(final File file, ItemCodec codec) throws IOException
+	{
+		final byte[] bytes = captureSnapshot().encode(codec);
+		Helpers.getBackgroundExecutor().execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				File temp = null;
+				try
+				{
+					//In the same directory, as renaming across file systems fails
+					temp = File.createTempFile("." + file.getName() + "-", ".tmp", file.getAbsoluteFile().getParentFile());
+					OutputStream out = new FileOutputStream(temp);
+					try
+					{
+						out.write(bytes);
+					}
+					finally
+					{
+						out.close();
+					}
+					if(!temp.renameTo(file)){throw new IOException("Could not replace " + file);}
+				}
+				catch(IOException e)
+				{
+					Log.e("EasyRecyclerView", "Failed to write snapshot.", e);
+					//noinspection ResultOfMethodCallIgnored
+					if(temp != null){temp.delete();}
+				}
+			}
+		});
 	}
 
 	/**
-	 * Set a single direction for both items entering and exiting the view.
+	 * Restore the dataset and scroll position from a snapshot saved with
+	 * {@link #saveSnapshot(Bundle, String, ItemCodec)}. The snapshot is decoded on a background
+	 * thread, and then replaces the dataset, unless the dataset is edited or another list
+	 * submitted in the meantime.
 	 *
-	 * @param direction animation direction
+	 * @param savedState bundle the snapshot was saved to
+	 * @param key key of the snapshot in the bundle
+	 * @param codec {@link ItemCodec} reading each item
+	 * @param l {@link OnRestoreListener} notified once restoring has finished, or null
 	 */
 	@SuppressWarnings("unused")
-	public void setItemDirection(@Direction int direction)
+	public void restoreSnapshot(Bundle savedState, String key, ItemCodec codec, OnRestoreListener l)
 	{
-		mAnimator.setDirection(direction);
+		final byte[] bytes = savedState == null ? null : savedState.getByteArray(key);
+		restoreSnapshot(new SnapshotSource()
+		{
+			@Override
+			public InputStream open()
+			{
+				return bytes == null ? null : new ByteArrayInputStream(bytes);
+			}
+		}, codec, l);
 	}
 
 	/**
-	 * Set the distance item views should travel when animating entrance.
+	 * Restore the dataset and scroll position from a snapshot saved with
+	 * {@link #saveSnapshot(File, ItemCodec)}. The file is read and decoded on a background
+	 * thread, and the snapshot then replaces the dataset, unless the dataset is edited or
+	 * another list submitted in the meantime.
 	 *
-	 * @param distance translation distance in pixels
+	 * @param file file the snapshot was saved to
+	 * @param codec {@link ItemCodec} reading each item
+	 * @param l {@link OnRestoreListener} notified once restoring has finished, or null
 	 */
 	@SuppressWarnings("unused")
-	public void setItemTranslationAmount(int distance)
+	public void restoreSnapshot(final File file, ItemCodec codec, OnRestoreListener l)
 	{
-		mAnimator.setTranslationAmount(distance);
+		restoreSnapshot(new SnapshotSource()
+		{
+			@Override
+			public InputStream open() throws IOException
+			{
+				return file.exists() ? new BufferedInputStream(new FileInputStream(file)) : null;
+			}
+		}, codec, l);
 	}
 
-	/**
-	 * Set duration of animations associated with EasyRecyclerView.
-	 *
-	 * @param duration duration in milliseconds
-	 */
-	@SuppressWarnings("unused")
-	public void setAnimationDuration(int duration)
+	private interface SnapshotSource
 	{
-		mAdapter.setAnimationDuration(duration);
-		mAnimator.setRemoveDuration(duration);
-		mAnimator.setAddDuration(duration);
-		mAnimator.setMoveDuration(duration);
-		mAnimator.setChangeDuration(duration);
+		InputStream open() throws IOException;
 	}
 
-	/**
-	 * Set the interpolator to be used when animating items as they enter EasyRecyclerView.
-	 *
-	 * @param interpolator {@link Interpolator}
-	 */
-	@SuppressWarnings("unused")
-	public void setItemAddInterpolator(Interpolator interpolator)
+	private void restoreSnapshot(final SnapshotSource source, final ItemCodec codec, final OnRestoreListener l)
 	{
-		mAnimator.setAddInterpolator(interpolator);
+		final int generation = mAdapter.beginRestore();
+		Helpers.getBackgroundExecutor().execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				DatasetSnapshot snapshot = null;
+				try
+				{
+					InputStream in = source.open();
+					if(in != null)
+					{
+						try
+						{
+							snapshot = DatasetSnapshot.decode(in, codec);
+						}
+						finally
+						{
+							in.close();
+						}
+					}
+				}
+				catch(IOException | RuntimeException e)
+				{
+					Log.e("EasyRecyclerView", "Failed to read snapshot.", e);
+				}
+				final DatasetSnapshot restored = snapshot;
+				Helpers.getMainHandler().post(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						boolean applied = restored != null
+								&& mAdapter.finishRestore(generation, restored.items, restored.types);
+						if(applied)
+						{
+							scrollToAnchor(restored.anchorPosition, restored.anchorOffset);
+						}
+						if(l != null){l.OnRestore(applied);}
+					}
+				});
+			}
+		});
+	}
+
+	private DatasetSnapshot captureSnapshot()
+	{
+		Object[] items = mAdapter.copyItems();
+		int[] types = mAdapter.copyTypes();
+		LayoutManager lm = getLayoutManager();
+		int count = mAdapter.getItemCountProtected();
+		View anchor = null;
+		int position = NO_POSITION;
+		for(int c = 0; c < getChildCount(); c++)
+		{
+			View child = getChildAt(c);
+			int childPosition = getChildAdapterPosition(child);
+			if(childPosition == NO_POSITION || childPosition >= count){continue;}
+			if(anchor == null || childPosition < position)
+			{
+				anchor = child;
+				position = childPosition;
+			}
+		}
+		if(anchor == null || lm == null)
+		{
+			return new DatasetSnapshot(items, types, NO_POSITION, 0);
+		}
+		//Offsets are measured from the edge the layout starts from, as scrolling expects them
+		boolean reverse = lm instanceof LinearLayoutManager
+				? ((LinearLayoutManager)lm).getReverseLayout()
+				: lm instanceof StaggeredGridLayoutManager && ((StaggeredGridLayoutManager)lm).getReverseLayout();
+		int offset;
+		if(lm.canScrollVertically())
+		{
+			offset = reverse
+					? getHeight() - getPaddingBottom() - lm.getDecoratedBottom(anchor)
+					: lm.getDecoratedTop(anchor) - getPaddingTop();
+		}
+		else
+		{
+			offset = reverse
+					? getWidth() - getPaddingRight() - lm.getDecoratedRight(anchor)
+					: lm.getDecoratedLeft(anchor) - getPaddingLeft();
+		}
+		return new DatasetSnapshot(items, types, mAdapter.storeIndex(position), offset);
+	}
+
+	private void scrollToAnchor(int storeIndex, int offset)
+	{
+		int position = mAdapter.positionOf(storeIndex);
+		if(position < 0 || position >= mAdapter.getItemCountProtected()){return;}
+		LayoutManager lm = getLayoutManager();
+		if(lm instanceof LinearLayoutManager)
+		{
+			((LinearLayoutManager)lm).scrollToPositionWithOffset(position, offset);
+		}
+		else if(lm instanceof StaggeredGridLayoutManager)
+		{
+			((StaggeredGridLayoutManager)lm).scrollToPositionWithOffset(position, offset);
+		}
+		else
+		{
+			scrollToPosition(position);
+		}
 	}
 
 	/**
-	 * Set the interpolator to be used when animating items as they leave EasyRecyclerView.
+	 * Queue a set of edits to be applied to the dataset on the main thread. This method may be
+	 * called from any thread. Queued edits are applied together, as a single batch, at the next
+	 * animation frame, so edits posted at any rate are displayed within a frame of being posted.
+	 * Edits are applied in the order they were posted.
 	 *
-	 * @param interpolator {@link Interpolator}
+	 * @param mutation {@link Mutation} making the edits
+	 * @see #mutate(Mutation)
 	 */
 	@SuppressWarnings("unused")
-	public void setItemRemoveInterpolator(Interpolator interpolator)
+	public void postMutation(Mutation mutation)
 	{
-		mAnimator.setRemoveInterpolator(interpolator);
+		if(mutation == null){throw new NullPointerException();}
+		mPostedMutations.offer(mutation);
+		mPostedCount.incrementAndGet();
+		if(mDrainScheduled.compareAndSet(false, true))
+		{
+			ViewCompat.postOnAnimation(this, mDrainMutations);
+		}
+	}
+
+	private void drainPostedMutations()
+	{
+		//Mutations posted from here on schedule another frame
+		mDrainScheduled.set(false);
+		//Only apply what was posted before this frame, so a busy producer cannot stall it
+		int count = mPostedCount.getAndSet(0);
+		if(count == 0){return;}
+		int applied = 0;
+		mAdapter.beginBatch();
+		try
+		{
+			Mutation mutation;
+			while(applied < count && (mutation = mPostedMutations.poll()) != null)
+			{
+				applied++;
+				mutation.apply(mEditor);
+			}
+		}
+		finally
+		{
+			//Leave what was not applied, such as after a failed mutation, for the next frame
+			mPostedCount.addAndGet(count - applied);
+			mAdapter.commitBatch();
+			if(!mPostedMutations.isEmpty() && mDrainScheduled.compareAndSet(false, true))
+			{
+				ViewCompat.postOnAnimation(this, mDrainMutations);
+			}
+		}
 	}
 
 	/**
-	 * Set the interpolator to be used when animating items as they move within EasyRecyclerView.
+	 * Clears all data from the dataset.
 	 *
-	 * @param interpolator {@link Interpolator}
 	 */
 	@SuppressWarnings("unused")
-	public void setItemMoveInterpolator(Interpolator interpolator)
+	public void removeAll()
 	{
-		mAnimator.setMoveInterpolator(interpolator);
+		mAdapter.removeAll();
 	}
 
 	/**
-	 * Set the interpolator to be used in all item animations.
+	 * Get item at specified index in EasyRecyclerView.
 	 *
-	 * @param interpolator {@link Interpolator}
+	 * @param index index in list
+	 * @return item
 	 */
 	@SuppressWarnings("unused")
-	public void setItemInterpolator(Interpolator interpolator)
+	public Object getItem(int index)
 	{
-		mAnimator.setAddInterpolator(interpolator);
-		mAnimator.setRemoveInterpolator(interpolator);
-		mAnimator.setMoveInterpolator(interpolator);
+		if(index < 0){throw new IndexOutOfBoundsException();}
+		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		return mAdapter.getItem(index);
 	}
 
 	/**
-	 * Set duration of stagger (delay) between animating entrance of each item view.
-	 * Item animations are staggered sequentially from the first item being added.
+	 * Get count number of items starting at a specified index.
 	 *
-	 * @param duration stagger duration in milliseconds
+	 * @param startIndex start index of items to get
+	 * @param count number of items to return
+	 * @return list of items
 	 */
 	@SuppressWarnings("unused")
-	public void setAnimationStagger(int duration)
+	public ArrayList<Object> getItems(int startIndex, int count)
 	{
-		mAnimator.setStaggerDelay(duration);
+		if(startIndex < 0){throw new IndexOutOfBoundsException();}
+		if((startIndex + count) >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		return mAdapter.getItems(startIndex, count);
 	}
 
 	/**
-	 * Set the interpolator to be used when showing the loader in EasyRecyclerView.
+	 * Get all items in EasyRecyclerView.
+	 * Returned list may be empty if there are no items in the view.
 	 *
-	 * @param interpolator {@link Interpolator}
+	 * @return list of all items
 	 */
 	@SuppressWarnings("unused")
-	public void setLoaderShowInterpolator(Interpolator interpolator)
+	public ArrayList<Object> getItems()
 	{
-		mAdapter.setLoaderShowInterpolator(interpolator);
+		return mAdapter.getItems();
 	}
 
 	/**
-	 * Set the interpolator to be used when hiding the loader in EasyRecyclerView.
+	 * Get a read-only view of all items in EasyRecyclerView. The view reflects the live dataset
+	 * rather than a copy, and the same instance is returned on every call. Reading items by
+	 * index through {@link List#get(int)} performs no allocation.
 	 *
-	 * @param interpolator {@link Interpolator}
+	 * @return live, unmodifiable list of all items
 	 */
 	@SuppressWarnings("unused")
-	public void setLoaderHideInterpolator(Interpolator interpolator)
+	public List<Object> getItemsView()
 	{
-		mAdapter.setLoaderHideInterpolator(interpolator);
+		if(mItemsView == null)
+		{
+			mItemsView = new AbstractList<Object>()
+			{
+				@Override
+				public Object get(int index)
+				{
+					return EasyRecyclerView.this.getItem(index);
+				}
+
+				@Override
+				public int size()
+				{
+					return mAdapter.getItemCountProtected();
+				}
+			};
+		}
+		return mItemsView;
 	}
 
 	/**
-	 * Set the interpolator to be used in all loader animations.
+	 * Visit items in EasyRecyclerView from {@code startIndex} (inclusive) to {@code endIndex}
+	 * (exclusive), in order, without copying the dataset.
 	 *
-	 * @param interpolator {@link Interpolator}
+	 * @param startIndex index of the first item to visit
+	 * @param endIndex index after the last item to visit
+	 * @param visitor {@link ItemVisitor} invoked for each item
 	 */
 	@SuppressWarnings("unused")
-	public void setLoaderInterpolator(Interpolator interpolator)
+	public void forEachItem(int startIndex, int endIndex, ItemVisitor visitor)
 	{
-		mAdapter.setLoaderShowInterpolator(interpolator);
-		mAdapter.setLoaderHideInterpolator(interpolator);
+		if(startIndex < 0 || startIndex > endIndex){throw new IndexOutOfBoundsException();}
+		if(endIndex > mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
+		mAdapter.forEachItem(startIndex, endIndex, visitor);
 	}
 
-	//State
-
-	//Data
 	/**
-	 * Add item to the end of the dataset displayed in EasyRecyclerView.
+	 * Create a cursor over the items in EasyRecyclerView. The cursor can be kept and reused to
+	 * read the dataset repeatedly without allocation.
 	 *
-	 * @param item item to add
-	 * @param typeCode user defined type code of item
+	 * @return new {@link ItemCursor}, positioned before the first item
 	 */
 	@SuppressWarnings("unused")
-	public void addItem(Object item, int typeCode)
+	public ItemCursor newItemCursor()
 	{
-		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
-		mAdapter.addItem(item, typeCode);
+		return new ItemCursor();
 	}
 
 	/**
-	 * Add a set of items to the end of the dataset displayed in EasyRecyclerView.
+	 * Get the number of items currently in EasyRecyclerView.
 	 *
-	 * @param items list of items to add
-	 * @param typeCode user defined type code of item
+	 * @return number of items
 	 */
 	@SuppressWarnings("unused")
-	public void addItems(ArrayList<?> items, int typeCode)
+	public int getItemCount()
 	{
-		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
-		mAdapter.addItems(items, typeCode);
+		return mAdapter.getItemCountProtected();
 	}
 
 	/**
-	 * Add item at specified index of the dataset displayed in EasyRecyclerView.
+	 * Get the index of an item if it is within EasyRecyclerView's data set.
 	 *
-	 * @param item item to add
-	 * @param index destination index
-	 * @param typeCode user defined type code of item
+	 * <p>If an {@link ItemKeyProvider} is set, the item with the same key is found in constant
+	 * time. Otherwise, if the item index is enabled through {@link #setItemIndexEnabled(boolean)},
+	 * the same instance is found in constant time. Otherwise the dataset is scanned for an equal
+	 * item.
+	 *
+	 * @return index of the item, or -1 if it is not in the dataset
 	 */
 	@SuppressWarnings("unused")
-	public void addItemAt(Object item, int index, int typeCode)
+	public int indexOf(Object item)
 	{
-		if(index < 0){throw new IndexOutOfBoundsException();}
-		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
-		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
-		mAdapter.addItemAt(item, index, typeCode);
+		return mAdapter.indexOf(item);
 	}
 
 	/**
-	 * Remove item at specified index from the dataset displayed in EasyRecyclerVIew.
+	 * Check whether an item is within EasyRecyclerView's data set. Items are matched as in
+	 * {@link #indexOf(Object)}.
 	 *
-	 * @param index target index
+	 * @param item item to look for
+	 * @return true if the item is in the dataset
 	 */
 	@SuppressWarnings("unused")
-	public void removeItem(int index)
+	public boolean contains(Object item)
 	{
-		if(index < 0){throw new IndexOutOfBoundsException();}
-		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
-		mAdapter.removeItem(index);
+		return mAdapter.indexOf(item) >= 0;
 	}
 
 	/**
-	 * Replace item at specified index of the dataset displayed in EasyRecyclerView.
+	 * Enable an index of items by identity, maintained through every edit, so that
+	 * {@link #indexOf(Object)}, {@link #contains(Object)} and {@link #replaceItem(Object)} run in
+	 * constant time. While enabled, items are matched by reference rather than by
+	 * {@link Object#equals(Object)}. Not needed when an {@link ItemKeyProvider} is set.
 	 *
-	 * @param item new item to replace with
-	 * @param index destination index
-	 * @param typeCode user defined type code of item
+	 * @param enabled enabled state of the index
 	 */
 	@SuppressWarnings("unused")
-	public void replaceItem(Object item, int index, int typeCode)
+	public void setItemIndexEnabled(boolean enabled)
 	{
-		if(index < 0){throw new IndexOutOfBoundsException();}
-		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
-		if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
-		mAdapter.replaceItem(item, index, typeCode);
+		mAdapter.setItemIndexEnabled(enabled);
 	}
 
 	/**
-	 * Clears all data from the dataset.
+	 * Set the provider of stable keys for items in EasyRecyclerView. Keys are used as the
+	 * RecyclerView item ids, so item views keep their identity when other items are inserted,
+	 * removed or reordered, and are indexed for lookup through {@link #indexOfKey(long)}.
+	 *
+	 * <p>Without a provider, item ids are derived from positions.
 	 *
+	 * @param provider {@link ItemKeyProvider}, or null to derive ids from positions
 	 */
 	@SuppressWarnings("unused")
-	public void removeAll()
+	public void setItemKeyProvider(final ItemKeyProvider provider)
 	{
-		mAdapter.removeAll();
+		if(provider == null)
+		{
+			mAdapter.setItemKeyProvider(null);
+			return;
+		}
+		mAdapter.setItemKeyProvider(new ScarlettRecyclerAdapter.ItemKeyProvider()
+		{
+			@Override
+			public long getKey(Object item)
+			{
+				return provider.getKey(item);
+			}
+		});
 	}
 
 	/**
-	 * Get item at specified index in EasyRecyclerView.
+	 * Display items from a paged data source instead of items added directly. Pages are loaded as
+	 * their positions are about to be displayed, and at most eight pages are held in memory at
+	 * once. While a data source is set, items cannot be added, removed or replaced; calling
+	 * {@link #removeAll()} detaches the source.
 	 *
-	 * @param index index in list
-	 * @return item
+	 * @param source {@link PagedSource}, or null to detach the current source
 	 */
 	@SuppressWarnings("unused")
-	public Object getItem(int index)
+	public void setDataSource(PagedSource source)
 	{
-		if(index < 0){throw new IndexOutOfBoundsException();}
-		if(index >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
-		return mAdapter.getItem(index);
+		setDataSource(source, DEFAULT_MAX_PAGES);
 	}
 
 	/**
-	 * Get count number of items starting at a specified index.
+	 * Display items from a paged data source instead of items added directly, holding at most
+	 * {@code maxPages} pages in memory. When a page loads and the limit is exceeded, the page
+	 * furthest from the most recently displayed position is evicted. Positions whose page is not
+	 * loaded display a placeholder.
 	 *
-	 * @param startIndex start index of items to get
-	 * @param count number of items to return
-	 * @return list of items
+	 * @param source {@link PagedSource}, or null to detach the current source
+	 * @param maxPages maximum number of pages held in memory; should cover more than one screen
+	 * @see #setPlaceholderLayout(int)
 	 */
 	@SuppressWarnings("unused")
-	public ArrayList<Object> getItems(int startIndex, int count)
+	public void setDataSource(final PagedSource source, int maxPages)
 	{
-		if(startIndex < 0){throw new IndexOutOfBoundsException();}
-		if((startIndex + count) >= mAdapter.getItemCountProtected()){throw new IndexOutOfBoundsException();}
-		return mAdapter.getItems(startIndex, count);
+		if(source == null)
+		{
+			mAdapter.setDataSource(null, maxPages);
+			return;
+		}
+		mAdapter.setDataSource(new ScarlettRecyclerAdapter.PagedSource()
+		{
+			@Override
+			public int getItemCount()
+			{
+				return source.getItemCount();
+			}
+
+			@Override
+			public int getPageSize()
+			{
+				return source.getPageSize();
+			}
+
+			@Override
+			public void loadPage(int pageIndex, final ScarlettRecyclerAdapter.PageCallback callback)
+			{
+				source.loadPage(pageIndex, new PageCallback()
+				{
+					@Override
+					public void onPageLoaded(List<?> items, int typeCode)
+					{
+						if(typeCode < 0){throw new IllegalArgumentException(EX_TYPE_CODE);}
+						callback.onPageLoaded(items, typeCode);
+					}
+				});
+			}
+		}, maxPages);
 	}
 
 	/**
-	 * Get all items in EasyRecyclerView.
-	 * Returned list may be empty if there are no items in the view.
+	 * Discard all loaded pages and re-read the item count of the current data source, for when
+	 * the source's contents have changed.
 	 *
-	 * @return list of all items
 	 */
 	@SuppressWarnings("unused")
-	public ArrayList<Object> getItems()
+	public void invalidateDataSource()
 	{
-		return mAdapter.getItems();
+		mAdapter.invalidateDataSource();
 	}
 
 	/**
-	 * Get the number of items currently in EasyRecyclerView.
+	 * Set the layout displayed in place of items whose page has not been loaded yet. By default
+	 * a blank view is displayed.
 	 *
-	 * @return number of items
+	 * @param resId layout resource of the placeholder
 	 */
 	@SuppressWarnings("unused")
-	public int getItemCount()
+	public void setPlaceholderLayout(@LayoutRes int resId)
 	{
-		return mAdapter.getItemCountProtected();
+		mAdapter.setPlaceholderLayout(resId);
 	}
 
 	/**
-	 * Get the index of an item if it is within EasyRecyclerView's data set.
+	 * Get the index of the item with the specified key. Requires an {@link ItemKeyProvider}.
 	 *
-	 * @return number of items
+	 * @param key key of the item
+	 * @return index of the item, or -1 if no item has the key
 	 */
 	@SuppressWarnings("unused")
-	public int indexOf(Object item)
+	public int indexOfKey(long key)
 	{
-		return mAdapter.indexOf(item);
+		return mAdapter.indexOfKey(key);
 	}
 }
@@ -0,0 +1,496 @@
+package net.scarlettsystems.android.widget;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Filtered view of the items in an {@link ItemStore}, mapping displayed positions to store
+ * indices.
+ *
+ * The filter runs on the background executor over a snapshot of the store, split into chunks
+ * that are filtered in parallel. Chunk results are published on the main thread in store
+ * order as soon as every earlier chunk has been published. Until a chunk is published, the
+ * displayed items in its range are those of the previous filter, so a new filter replaces the
+ * old results from the top down instead of clearing the list first, and only items whose match
+ * changed are inserted or removed. A pass is abandoned when a newer one starts.
+ *
+ * When every item of the store is replaced, displayed items are found again among the new
+ * items, by key where the store has keys and by equality otherwise, and stay displayed until
+ * the pass over the new items replaces them. Only those that are gone, changed or moved out of
+ * order are removed straight away.
+ */
+class FilteredView
+{
+	interface Listener
+	{
+		void onUpdateStarted();
+		void onInserted(int position, int count);
+		void onRemoved(int position, int count);
+		void onMoved(int fromPosition, int toPosition);
+		void onUpdateFinished();
+	}
+
+	private static final int CHUNK_SIZE = 1024;
+
+	private final ItemStore mStore;
+	private final Listener mListener;
+	private final Executor mWorkerExecutor;
+	private final Executor mMainExecutor;
+	private ScarlettRecyclerAdapter.ItemFilter mFilter;
+
+	//Store indices of displayed items, in ascending order
+	private int[] mVisible;
+	private int mCount;
+
+	private volatile int mGeneration = 0;
+	private int[][] mChunkResults = null;
+	private int mPassSize = 0;
+	private int mNextChunk = 0;
+	private int mPublishedCount = 0;
+
+	//Displayed items captured before the store replaces every item
+	private Object[] mReplacedItems = null;
+	private int[] mReplacedTypes = null;
+	private long[] mReplacedKeys = null;
+
+	/**
+	 * Create a view initially displaying every item of {@code store}.
+	 */
+	FilteredView(ItemStore store, Listener listener)
+	{
+		this(store, listener, Helpers.getBackgroundExecutor(), new Executor()
+		{
+			@Override
+			public void execute(Runnable runnable)
+			{
+				Helpers.getMainHandler().post(runnable);
+			}
+		});
+	}
+
+	/**
+	 * Create a view filtering on {@code workerExecutor} and publishing results through
+	 * {@code mainExecutor}, which must run tasks on the thread using the view.
+	 */
+	FilteredView(ItemStore store, Listener listener, Executor workerExecutor, Executor mainExecutor)
+	{
+		mStore = store;
+		mListener = listener;
+		mWorkerExecutor = workerExecutor;
+		mMainExecutor = mainExecutor;
+		mCount = store.size();
+		mVisible = new int[Math.max(mCount, 16)];
+		for(int c = 0; c < mCount; c++)
+		{
+			mVisible[c] = c;
+		}
+	}
+
+	int size()
+	{
+		return mCount;
+	}
+
+	int storeIndex(int position)
+	{
+		return mVisible[position];
+	}
+
+	/**
+	 * Get the displayed position of the item at {@code storeIndex}, or -1 if it is not displayed.
+	 */
+	int positionOf(int storeIndex)
+	{
+		if(storeIndex < 0){return -1;}
+		int position = Arrays.binarySearch(mVisible, 0, mCount, storeIndex);
+		return position < 0 ? -1 : position;
+	}
+
+	boolean isFiltering()
+	{
+		return mChunkResults != null;
+	}
+
+	void setFilter(ScarlettRecyclerAdapter.ItemFilter filter)
+	{
+		mFilter = filter;
+		startPass();
+	}
+
+	/**
+	 * Note that {@code count} items were inserted into the store at {@code start}. Small
+	 * insertions are filtered immediately; large ones, and insertions while a pass is running,
+	 * restart the pass.
+	 */
+	void onInserted(int start, int count)
+	{
+		int position = lowerBound(start);
+		for(int c = position; c < mCount; c++)
+		{
+			mVisible[c] += count;
+		}
+		if(isFiltering() || count > CHUNK_SIZE)
+		{
+			//Displayed indices are up to date, so the new pass can take over from them
+			startPass();
+			return;
+		}
+		int[] inserted = new int[count];
+		int matches = 0;
+		for(int c = start; c < start + count; c++)
+		{
+			if(mFilter.matches(mStore.get(c))){inserted[matches++] = c;}
+		}
+		if(matches == 0){return;}
+		ensureCapacity(mCount + matches);
+		System.arraycopy(mVisible, position, mVisible, position + matches, mCount - position);
+		System.arraycopy(inserted, 0, mVisible, position, matches);
+		mCount += matches;
+		mListener.onUpdateStarted();
+		mListener.onInserted(position, matches);
+		mListener.onUpdateFinished();
+	}
+
+	/**
+	 * Note that the item at store index {@code from} was moved to {@code to}.
+	 */
+	void onMoved(int from, int to)
+	{
+		if(from == to){return;}
+		int fromPosition = positionOf(from);
+		int low = Math.min(from, to);
+		int high = Math.max(from, to);
+		int shift = from < to ? -1 : 1;
+		for(int c = lowerBound(low); c < mCount && mVisible[c] <= high; c++)
+		{
+			if(mVisible[c] != from){mVisible[c] += shift;}
+		}
+		if(fromPosition >= 0)
+		{
+			//Take the moved item out and put it back in order
+			System.arraycopy(mVisible, fromPosition + 1, mVisible, fromPosition, mCount - fromPosition - 1);
+			mCount--;
+			int toPosition = lowerBound(to);
+			System.arraycopy(mVisible, toPosition, mVisible, toPosition + 1, mCount - toPosition);
+			mVisible[toPosition] = to;
+			mCount++;
+			if(toPosition != fromPosition)
+			{
+				mListener.onUpdateStarted();
+				mListener.onMoved(fromPosition, toPosition);
+				mListener.onUpdateFinished();
+			}
+		}
+		if(isFiltering())
+		{
+			startPass();
+		}
+	}
+
+	/**
+	 * Note that every item of the store is about to be replaced, capturing the displayed items
+	 * so that {@link #onReplacedAll()} can keep them displayed.
+	 */
+	void onReplacingAll()
+	{
+		mReplacedItems = new Object[mCount];
+		mReplacedTypes = new int[mCount];
+		mReplacedKeys = mStore.hasKeys() ? new long[mCount] : null;
+		for(int c = 0; c < mCount; c++)
+		{
+			mReplacedItems[c] = mStore.get(mVisible[c]);
+			mReplacedTypes[c] = mStore.getType(mVisible[c]);
+			if(mReplacedKeys != null){mReplacedKeys[c] = mStore.getKey(mVisible[c]);}
+		}
+	}
+
+	/**
+	 * Note that every item of the store was replaced. Displayed items captured by
+	 * {@link #onReplacingAll()} that are unchanged among the new items stay displayed, in an
+	 * order that agrees with the new store, and the others are removed. The filter is then run
+	 * over the new items.
+	 */
+	void onReplacedAll()
+	{
+		int[] mapped = mapReplacedItems();
+		mReplacedItems = null;
+		mReplacedTypes = null;
+		mReplacedKeys = null;
+		boolean[] kept = increasingSubsequence(mapped);
+		mListener.onUpdateStarted();
+		//Remove from the end, so positions before each removal stay valid
+		for(int c = mCount - 1; c >= 0;)
+		{
+			if(kept[c])
+			{
+				c--;
+				continue;
+			}
+			int end = c;
+			while(c >= 0 && !kept[c])
+			{
+				c--;
+			}
+			mListener.onRemoved(c + 1, end - c);
+		}
+		int count = 0;
+		for(int c = 0; c < mCount; c++)
+		{
+			if(kept[c]){mVisible[count++] = mapped[c];}
+		}
+		mCount = count;
+		mListener.onUpdateFinished();
+		startPass();
+	}
+
+	/**
+	 * Stop filtering and display nothing, without notifying the listener.
+	 */
+	void clear()
+	{
+		cancel();
+		mCount = 0;
+	}
+
+	/**
+	 * Stop filtering and display every item of the store.
+	 */
+	void release()
+	{
+		cancel();
+		mListener.onUpdateStarted();
+		int position = 0;
+		int storeSize = mStore.size();
+		int next = 0;
+		for(int c = 0; c <= mCount; c++)
+		{
+			int visible = c < mCount ? mVisible[c] : storeSize;
+			if(visible > next)
+			{
+				mListener.onInserted(position, visible - next);
+				position += visible - next;
+			}
+			position++;
+			next = visible + 1;
+		}
+		mListener.onUpdateFinished();
+		mCount = 0;
+	}
+
+	/**
+	 * Find the store index of each captured item among the new items, or -1 where it is gone
+	 * or changed.
+	 */
+	private int[] mapReplacedItems()
+	{
+		int[] mapped = new int[mCount];
+		Arrays.fill(mapped, -1);
+		if(mReplacedItems == null || mReplacedItems.length != mCount){return mapped;}
+		HashMap<Object, Integer> indices = null;
+		if(mReplacedKeys == null || !mStore.hasKeys())
+		{
+			indices = new HashMap<>();
+			for(int c = mStore.size() - 1; c >= 0; c--)
+			{
+				indices.put(mStore.get(c), c);
+			}
+		}
+		for(int c = 0; c < mCount; c++)
+		{
+			int index;
+			if(indices == null)
+			{
+				index = mStore.indexOfKey(mReplacedKeys[c]);
+			}
+			else
+			{
+				Integer found = indices.get(mReplacedItems[c]);
+				index = found == null ? -1 : found;
+			}
+			if(index < 0 || mStore.getType(index) != mReplacedTypes[c]){continue;}
+			Object item = mStore.get(index);
+			//A changed item must be rebound, so it is removed and filtered in again
+			if(item == null ? mReplacedItems[c] == null : item.equals(mReplacedItems[c]))
+			{
+				mapped[c] = index;
+			}
+		}
+		return mapped;
+	}
+
+	/**
+	 * Find a longest strictly increasing subsequence of the non-negative values of
+	 * {@code values}, in O(n log n).
+	 *
+	 * @return flags of the elements in the subsequence
+	 */
+	static boolean[] increasingSubsequence(int[] values)
+	{
+		//Index of the element ending the best subsequence of each length, and each element's predecessor
+		int[] tails = new int[values.length];
+		int[] previous = new int[values.length];
+		int length = 0;
+		for(int c = 0; c < values.length; c++)
+		{
+			if(values[c] < 0){continue;}
+			int low = 0, high = length;
+			while(low < high)
+			{
+				int middle = (low + high) >>> 1;
+				if(values[tails[middle]] < values[c]){low = middle + 1;}
+				else{high = middle;}
+			}
+			previous[c] = low > 0 ? tails[low - 1] : -1;
+			tails[low] = c;
+			if(low == length){length++;}
+		}
+		boolean[] flags = new boolean[values.length];
+		for(int c = length > 0 ? tails[length - 1] : -1; c >= 0; c = previous[c])
+		{
+			flags[c] = true;
+		}
+		return flags;
+	}
+
+	/**
+	 * Get the position of the first displayed item at or after {@code storeIndex}.
+	 */
+	private int lowerBound(int storeIndex)
+	{
+		int position = Arrays.binarySearch(mVisible, 0, mCount, storeIndex);
+		return position < 0 ? -position - 1 : position;
+	}
+
+	private void cancel()
+	{
+		mGeneration++;
+		mChunkResults = null;
+	}
+
+	private void startPass()
+	{
+		final int generation = ++mGeneration;
+		final Object[] items = mStore.copyItems();
+		final ScarlettRecyclerAdapter.ItemFilter filter = mFilter;
+		mPassSize = items.length;
+		mNextChunk = 0;
+		mPublishedCount = 0;
+		int chunks = (items.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		mChunkResults = new int[chunks][];
+		if(chunks == 0)
+		{
+			mChunkResults = null;
+			return;
+		}
+		for(int c = 0; c < chunks; c++)
+		{
+			final int chunk = c;
+			mWorkerExecutor.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					if(generation != mGeneration){return;}
+					final int[] matches = filterChunk(items, chunk, filter);
+					mMainExecutor.execute(new Runnable()
+					{
+						@Override
+						public void run()
+						{
+							if(generation != mGeneration){return;}
+							onChunkFiltered(chunk, matches);
+						}
+					});
+				}
+			});
+		}
+	}
+
+	private static int[] filterChunk(Object[] items, int chunk, ScarlettRecyclerAdapter.ItemFilter filter)
+	{
+		int start = chunk * CHUNK_SIZE;
+		int end = Math.min(items.length, start + CHUNK_SIZE);
+		int[] matches = new int[end - start];
+		int count = 0;
+		for(int c = start; c < end; c++)
+		{
+			if(filter.matches(items[c]))
+			{
+				matches[count++] = c;
+			}
+		}
+		return Arrays.copyOf(matches, count);
+	}
+
+	private void onChunkFiltered(int chunk, int[] matches)
+	{
+		mChunkResults[chunk] = matches;
+		if(chunk != mNextChunk){return;}
+		mListener.onUpdateStarted();
+		while(mChunkResults != null && mNextChunk < mChunkResults.length && mChunkResults[mNextChunk] != null)
+		{
+			publishChunk(mNextChunk, mChunkResults[mNextChunk]);
+			mChunkResults[mNextChunk] = null;
+			mNextChunk++;
+			if(mNextChunk == mChunkResults.length)
+			{
+				mChunkResults = null;
+			}
+		}
+		mListener.onUpdateFinished();
+	}
+
+	/**
+	 * Replace the displayed items of the previous filter within the chunk's range with
+	 * {@code matches}, notifying only items whose match changed.
+	 */
+	private void publishChunk(int chunk, int[] matches)
+	{
+		int end = Math.min(mPassSize, (chunk + 1) * CHUNK_SIZE);
+		//Every displayed item before the chunk has already been replaced by this pass
+		int start = mPublishedCount;
+		int oldEnd = start;
+		while(oldEnd < mCount && mVisible[oldEnd] < end)
+		{
+			oldEnd++;
+		}
+		int[] old = Arrays.copyOfRange(mVisible, start, oldEnd);
+		//Splice the new matches in place of the old ones
+		int tail = mCount - oldEnd;
+		ensureCapacity(start + matches.length + tail);
+		System.arraycopy(mVisible, oldEnd, mVisible, start + matches.length, tail);
+		System.arraycopy(matches, 0, mVisible, start, matches.length);
+		mCount = start + matches.length + tail;
+		mPublishedCount += matches.length;
+		//Both lists are ascending, so a merge finds the items that changed
+		int position = start;
+		int i = 0, j = 0;
+		while(i < old.length || j < matches.length)
+		{
+			if(j == matches.length || (i < old.length && old[i] < matches[j]))
+			{
+				mListener.onRemoved(position, 1);
+				i++;
+			}
+			else if(i == old.length || matches[j] < old[i])
+			{
+				mListener.onInserted(position, 1);
+				position++;
+				j++;
+			}
+			else
+			{
+				position++;
+				i++;
+				j++;
+			}
+		}
+	}
+
+	private void ensureCapacity(int capacity)
+	{
+		if(capacity <= mVisible.length){return;}
+		mVisible = Arrays.copyOf(mVisible, Math.max(capacity, mVisible.length * 2));
+	}
+}
@@ -2,12 +2,65 @@ package net.scarlettsystems.android.widget;
 
 import android.content.Context;
 import android.content.res.Resources;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
 import android.util.DisplayMetrics;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 class Helpers
 {
+	private static ExecutorService sBackgroundExecutor;
+	private static Handler sMainHandler;
+
+	/**
+	 * Shared pool of low priority worker threads for work taken off the main thread, such as
+	 * list diffing.
+	 */
+	static synchronized ExecutorService getBackgroundExecutor()
+	{
+		if(sBackgroundExecutor == null)
+		{
+			int threads = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+			sBackgroundExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+			{
+				private final AtomicInteger mCount = new AtomicInteger();
+
+				@Override
+				public Thread newThread(final Runnable runnable)
+				{
+					Thread thread = new Thread(new Runnable()
+					{
+						@Override
+						public void run()
+						{
+							Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+							runnable.run();
+						}
+					}, "EasyRecyclerView-" + mCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return sBackgroundExecutor;
+	}
+
+	static synchronized Handler getMainHandler()
+	{
+		if(sMainHandler == null)
+		{
+			sMainHandler = new Handler(Looper.getMainLooper());
+		}
+		return sMainHandler;
+	}
+
 	public static void setViewHeight(View view, int height)
 	{
 		ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
@@ -0,0 +1,441 @@
+package net.scarlettsystems.android.widget;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Backing store of items and their type codes for {@link ScarlettRecyclerAdapter}.
+ *
+ * Items are held in an object array alongside a primitive array of type codes. Both arrays share
+ * a single gap buffer, so appends and inserts near the most recent edit cost O(1) amortised and
+ * type lookups never unbox.
+ *
+ * When a key provider is set, each item's key is kept in a third parallel array and indexed by
+ * its physical slot in the buffer. Items may likewise be indexed by identity. Slots only change
+ * for items the gap actually moves past, so the indexes are maintained at the same cost as the
+ * buffer itself.
+ */
+class ItemStore
+{
+	private static final int MIN_CAPACITY = 16;
+
+	private Object[] mItems = new Object[MIN_CAPACITY];
+	private int[] mTypes = new int[MIN_CAPACITY];
+	private long[] mKeys = null;
+	private int mGapStart = 0;
+	private int mGapEnd = MIN_CAPACITY;
+	private int mModCount = 0;
+
+	private ScarlettRecyclerAdapter.ItemKeyProvider mKeyProvider = null;
+	private LongIndexMap mKeyIndex = null;
+	private IdentityIndexMap mIdentityIndex = null;
+	private boolean mIdentityIndexEnabled = false;
+	private boolean mHasDuplicateIdentities = false;
+
+	int size()
+	{
+		return mItems.length - (mGapEnd - mGapStart);
+	}
+
+	Object get(int index)
+	{
+		return mItems[slot(index)];
+	}
+
+	int getType(int index)
+	{
+		return mTypes[slot(index)];
+	}
+
+	long getKey(int index)
+	{
+		return mKeys[slot(index)];
+	}
+
+	void set(int index, Object item, int typeCode)
+	{
+		int slot = slot(index);
+		unindexSlot(slot);
+		mItems[slot] = item;
+		mTypes[slot] = typeCode;
+		indexSlot(slot);
+		mModCount++;
+	}
+
+	void add(int index, Object item, int typeCode)
+	{
+		moveGapTo(index);
+		ensureGap(1);
+		mItems[mGapStart] = item;
+		mTypes[mGapStart] = typeCode;
+		indexSlot(mGapStart);
+		mGapStart++;
+		mModCount++;
+	}
+
+	void addAll(int index, List<?> items, int typeCode)
+	{
+		addAll(index, items, null, typeCode);
+	}
+
+	/**
+	 * Insert items with a type code each, from {@code types}.
+	 */
+	void addAll(int index, List<?> items, int[] types)
+	{
+		addAll(index, items, types, 0);
+	}
+
+	private void addAll(int index, List<?> items, int[] types, int typeCode)
+	{
+		int count = items.size();
+		moveGapTo(index);
+		ensureGap(count);
+		for(int c = 0; c < count; c++)
+		{
+			mItems[mGapStart + c] = items.get(c);
+			mTypes[mGapStart + c] = types == null ? typeCode : types[c];
+			indexSlot(mGapStart + c);
+		}
+		mGapStart += count;
+		mModCount++;
+	}
+
+	void setRange(int index, List<?> items, int typeCode)
+	{
+		for(int c = 0; c < items.size(); c++)
+		{
+			int slot = slot(index + c);
+			unindexSlot(slot);
+			mItems[slot] = items.get(c);
+			mTypes[slot] = typeCode;
+			indexSlot(slot);
+		}
+		mModCount++;
+	}
+
+	void move(int fromIndex, int toIndex)
+	{
+		if(fromIndex == toIndex){return;}
+		Object item = get(fromIndex);
+		int typeCode = getType(fromIndex);
+		removeRange(fromIndex, 1);
+		add(toIndex, item, typeCode);
+	}
+
+	void remove(int index)
+	{
+		removeRange(index, 1);
+	}
+
+	void removeRange(int index, int count)
+	{
+		moveGapTo(index);
+		for(int c = mGapEnd; c < mGapEnd + count; c++)
+		{
+			unindexSlot(c);
+		}
+		Arrays.fill(mItems, mGapEnd, mGapEnd + count, null);
+		mGapEnd += count;
+		mModCount++;
+	}
+
+	void clear()
+	{
+		mItems = new Object[MIN_CAPACITY];
+		mTypes = new int[MIN_CAPACITY];
+		mGapStart = 0;
+		mGapEnd = MIN_CAPACITY;
+		reindex();
+		mModCount++;
+	}
+
+	/**
+	 * Replace the entire contents of the store. The supplied arrays are copied.
+	 */
+	void setAll(Object[] items, int[] typeCodes)
+	{
+		int count = items.length;
+		int capacity = Math.max(MIN_CAPACITY, count + (count >> 1));
+		mItems = new Object[capacity];
+		mTypes = new int[capacity];
+		System.arraycopy(items, 0, mItems, 0, count);
+		System.arraycopy(typeCodes, 0, mTypes, 0, count);
+		mGapStart = count;
+		mGapEnd = capacity;
+		reindex();
+		mModCount++;
+	}
+
+	Object[] copyItems()
+	{
+		Object[] items = new Object[size()];
+		System.arraycopy(mItems, 0, items, 0, mGapStart);
+		System.arraycopy(mItems, mGapEnd, items, mGapStart, mItems.length - mGapEnd);
+		return items;
+	}
+
+	int[] copyTypes()
+	{
+		int[] types = new int[size()];
+		System.arraycopy(mTypes, 0, types, 0, mGapStart);
+		System.arraycopy(mTypes, mGapEnd, types, mGapStart, mTypes.length - mGapEnd);
+		return types;
+	}
+
+	long[] copyKeys()
+	{
+		if(mKeys == null){return null;}
+		long[] keys = new long[size()];
+		System.arraycopy(mKeys, 0, keys, 0, mGapStart);
+		System.arraycopy(mKeys, mGapEnd, keys, mGapStart, mKeys.length - mGapEnd);
+		return keys;
+	}
+
+	/**
+	 * Get the index of an item. Items are matched by key if a key provider is set, by identity if
+	 * the identity index is enabled, and otherwise using {@link Object#equals(Object)}.
+	 */
+	int indexOf(Object item)
+	{
+		if(mKeyProvider != null)
+		{
+			return indexOfKey(mKeyProvider.getKey(item));
+		}
+		if(mIdentityIndex != null)
+		{
+			return indexOfIdentity(item);
+		}
+		for(int c = 0; c < mGapStart; c++)
+		{
+			if(item == null ? mItems[c] == null : item.equals(mItems[c])){return c;}
+		}
+		for(int c = mGapEnd; c < mItems.length; c++)
+		{
+			if(item == null ? mItems[c] == null : item.equals(mItems[c])){return c - (mGapEnd - mGapStart);}
+		}
+		return -1;
+	}
+
+	/**
+	 * Visit items from {@code startIndex} (inclusive) to {@code endIndex} (exclusive) in order,
+	 * walking each side of the gap directly.
+	 */
+	void forEach(int startIndex, int endIndex, EasyRecyclerView.ItemVisitor visitor)
+	{
+		int gapLength = mGapEnd - mGapStart;
+		int c = startIndex;
+		for(; c < endIndex && c < mGapStart; c++)
+		{
+			if(!visitor.onVisitItem(c, mItems[c])){return;}
+		}
+		for(; c < endIndex; c++)
+		{
+			if(!visitor.onVisitItem(c, mItems[c + gapLength])){return;}
+		}
+	}
+
+	ArrayList<Object> toList(int startIndex, int count)
+	{
+		ArrayList<Object> list = new ArrayList<>(count);
+		for(int c = startIndex; c < startIndex + count; c++)
+		{
+			list.add(get(c));
+		}
+		return list;
+	}
+
+	/**
+	 * Modification counter. Incremented whenever items are inserted, removed or replaced, and
+	 * whenever the key provider changes.
+	 */
+	int getModCount()
+	{
+		return mModCount;
+	}
+
+	//Keys
+
+	void setKeyProvider(ScarlettRecyclerAdapter.ItemKeyProvider provider)
+	{
+		mKeyProvider = provider;
+		//Lists diffed against the old keys must be diffed again
+		mModCount++;
+		reindex();
+	}
+
+	ScarlettRecyclerAdapter.ItemKeyProvider getKeyProvider()
+	{
+		return mKeyProvider;
+	}
+
+	boolean hasKeys()
+	{
+		return mKeyProvider != null;
+	}
+
+	/**
+	 * Get the index of the item with the specified key, or -1 if there is none.
+	 */
+	int indexOfKey(long key)
+	{
+		if(mKeyIndex == null){return -1;}
+		int slot = mKeyIndex.get(key);
+		if(slot == LongIndexMap.NOT_FOUND){return -1;}
+		return slot < mGapStart ? slot : slot - (mGapEnd - mGapStart);
+	}
+
+	//Identities
+
+	void setIdentityIndexEnabled(boolean enabled)
+	{
+		mIdentityIndexEnabled = enabled;
+		reindex();
+	}
+
+	private int indexOfIdentity(Object item)
+	{
+		int slot = mIdentityIndex.get(item);
+		if(slot != IdentityIndexMap.NOT_FOUND)
+		{
+			return slot < mGapStart ? slot : slot - (mGapEnd - mGapStart);
+		}
+		if(!mHasDuplicateIdentities){return -1;}
+		//An item added more than once may have lost its entry when another copy was removed
+		for(int c = 0; c < mGapStart; c++)
+		{
+			if(mItems[c] == item){return c;}
+		}
+		for(int c = mGapEnd; c < mItems.length; c++)
+		{
+			if(mItems[c] == item){return c - (mGapEnd - mGapStart);}
+		}
+		return -1;
+	}
+
+	//Indexing
+
+	private void reindex()
+	{
+		mKeys = mKeyProvider == null ? null : new long[mItems.length];
+		mKeyIndex = mKeyProvider == null ? null : new LongIndexMap(size());
+		mIdentityIndex = mIdentityIndexEnabled ? new IdentityIndexMap(size()) : null;
+		mHasDuplicateIdentities = false;
+		if(mKeyIndex == null && mIdentityIndex == null){return;}
+		for(int c = 0; c < mGapStart; c++)
+		{
+			indexSlot(c);
+		}
+		for(int c = mGapEnd; c < mItems.length; c++)
+		{
+			indexSlot(c);
+		}
+	}
+
+	private void indexSlot(int slot)
+	{
+		if(mKeyIndex != null)
+		{
+			long key = mKeyProvider.getKey(mItems[slot]);
+			mKeys[slot] = key;
+			if(mKeyIndex.put(key, slot) != LongIndexMap.NOT_FOUND)
+			{
+				Log.e("EasyRecyclerView", "Duplicate item key " + key + ". Item keys must be unique.");
+			}
+		}
+		if(mIdentityIndex != null)
+		{
+			if(mIdentityIndex.put(mItems[slot], slot) != IdentityIndexMap.NOT_FOUND)
+			{
+				mHasDuplicateIdentities = true;
+			}
+		}
+	}
+
+	private void unindexSlot(int slot)
+	{
+		if(mKeyIndex != null){mKeyIndex.remove(mKeys[slot], slot);}
+		if(mIdentityIndex != null){mIdentityIndex.remove(mItems[slot], slot);}
+	}
+
+	private void relocateSlots(int from, int to, int length)
+	{
+		if(mKeyIndex != null)
+		{
+			for(int c = 0; c < length; c++)
+			{
+				mKeyIndex.replace(mKeys[to + c], from + c, to + c);
+			}
+		}
+		if(mIdentityIndex != null)
+		{
+			for(int c = 0; c < length; c++)
+			{
+				mIdentityIndex.replace(mItems[to + c], from + c, to + c);
+			}
+		}
+	}
+
+	//Gap Management
+
+	private int slot(int index)
+	{
+		return index < mGapStart ? index : index + (mGapEnd - mGapStart);
+	}
+
+	private void moveGapTo(int index)
+	{
+		if(index == mGapStart){return;}
+		int gapLength = mGapEnd - mGapStart;
+		if(index < mGapStart)
+		{
+			int length = mGapStart - index;
+			int to = mGapEnd - length;
+			System.arraycopy(mItems, index, mItems, to, length);
+			System.arraycopy(mTypes, index, mTypes, to, length);
+			if(mKeys != null){System.arraycopy(mKeys, index, mKeys, to, length);}
+			relocateSlots(index, to, length);
+			Arrays.fill(mItems, index, Math.min(mGapStart, index + gapLength), null);
+		}
+		else
+		{
+			int length = index - mGapStart;
+			System.arraycopy(mItems, mGapEnd, mItems, mGapStart, length);
+			System.arraycopy(mTypes, mGapEnd, mTypes, mGapStart, length);
+			if(mKeys != null){System.arraycopy(mKeys, mGapEnd, mKeys, mGapStart, length);}
+			relocateSlots(mGapEnd, mGapStart, length);
+			Arrays.fill(mItems, Math.max(mGapEnd, index), mGapEnd + length, null);
+		}
+		mGapStart = index;
+		mGapEnd = index + gapLength;
+	}
+
+	private void ensureGap(int required)
+	{
+		if(mGapEnd - mGapStart >= required){return;}
+		int size = size();
+		int capacity = Math.max(mItems.length + (mItems.length >> 1), size + required);
+		int tailLength = mItems.length - mGapEnd;
+		int tailStart = capacity - tailLength;
+		Object[] items = new Object[capacity];
+		int[] types = new int[capacity];
+		System.arraycopy(mItems, 0, items, 0, mGapStart);
+		System.arraycopy(mTypes, 0, types, 0, mGapStart);
+		System.arraycopy(mItems, mGapEnd, items, tailStart, tailLength);
+		System.arraycopy(mTypes, mGapEnd, types, tailStart, tailLength);
+		if(mKeys != null)
+		{
+			long[] keys = new long[capacity];
+			System.arraycopy(mKeys, 0, keys, 0, mGapStart);
+			System.arraycopy(mKeys, mGapEnd, keys, tailStart, tailLength);
+			mKeys = keys;
+		}
+		mItems = items;
+		mTypes = types;
+		relocateSlots(mGapEnd, tailStart, tailLength);
+		mGapEnd = tailStart;
+	}
+}
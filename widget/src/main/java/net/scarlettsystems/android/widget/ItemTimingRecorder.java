@@ -0,0 +1,119 @@
+package net.scarlettsystems.android.widget;
+
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records durations of item view creation and binding per type code in fixed size log scale
+ * histograms, so recording neither allocates nor grows with the number of samples.
+ */
+class ItemTimingRecorder
+{
+	interface OverBudgetListener
+	{
+		void onOverBudget(int typeCode, int phase, long nanos);
+	}
+
+	//Four buckets per power of two
+	private static final int SUB_BUCKET_BITS = 2;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+	private static class Histogram
+	{
+		final int[] buckets = new int[BUCKETS];
+		int count;
+		long max;
+	}
+
+	private final SparseArray<Histogram> mCreate = new SparseArray<>();
+	private final SparseArray<Histogram> mBind = new SparseArray<>();
+	private long mBudgetNanos = Long.MAX_VALUE;
+	private OverBudgetListener mListener = null;
+
+	void setBudget(long budgetNanos, OverBudgetListener l)
+	{
+		mBudgetNanos = l == null ? Long.MAX_VALUE : budgetNanos;
+		mListener = l;
+	}
+
+	void record(int typeCode, int phase, long nanos)
+	{
+		SparseArray<Histogram> histograms = phase == EasyRecyclerView.PHASE_CREATE ? mCreate : mBind;
+		Histogram histogram = histograms.get(typeCode);
+		if(histogram == null)
+		{
+			histogram = new Histogram();
+			histograms.put(typeCode, histogram);
+		}
+		histogram.buckets[bucketOf(nanos)]++;
+		histogram.count++;
+		if(nanos > histogram.max){histogram.max = nanos;}
+		if(nanos > mBudgetNanos && mListener != null)
+		{
+			mListener.onOverBudget(typeCode, phase, nanos);
+		}
+	}
+
+	List<ItemTimingStats> snapshot()
+	{
+		List<ItemTimingStats> stats = new ArrayList<>(mCreate.size() + mBind.size());
+		addStats(stats, mCreate, EasyRecyclerView.PHASE_CREATE);
+		addStats(stats, mBind, EasyRecyclerView.PHASE_BIND);
+		return stats;
+	}
+
+	void reset()
+	{
+		mCreate.clear();
+		mBind.clear();
+	}
+
+	private static void addStats(List<ItemTimingStats> out, SparseArray<Histogram> histograms, int phase)
+	{
+		for(int c = 0; c < histograms.size(); c++)
+		{
+			Histogram h = histograms.valueAt(c);
+			out.add(new ItemTimingStats(histograms.keyAt(c), phase, h.count,
+					quantile(h.buckets, h.count, h.max, 0.50), quantile(h.buckets, h.count, h.max, 0.95), h.max));
+		}
+	}
+
+	static long quantile(int[] buckets, int count, long max, double q)
+	{
+		long rank = (long)Math.ceil(q * count);
+		long seen = 0;
+		for(int c = 0; c < BUCKETS; c++)
+		{
+			seen += buckets[c];
+			if(seen >= rank && buckets[c] > 0)
+			{
+				return Math.min(upperBound(c), max);
+			}
+		}
+		return max;
+	}
+
+	static int bucketCount()
+	{
+		return BUCKETS;
+	}
+
+	static int bucketOf(long nanos)
+	{
+		if(nanos < SUB_BUCKETS){return nanos < 0 ? 0 : (int)nanos;}
+		int log = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int)(nanos >>> (log - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (log - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	static long upperBound(int bucket)
+	{
+		if(bucket < SUB_BUCKETS){return bucket;}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long sub = bucket % SUB_BUCKETS;
+		return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+	}
+}
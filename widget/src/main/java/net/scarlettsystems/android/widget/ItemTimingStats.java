@@ -0,0 +1,98 @@
+package net.scarlettsystems.android.widget;
+
+/**
+ * Timing statistics of item view creation or binding for one type code, as recorded by
+ * EasyRecyclerView while timing is enabled. Percentiles are approximate, to within about 20%.
+ *
+ * @see EasyRecyclerView#setItemTimingEnabled(boolean)
+ * @see EasyRecyclerView#getItemTimings()
+ */
+@SuppressWarnings("unused")
+public final class ItemTimingStats
+{
+	private final int mTypeCode;
+	private final int mPhase;
+	private final int mCount;
+	private final long mP50, mP95, mMax;
+
+	ItemTimingStats(int typeCode, int phase, int count, long p50, long p95, long max)
+	{
+		mTypeCode = typeCode;
+		mPhase = phase;
+		mCount = count;
+		mP50 = p50;
+		mP95 = p95;
+		mMax = max;
+	}
+
+	/**
+	 * Get the user defined type code these statistics belong to.
+	 *
+	 * @return type code
+	 */
+	public int getTypeCode()
+	{
+		return mTypeCode;
+	}
+
+	/**
+	 * Get the timed phase.
+	 *
+	 * @return {@link EasyRecyclerView#PHASE_CREATE} or {@link EasyRecyclerView#PHASE_BIND}
+	 */
+	public int getPhase()
+	{
+		return mPhase;
+	}
+
+	/**
+	 * Get the number of timed calls.
+	 *
+	 * @return number of calls
+	 */
+	public int getCount()
+	{
+		return mCount;
+	}
+
+	/**
+	 * Get the median duration of a call.
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getP50Nanos()
+	{
+		return mP50;
+	}
+
+	/**
+	 * Get the 95th percentile duration of a call.
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getP95Nanos()
+	{
+		return mP95;
+	}
+
+	/**
+	 * Get the longest duration of a call.
+	 *
+	 * @return duration in nanoseconds
+	 */
+	public long getMaxNanos()
+	{
+		return mMax;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ItemTimingStats{type=" + mTypeCode
+				+ ", phase=" + (mPhase == EasyRecyclerView.PHASE_CREATE ? "create" : "bind")
+				+ ", count=" + mCount
+				+ ", p50=" + mP50
+				+ ", p95=" + mP95
+				+ ", max=" + mMax + "}";
+	}
+}
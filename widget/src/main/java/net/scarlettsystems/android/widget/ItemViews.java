@@ -0,0 +1,83 @@
+package net.scarlettsystems.android.widget;
+
+import android.view.View;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+/**
+ * Child views of an item view, held in the order their ids were declared when the item's
+ * binder was added to EasyRecyclerView. Views are located once per item view, so reading them
+ * while binding costs a single array access.
+ *
+ * @see EasyRecyclerView#addOnBindItemViewListener(int, int, int[], EasyRecyclerView.OnBindItemViewsListener)
+ */
+@SuppressWarnings("unused")
+public final class ItemViews
+{
+	private final View[] mViews;
+
+	ItemViews(int size)
+	{
+		mViews = new View[size];
+	}
+
+	View[] getArray()
+	{
+		return mViews;
+	}
+
+	/**
+	 * Get the number of declared views.
+	 *
+	 * @return number of views
+	 */
+	public int size()
+	{
+		return mViews.length;
+	}
+
+	/**
+	 * Get the view declared at {@code index}.
+	 *
+	 * @param index index of the view id in the declared ids
+	 * @return view, or null if the item view has no child with that id
+	 */
+	public View getView(int index)
+	{
+		return mViews[index];
+	}
+
+	/**
+	 * Get the view declared at {@code index}, cast to the type expected by the caller.
+	 *
+	 * @param index index of the view id in the declared ids
+	 * @return view, or null if the item view has no child with that id
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends View> T get(int index)
+	{
+		return (T)mViews[index];
+	}
+
+	/**
+	 * Get the {@link TextView} declared at {@code index}.
+	 *
+	 * @param index index of the view id in the declared ids
+	 * @return text view, or null if the item view has no child with that id
+	 */
+	public TextView getTextView(int index)
+	{
+		return (TextView)mViews[index];
+	}
+
+	/**
+	 * Get the {@link ImageView} declared at {@code index}.
+	 *
+	 * @param index index of the view id in the declared ids
+	 * @return image view, or null if the item view has no child with that id
+	 */
+	public ImageView getImageView(int index)
+	{
+		return (ImageView)mViews[index];
+	}
+}
@@ -0,0 +1,102 @@
+package net.scarlettsystems.android.widget;
+
+/**
+ * Counts of the hardware layers given to item views by EasyRecyclerView's layer policy. Memory
+ * is estimated at four bytes per pixel of each layered view.
+ *
+ * @see EasyRecyclerView#setAnimationLayersEnabled(boolean)
+ * @see EasyRecyclerView#setFlingLayersEnabled(int, boolean)
+ * @see EasyRecyclerView#getLayerStats()
+ */
+@SuppressWarnings("unused")
+public final class LayerStats
+{
+	private final long mCreated;
+	private final long mReleased;
+	private final int mActive;
+	private final int mPeakActive;
+	private final long mActiveBytes;
+	private final long mPeakBytes;
+
+	LayerStats(long created, long released, int active, int peakActive, long activeBytes, long peakBytes)
+	{
+		mCreated = created;
+		mReleased = released;
+		mActive = active;
+		mPeakActive = peakActive;
+		mActiveBytes = activeBytes;
+		mPeakBytes = peakBytes;
+	}
+
+	/**
+	 * Get the number of layers created since the statistics were last reset.
+	 *
+	 * @return number of layers
+	 */
+	public long getCreatedCount()
+	{
+		return mCreated;
+	}
+
+	/**
+	 * Get the number of layers released since the statistics were last reset.
+	 *
+	 * @return number of layers
+	 */
+	public long getReleasedCount()
+	{
+		return mReleased;
+	}
+
+	/**
+	 * Get the number of layers currently held.
+	 *
+	 * @return number of layers
+	 */
+	public int getActiveCount()
+	{
+		return mActive;
+	}
+
+	/**
+	 * Get the largest number of layers held at once since the statistics were last reset.
+	 *
+	 * @return number of layers
+	 */
+	public int getPeakActiveCount()
+	{
+		return mPeakActive;
+	}
+
+	/**
+	 * Get the estimated memory of the layers currently held.
+	 *
+	 * @return memory in bytes
+	 */
+	public long getActiveBytes()
+	{
+		return mActiveBytes;
+	}
+
+	/**
+	 * Get the largest estimated memory of the layers held at once since the statistics were
+	 * last reset.
+	 *
+	 * @return memory in bytes
+	 */
+	public long getPeakBytes()
+	{
+		return mPeakBytes;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "LayerStats{created=" + mCreated
+				+ ", released=" + mReleased
+				+ ", active=" + mActive
+				+ ", peakActive=" + mPeakActive
+				+ ", activeBytes=" + mActiveBytes
+				+ ", peakBytes=" + mPeakBytes + "}";
+	}
+}
@@ -0,0 +1,112 @@
+package net.scarlettsystems.android.widget;
+
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Gives item views hardware layers on behalf of several sources, and counts them.
+ *
+ * A view keeps its layer while any source holds it, and loses it when the last one lets go.
+ * Views that already had a layer when first acquired are never touched, so layers set by the
+ * application survive. Layer memory is estimated at four bytes per pixel of the view.
+ *
+ * Views larger than the list itself are never given a layer: rendering them into one costs
+ * more than redrawing the part on screen. Layers are also refused once those already held
+ * would cover the list three times over, which bounds their memory however many views are
+ * animated at once.
+ */
+class LayerTracker
+{
+	static final int SOURCE_ANIMATION = 1;
+	static final int SOURCE_FLING = 2;
+
+	private static final int BYTES_PER_PIXEL = 4;
+	private static final int MAX_ACTIVE_SCREENS = 3;
+
+	private static class Entry
+	{
+		int sources;
+		long bytes;
+	}
+
+	private final View mHost;
+	private final IdentityHashMap<View, Entry> mLayers = new IdentityHashMap<>();
+
+	private long mCreated = 0;
+	private long mReleased = 0;
+	private long mActiveBytes = 0;
+	private int mPeakActive = 0;
+	private long mPeakBytes = 0;
+
+	/**
+	 * Create a tracker for the item views of {@code host}, whose size bounds the layers given.
+	 */
+	LayerTracker(View host)
+	{
+		mHost = host;
+	}
+
+	void acquire(View view, int source)
+	{
+		Entry entry = mLayers.get(view);
+		if(entry != null)
+		{
+			entry.sources |= source;
+			return;
+		}
+		if(view.getLayerType() != View.LAYER_TYPE_NONE){return;}
+		long bytes = (long)view.getWidth() * view.getHeight() * BYTES_PER_PIXEL;
+		long hostBytes = (long)mHost.getWidth() * mHost.getHeight() * BYTES_PER_PIXEL;
+		if(bytes == 0 || bytes > hostBytes || mActiveBytes + bytes > MAX_ACTIVE_SCREENS * hostBytes){return;}
+		entry = new Entry();
+		entry.sources = source;
+		entry.bytes = bytes;
+		mLayers.put(view, entry);
+		view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+		mCreated++;
+		mActiveBytes += entry.bytes;
+		mPeakActive = Math.max(mPeakActive, mLayers.size());
+		mPeakBytes = Math.max(mPeakBytes, mActiveBytes);
+	}
+
+	void release(View view, int source)
+	{
+		Entry entry = mLayers.get(view);
+		if(entry == null){return;}
+		entry.sources &= ~source;
+		if(entry.sources != 0){return;}
+		mLayers.remove(view);
+		view.setLayerType(View.LAYER_TYPE_NONE, null);
+		mReleased++;
+		mActiveBytes -= entry.bytes;
+	}
+
+	void releaseAll(int source)
+	{
+		ArrayList<View> views = new ArrayList<>();
+		for(Map.Entry<View, Entry> layer : mLayers.entrySet())
+		{
+			if((layer.getValue().sources & source) != 0){views.add(layer.getKey());}
+		}
+		for(View view : views)
+		{
+			release(view, source);
+		}
+	}
+
+	LayerStats snapshot()
+	{
+		return new LayerStats(mCreated, mReleased, mLayers.size(), mPeakActive, mActiveBytes, mPeakBytes);
+	}
+
+	void reset()
+	{
+		mCreated = 0;
+		mReleased = 0;
+		mPeakActive = mLayers.size();
+		mPeakBytes = mActiveBytes;
+	}
+}
@@ -0,0 +1,166 @@
+package net.scarlettsystems.android.widget;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive long keys to non-negative int values, used to look up
+ * item positions by key without boxing.
+ */
+class LongIndexMap
+{
+	static final int NOT_FOUND = -1;
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] mKeys;
+	private int[] mValues;
+	private int mMask;
+	private int mSize = 0;
+
+	LongIndexMap()
+	{
+		this(MIN_CAPACITY);
+	}
+
+	LongIndexMap(int expectedSize)
+	{
+		allocate(capacityFor(expectedSize));
+	}
+
+	int size()
+	{
+		return mSize;
+	}
+
+	int get(long key)
+	{
+		int slot = hash(key) & mMask;
+		while(mValues[slot] != NOT_FOUND)
+		{
+			if(mKeys[slot] == key){return mValues[slot];}
+			slot = (slot + 1) & mMask;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Associate {@code value} with {@code key}.
+	 *
+	 * @return the value previously associated with the key, or {@link #NOT_FOUND}
+	 */
+	int put(long key, int value)
+	{
+		if((mSize + 1) * 2 > mValues.length)
+		{
+			rehash(mValues.length * 2);
+		}
+		int slot = hash(key) & mMask;
+		while(mValues[slot] != NOT_FOUND)
+		{
+			if(mKeys[slot] == key)
+			{
+				int previous = mValues[slot];
+				mValues[slot] = value;
+				return previous;
+			}
+			slot = (slot + 1) & mMask;
+		}
+		mKeys[slot] = key;
+		mValues[slot] = value;
+		mSize++;
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Replace the value of {@code key} only if it is currently {@code expected}.
+	 */
+	void replace(long key, int expected, int value)
+	{
+		int slot = find(key);
+		if(slot != NOT_FOUND && mValues[slot] == expected)
+		{
+			mValues[slot] = value;
+		}
+	}
+
+	/**
+	 * Remove {@code key} only if it is currently associated with {@code expected}.
+	 */
+	void remove(long key, int expected)
+	{
+		int slot = find(key);
+		if(slot == NOT_FOUND || mValues[slot] != expected){return;}
+		//Backward shift deletion keeps probe sequences intact without tombstones
+		int gap = slot;
+		int next = (gap + 1) & mMask;
+		while(mValues[next] != NOT_FOUND)
+		{
+			int home = hash(mKeys[next]) & mMask;
+			if(((next - home) & mMask) >= ((next - gap) & mMask))
+			{
+				mKeys[gap] = mKeys[next];
+				mValues[gap] = mValues[next];
+				gap = next;
+			}
+			next = (next + 1) & mMask;
+		}
+		mValues[gap] = NOT_FOUND;
+		mSize--;
+	}
+
+	void clear()
+	{
+		Arrays.fill(mValues, NOT_FOUND);
+		mSize = 0;
+	}
+
+	private int find(long key)
+	{
+		int slot = hash(key) & mMask;
+		while(mValues[slot] != NOT_FOUND)
+		{
+			if(mKeys[slot] == key){return slot;}
+			slot = (slot + 1) & mMask;
+		}
+		return NOT_FOUND;
+	}
+
+	private void rehash(int capacity)
+	{
+		long[] keys = mKeys;
+		int[] values = mValues;
+		allocate(capacity);
+		mSize = 0;
+		for(int c = 0; c < values.length; c++)
+		{
+			if(values[c] != NOT_FOUND)
+			{
+				put(keys[c], values[c]);
+			}
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		mKeys = new long[capacity];
+		mValues = new int[capacity];
+		Arrays.fill(mValues, NOT_FOUND);
+		mMask = capacity - 1;
+	}
+
+	private static int capacityFor(int expectedSize)
+	{
+		int capacity = MIN_CAPACITY;
+		while(capacity < expectedSize * 2)
+		{
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private static int hash(long key)
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+}
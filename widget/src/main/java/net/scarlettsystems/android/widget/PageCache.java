@@ -0,0 +1,258 @@
+package net.scarlettsystems.android.widget;
+
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import java.util.List;
+
+/**
+ * Bounded cache of pages loaded from a {@link ScarlettRecyclerAdapter.PagedSource}.
+ *
+ * Pages are requested by position as they are bound. When the cache is full, the page furthest
+ * from the most recently bound position is evicted, with the least recently used page evicted
+ * first among equally distant ones. Pages pinned by bound views are never evicted, so the
+ * cache grows past its limit rather than evict a page on screen, whose views would reload it
+ * as soon as they were rebound. Positions on pages that are not loaded are reported as
+ * unloaded, so the adapter can show placeholders for them, and the listener is told when a
+ * page is evicted so that views still showing its items can be rebound.
+ */
+class PageCache
+{
+	interface Listener
+	{
+		void onPageLoaded(int startPosition, int count);
+
+		void onPageEvicted(int startPosition, int count);
+	}
+
+	private static class Page
+	{
+		Object[] items;
+		int[] types;
+		long lastAccess;
+	}
+
+	private final ScarlettRecyclerAdapter.PagedSource mSource;
+	private final Listener mListener;
+	private final int mMaxPages;
+	private final int mPageSize;
+	private int mCount;
+
+	private SparseArray<Page> mPages = new SparseArray<>();
+	//Number of bound views showing each page
+	private final SparseIntArray mPins = new SparseIntArray();
+	private long mAccessClock = 0;
+	private int mLastPage = 0;
+	private int mGeneration = 0;
+
+	PageCache(ScarlettRecyclerAdapter.PagedSource source, int maxPages, Listener listener)
+	{
+		mSource = source;
+		mListener = listener;
+		mMaxPages = Math.max(2, maxPages);
+		mPageSize = source.getPageSize();
+		if(mPageSize < 1){throw new IllegalArgumentException("Page size must be an integer larger than zero.");}
+		mCount = source.getItemCount();
+	}
+
+	int size()
+	{
+		return mCount;
+	}
+
+	boolean isLoaded(int position)
+	{
+		Page page = mPages.get(position / mPageSize);
+		return page != null && page.items != null;
+	}
+
+	/**
+	 * Get a loaded item. Returns null if its page is not loaded.
+	 */
+	Object get(int position)
+	{
+		Page page = mPages.get(position / mPageSize);
+		if(page == null || page.items == null){return null;}
+		page.lastAccess = ++mAccessClock;
+		return page.items[position % mPageSize];
+	}
+
+	/**
+	 * Get the type code of a loaded item. Returns -1 if its page is not loaded.
+	 */
+	int getType(int position)
+	{
+		Page page = mPages.get(position / mPageSize);
+		if(page == null || page.items == null){return -1;}
+		return page.types[position % mPageSize];
+	}
+
+	/**
+	 * Get the position of an item among the loaded pages, or -1 if it is not loaded.
+	 */
+	int indexOf(Object item)
+	{
+		for(int c = 0; c < mPages.size(); c++)
+		{
+			Object[] items = mPages.valueAt(c).items;
+			if(items == null){continue;}
+			for(int i = 0; i < items.length; i++)
+			{
+				if(item == null ? items[i] == null : item.equals(items[i]))
+				{
+					return mPages.keyAt(c) * mPageSize + i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Note that {@code position} is being displayed, loading its page and, when the position is
+	 * close to the edge of its page, the neighbouring page.
+	 */
+	void onPositionBound(int position)
+	{
+		int pageIndex = position / mPageSize;
+		int offset = position % mPageSize;
+		mLastPage = pageIndex;
+		requestPage(pageIndex);
+		if(offset >= mPageSize - mPageSize / 4)
+		{
+			requestPage(pageIndex + 1);
+		}
+		else if(offset < mPageSize / 4)
+		{
+			requestPage(pageIndex - 1);
+		}
+	}
+
+	/**
+	 * Keep the page of {@code position} from being evicted until {@link #unpin(int)} is called
+	 * with the returned page index.
+	 */
+	int pin(int position)
+	{
+		int pageIndex = position / mPageSize;
+		mPins.put(pageIndex, mPins.get(pageIndex) + 1);
+		return pageIndex;
+	}
+
+	void unpin(int pageIndex)
+	{
+		int pins = mPins.get(pageIndex) - 1;
+		if(pins > 0)
+		{
+			mPins.put(pageIndex, pins);
+		}
+		else
+		{
+			mPins.delete(pageIndex);
+		}
+	}
+
+	/**
+	 * Drop every page and re-read the item count. Loads in flight are discarded.
+	 */
+	void invalidate()
+	{
+		mGeneration++;
+		mPages.clear();
+		mCount = mSource.getItemCount();
+	}
+
+	/**
+	 * Discard loads in flight, for when the cache is no longer in use.
+	 */
+	void release()
+	{
+		mGeneration++;
+		mPages.clear();
+	}
+
+	private void requestPage(final int pageIndex)
+	{
+		if(pageIndex < 0 || pageIndex * mPageSize >= mCount){return;}
+		if(mPages.get(pageIndex) != null){return;}
+		//An empty page marks the load as in flight
+		mPages.put(pageIndex, new Page());
+		final int generation = mGeneration;
+		mSource.loadPage(pageIndex, new ScarlettRecyclerAdapter.PageCallback()
+		{
+			@Override
+			public void onPageLoaded(final List<?> items, final int typeCode)
+			{
+				final Object[] loaded = items.toArray();
+				Helpers.getMainHandler().post(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						if(generation != mGeneration){return;}
+						storePage(pageIndex, loaded, typeCode);
+					}
+				});
+			}
+		});
+	}
+
+	private void storePage(int pageIndex, Object[] loaded, int typeCode)
+	{
+		int start = pageIndex * mPageSize;
+		int count = Math.min(mPageSize, mCount - start);
+		if(count <= 0){return;}
+		Page page = mPages.get(pageIndex);
+		if(page == null)
+		{
+			page = new Page();
+			mPages.put(pageIndex, page);
+		}
+		page.items = new Object[count];
+		page.types = new int[count];
+		System.arraycopy(loaded, 0, page.items, 0, Math.min(count, loaded.length));
+		for(int c = 0; c < count; c++)
+		{
+			page.types[c] = typeCode;
+		}
+		page.lastAccess = ++mAccessClock;
+		evict(pageIndex);
+		mListener.onPageLoaded(start, count);
+	}
+
+	private void evict(int keepPage)
+	{
+		while(loadedPageCount() > mMaxPages)
+		{
+			int victim = -1;
+			int victimDistance = -1;
+			long victimAccess = Long.MAX_VALUE;
+			for(int c = 0; c < mPages.size(); c++)
+			{
+				int pageIndex = mPages.keyAt(c);
+				Page page = mPages.valueAt(c);
+				if(page.items == null || pageIndex == keepPage || mPins.get(pageIndex) > 0){continue;}
+				int distance = Math.abs(pageIndex - mLastPage);
+				if(distance > victimDistance || (distance == victimDistance && page.lastAccess < victimAccess))
+				{
+					victim = pageIndex;
+					victimDistance = distance;
+					victimAccess = page.lastAccess;
+				}
+			}
+			if(victim < 0){return;}
+			mPages.remove(victim);
+			int start = victim * mPageSize;
+			mListener.onPageEvicted(start, Math.min(mPageSize, mCount - start));
+		}
+	}
+
+	private int loadedPageCount()
+	{
+		int count = 0;
+		for(int c = 0; c < mPages.size(); c++)
+		{
+			if(mPages.valueAt(c).items != null){count++;}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,189 @@
+package net.scarlettsystems.android.widget;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stable sort of large arrays split across the background executor.
+ *
+ * The array is divided into one run per core. Runs are sorted in parallel and then merged in
+ * parallel pairwise rounds. The calling thread takes part, and sorts or merges itself any run
+ * the executor has not started yet, so it never waits behind other work queued on the
+ * executor. Small arrays are sorted on the calling thread.
+ */
+class ParallelSort
+{
+	private static final int MIN_PARALLEL_LENGTH = 8192;
+	private static final int MIN_RUN_LENGTH = 2048;
+
+	static <T> void sort(T[] array, Comparator<? super T> comparator)
+	{
+		sort(array, comparator, Helpers.getBackgroundExecutor(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Sort {@code array} in up to {@code parallelism} runs, offering them to {@code executor}.
+	 */
+	static <T> void sort(T[] array, Comparator<? super T> comparator, Executor executor, int parallelism)
+	{
+		int length = array.length;
+		int runs = Math.min(parallelism, length / MIN_RUN_LENGTH);
+		if(length < MIN_PARALLEL_LENGTH || runs < 2)
+		{
+			Arrays.sort(array, comparator);
+			return;
+		}
+		int[] bounds = new int[runs + 1];
+		for(int c = 0; c <= runs; c++)
+		{
+			bounds[c] = (int)((long)length * c / runs);
+		}
+		sortRuns(array, bounds, comparator, executor);
+		mergeRuns(array, bounds, comparator, executor);
+	}
+
+	private static <T> void sortRuns(final T[] array, int[] bounds, final Comparator<? super T> comparator,
+									 Executor executor)
+	{
+		Runnable[] tasks = new Runnable[bounds.length - 1];
+		for(int c = 0; c < tasks.length; c++)
+		{
+			final int from = bounds[c];
+			final int to = bounds[c + 1];
+			tasks[c] = new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					Arrays.sort(array, from, to, comparator);
+				}
+			};
+		}
+		runAll(tasks, executor);
+	}
+
+	private static <T> void mergeRuns(T[] array, int[] bounds, final Comparator<? super T> comparator,
+									  Executor executor)
+	{
+		Object[] source = array;
+		Object[] target = new Object[array.length];
+		while(bounds.length > 2)
+		{
+			int pairs = (bounds.length - 1) / 2;
+			int[] merged = new int[(bounds.length - 1 + 1) / 2 + 1];
+			Runnable[] tasks = new Runnable[pairs];
+			for(int c = 0; c < pairs; c++)
+			{
+				final Object[] from = source;
+				final Object[] to = target;
+				final int start = bounds[2 * c];
+				final int middle = bounds[2 * c + 1];
+				final int end = bounds[2 * c + 2];
+				merged[c] = start;
+				tasks[c] = new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						merge(from, to, start, middle, end, comparator);
+					}
+				};
+			}
+			//An odd run out is carried into the next round unchanged
+			if((bounds.length - 1) % 2 == 1)
+			{
+				int start = bounds[bounds.length - 2];
+				System.arraycopy(source, start, target, start, array.length - start);
+				merged[pairs] = start;
+			}
+			merged[merged.length - 1] = array.length;
+			runAll(tasks, executor);
+			bounds = merged;
+			Object[] swap = source;
+			source = target;
+			target = swap;
+		}
+		if(source != array)
+		{
+			System.arraycopy(source, 0, array, 0, array.length);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void merge(Object[] from, Object[] to, int start, int middle, int end,
+								  Comparator<? super T> comparator)
+	{
+		int left = start, right = middle, out = start;
+		while(left < middle && right < end)
+		{
+			//Taking from the left run on ties keeps the sort stable
+			if(comparator.compare((T)from[right], (T)from[left]) < 0)
+			{
+				to[out++] = from[right++];
+			}
+			else
+			{
+				to[out++] = from[left++];
+			}
+		}
+		System.arraycopy(from, left, to, out, middle - left);
+		System.arraycopy(from, right, to, out + middle - left, end - right);
+	}
+
+	/**
+	 * Run {@code tasks} on the calling thread, offering them to {@code executor} as well. Each
+	 * task is claimed by whichever thread reaches it first, so once the calling thread runs out
+	 * of tasks to claim, it waits only for those already running elsewhere.
+	 */
+	private static void runAll(final Runnable[] tasks, Executor executor)
+	{
+		final AtomicInteger next = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(tasks.length);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		Runnable worker = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for(int c = next.getAndIncrement(); c < tasks.length; c = next.getAndIncrement())
+				{
+					try
+					{
+						tasks[c].run();
+					}
+					catch(Throwable t)
+					{
+						failure.compareAndSet(null, t);
+					}
+					finally
+					{
+						done.countDown();
+					}
+				}
+			}
+		};
+		//Workers started after every task was claimed return at once
+		for(int c = 1; c < tasks.length; c++)
+		{
+			executor.execute(worker);
+		}
+		worker.run();
+		try
+		{
+			done.await();
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while sorting.", e);
+		}
+		Throwable cause = failure.get();
+		if(cause instanceof RuntimeException){throw (RuntimeException)cause;}
+		if(cause instanceof Error){throw (Error)cause;}
+		if(cause != null){throw new IllegalStateException(cause);}
+	}
+}
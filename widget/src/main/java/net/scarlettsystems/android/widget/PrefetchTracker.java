@@ -0,0 +1,189 @@
+package net.scarlettsystems.android.widget;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * Tracks the items about to scroll into view and reports them to a listener.
+ *
+ * Scrolling only records the direction of travel. The positions beyond the viewport are worked
+ * out when the main thread next goes idle, from the children laid out by then, so that the
+ * frames of a fling are coalesced into one report and reports never delay a frame. Positions
+ * already reported are remembered until the dataset changes, so each item is reported once as
+ * it approaches, however many frames it takes to arrive. Positions whose items change are
+ * forgotten, so that placeholders reported before their page loaded are reported again once
+ * their items arrive.
+ */
+class PrefetchTracker extends RecyclerView.AdapterDataObserver
+{
+	interface Listener
+	{
+		void onPrefetch(int[] positions, int direction);
+	}
+
+	private final RecyclerView mRecyclerView;
+	private final ScarlettRecyclerAdapter mAdapter;
+	private final int mCount;
+	private final Listener mListener;
+
+	//+1 when last scrolled south or east, -1 when last scrolled north or west, 0 before any scroll
+	private int mSign = 0;
+	private boolean mScheduled = false;
+	private boolean mReleased = false;
+
+	//Inclusive range of positions already reported
+	private int mReportedFrom = 0;
+	private int mReportedTo = -1;
+
+	private final MessageQueue.IdleHandler mIdleHandler = new MessageQueue.IdleHandler()
+	{
+		@Override
+		public boolean queueIdle()
+		{
+			mScheduled = false;
+			if(!mReleased){dispatch();}
+			return false;
+		}
+	};
+
+	PrefetchTracker(RecyclerView recyclerView, ScarlettRecyclerAdapter adapter, int count, Listener listener)
+	{
+		mRecyclerView = recyclerView;
+		mAdapter = adapter;
+		mCount = count;
+		mListener = listener;
+		mAdapter.registerAdapterDataObserver(this);
+	}
+
+	void release()
+	{
+		mReleased = true;
+		mAdapter.unregisterAdapterDataObserver(this);
+		if(mScheduled)
+		{
+			Looper.myQueue().removeIdleHandler(mIdleHandler);
+			mScheduled = false;
+		}
+	}
+
+	void onScrolled(int dx, int dy)
+	{
+		RecyclerView.LayoutManager lm = mRecyclerView.getLayoutManager();
+		if(lm == null){return;}
+		int delta = lm.canScrollVertically() ? dy : dx;
+		if(delta != 0){mSign = delta > 0 ? 1 : -1;}
+		if(mScheduled){return;}
+		mScheduled = true;
+		Looper.myQueue().addIdleHandler(mIdleHandler);
+	}
+
+	@Override
+	public void onChanged()
+	{
+		reset();
+	}
+
+	@Override
+	public void onItemRangeChanged(int positionStart, int itemCount)
+	{
+		//Forget the changed positions, keeping the longer part of the range when they split it
+		int end = positionStart + itemCount - 1;
+		if(end < mReportedFrom || positionStart > mReportedTo){return;}
+		int before = positionStart - mReportedFrom;
+		int after = mReportedTo - end;
+		if(before <= 0 && after <= 0)
+		{
+			reset();
+		}
+		else if(before >= after)
+		{
+			mReportedTo = positionStart - 1;
+		}
+		else
+		{
+			mReportedFrom = end + 1;
+		}
+	}
+
+	@Override
+	public void onItemRangeInserted(int positionStart, int itemCount)
+	{
+		reset();
+	}
+
+	@Override
+	public void onItemRangeRemoved(int positionStart, int itemCount)
+	{
+		reset();
+	}
+
+	@Override
+	public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount)
+	{
+		reset();
+	}
+
+	private void reset()
+	{
+		mReportedFrom = 0;
+		mReportedTo = -1;
+	}
+
+	private void dispatch()
+	{
+		RecyclerView.LayoutManager lm = mRecyclerView.getLayoutManager();
+		int children = mRecyclerView.getChildCount();
+		int itemCount = mAdapter.getItemCountProtected();
+		if(lm == null || children == 0 || itemCount == 0){return;}
+		boolean vertical = lm.canScrollVertically();
+		View minView = null, maxView = null;
+		int min = Integer.MAX_VALUE, max = -1;
+		for(int c = 0; c < children; c++)
+		{
+			View child = mRecyclerView.getChildAt(c);
+			int position = mRecyclerView.getChildAdapterPosition(child);
+			if(position == RecyclerView.NO_POSITION || position >= itemCount){continue;}
+			if(position < min){min = position; minView = child;}
+			if(position > max){max = position; maxView = child;}
+		}
+		if(minView == null){return;}
+		//Whether later positions lie south or east, which reversed and RTL layouts invert
+		boolean forward = minView == maxView
+				|| (vertical ? maxView.getTop() > minView.getTop() : maxView.getLeft() > minView.getLeft());
+		boolean towardMax = mSign == 0 || (mSign > 0) == forward;
+		int direction = towardMax == forward
+				? (vertical ? EasyRecyclerView.SOUTH : EasyRecyclerView.EAST)
+				: (vertical ? EasyRecyclerView.NORTH : EasyRecyclerView.WEST);
+		int from = towardMax ? max + 1 : Math.max(0, min - mCount);
+		int to = towardMax ? Math.min(itemCount - 1, max + mCount) : min - 1;
+		if(from > to){return;}
+		int[] positions = new int[to - from + 1];
+		int size = 0;
+		//Nearest positions first
+		for(int c = 0; c <= to - from; c++)
+		{
+			int position = towardMax ? from + c : to - c;
+			if(position < mReportedFrom || position > mReportedTo){positions[size++] = position;}
+		}
+		if(from <= mReportedTo + 1 && to >= mReportedFrom - 1)
+		{
+			mReportedFrom = Math.min(mReportedFrom, from);
+			mReportedTo = Math.max(mReportedTo, to);
+		}
+		else
+		{
+			mReportedFrom = from;
+			mReportedTo = to;
+		}
+		if(size == 0){return;}
+		if(size < positions.length)
+		{
+			int[] trimmed = new int[size];
+			System.arraycopy(positions, 0, trimmed, 0, size);
+			positions = trimmed;
+		}
+		mListener.onPrefetch(positions, direction);
+	}
+}
@@ -55,6 +55,8 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 	private ArrayList<ViewHolder> mRemoveAnimations = new ArrayList<>();
 	private ArrayList<ViewHolder> mChangeAnimations = new ArrayList<>();
 
+	private LayerTracker mLayers = null;
+
 	@IntDef({EAST, NORTH, WEST, SOUTH})
 	@Retention(RetentionPolicy.SOURCE)
 	public @interface Direction
@@ -234,6 +236,30 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 		}
 	}
 
+	/**
+	 * Give item views hardware layers while they are animated, counted by {@code layers}.
+	 *
+	 * @param layers tracker of the layers, or null to animate without layers
+	 */
+	void setLayerTracker(LayerTracker layers)
+	{
+		if(mLayers != null && layers != mLayers)
+		{
+			mLayers.releaseAll(LayerTracker.SOURCE_ANIMATION);
+		}
+		mLayers = layers;
+	}
+
+	private void acquireLayer(View view)
+	{
+		if(mLayers != null){mLayers.acquire(view, LayerTracker.SOURCE_ANIMATION);}
+	}
+
+	private void releaseLayer(View view)
+	{
+		if(mLayers != null){mLayers.release(view, LayerTracker.SOURCE_ANIMATION);}
+	}
+
 	private int getFirstHolder(ArrayList<ViewHolder> additions)
 	{
 		int firstIndex = Integer.MAX_VALUE;
@@ -320,6 +346,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 					@Override
 					public void onAnimationStart(Animator animator)
 					{
+						acquireLayer(view);
 						dispatchRemoveStarting(holder);
 					}
 
@@ -327,6 +354,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 					public void onAnimationEnd(Animator animator)
 					{
 						animation.setListener(null);
+						releaseLayer(view);
 						/* View must be ready to be added again in case a removed view is added back
 						off screen */
 						view.setAlpha(1);
@@ -363,6 +391,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 					@Override
 					public void onAnimationStart(Animator animator)
 					{
+						acquireLayer(view);
 						dispatchAddStarting(holder);
 					}
 
@@ -378,6 +407,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 					public void onAnimationEnd(Animator animator)
 					{
 						animation.setListener(null);
+						releaseLayer(view);
 						dispatchAddFinished(holder);
 						mAddAnimations.remove(holder);
 						dispatchFinishedWhenDone();
@@ -435,6 +465,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 			@Override
 			public void onAnimationStart(Animator animator)
 			{
+				acquireLayer(view);
 				dispatchMoveStarting(holder);
 			}
 
@@ -455,6 +486,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 			public void onAnimationEnd(Animator animator)
 			{
 				animation.setListener(null);
+				releaseLayer(view);
 				dispatchMoveFinished(holder);
 				mMoveAnimations.remove(holder);
 				dispatchFinishedWhenDone();
@@ -512,6 +544,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 				@Override
 				public void onAnimationStart(Animator animator)
 				{
+					acquireLayer(view);
 					dispatchChangeStarting(changeInfo.oldHolder, true);
 				}
 
@@ -519,6 +552,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 				public void onAnimationEnd(Animator animator)
 				{
 					oldViewAnim.setListener(null);
+					releaseLayer(view);
 					view.setAlpha(1);
 					view.setTranslationX(0);
 					view.setTranslationY(0);
@@ -538,6 +572,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 				@Override
 				public void onAnimationStart(Animator animator)
 				{
+					acquireLayer(newView);
 					dispatchChangeStarting(changeInfo.newHolder, false);
 				}
 
@@ -545,6 +580,7 @@ public class ScarlettItemAnimator extends SimpleItemAnimator
 				public void onAnimationEnd(Animator animator)
 				{
 					newViewAnimation.setListener(null);
+					releaseLayer(newView);
 					newView.setAlpha(1);
 					newView.setTranslationX(0);
 					newView.setTranslationY(0);
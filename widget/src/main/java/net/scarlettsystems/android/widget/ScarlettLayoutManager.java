@@ -2,10 +2,17 @@ package net.scarlettsystems.android.widget;
 
 import android.content.Context;
 import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
+import android.view.View;
 
 public class ScarlettLayoutManager extends LinearLayoutManager
 {
+	private SizeCache mSizeCache = null;
+	private RecyclerView.Adapter mObservedAdapter = null;
+	private boolean mSizeCacheEnabled = false;
+	private int mCachedCrossExtent = -1;
+
 	public ScarlettLayoutManager(Context context)
 	{
 		super(context);
@@ -26,4 +33,207 @@ public class ScarlettLayoutManager extends LinearLayoutManager
 	{
 		return false;
 	}
+
+	/**
+	 * Set whether the extents of items are remembered once measured, and used to compute the
+	 * scroll range and offset. Without it, both are estimated from the items in view, so the
+	 * scrollbar jumps as items of different sizes scroll in. Items never measured count as the
+	 * average measured item. Disabled by default.
+	 *
+	 * @param enabled true to cache item extents
+	 */
+	public void setSizeCacheEnabled(boolean enabled)
+	{
+		mSizeCacheEnabled = enabled;
+		observe(mObservedAdapter);
+	}
+
+	/**
+	 * Get whether the extents of items are cached.
+	 *
+	 * @return true if item extents are cached
+	 * @see #setSizeCacheEnabled(boolean)
+	 */
+	public boolean isSizeCacheEnabled()
+	{
+		return mSizeCacheEnabled;
+	}
+
+	@Override
+	public void onAttachedToWindow(RecyclerView view)
+	{
+		super.onAttachedToWindow(view);
+		observe(view.getAdapter());
+	}
+
+	@Override
+	public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler)
+	{
+		super.onDetachedFromWindow(view, recycler);
+		unobserve();
+	}
+
+	@Override
+	public void onAdapterChanged(RecyclerView.Adapter oldAdapter, RecyclerView.Adapter newAdapter)
+	{
+		super.onAdapterChanged(oldAdapter, newAdapter);
+		observe(newAdapter);
+	}
+
+	@Override
+	public void onLayoutCompleted(RecyclerView.State state)
+	{
+		super.onLayoutCompleted(state);
+		recordExtents();
+	}
+
+	@Override
+	public int scrollVerticallyBy(int dy, RecyclerView.Recycler recycler, RecyclerView.State state)
+	{
+		int scrolled = super.scrollVerticallyBy(dy, recycler, state);
+		recordExtents();
+		return scrolled;
+	}
+
+	@Override
+	public int scrollHorizontallyBy(int dx, RecyclerView.Recycler recycler, RecyclerView.State state)
+	{
+		int scrolled = super.scrollHorizontallyBy(dx, recycler, state);
+		recordExtents();
+		return scrolled;
+	}
+
+	@Override
+	public int computeVerticalScrollOffset(RecyclerView.State state)
+	{
+		return canUseSizeCache(true) ? computeCachedScrollOffset() : super.computeVerticalScrollOffset(state);
+	}
+
+	@Override
+	public int computeVerticalScrollExtent(RecyclerView.State state)
+	{
+		return canUseSizeCache(true) ? getHeight() : super.computeVerticalScrollExtent(state);
+	}
+
+	@Override
+	public int computeVerticalScrollRange(RecyclerView.State state)
+	{
+		return canUseSizeCache(true) ? computeCachedScrollRange() : super.computeVerticalScrollRange(state);
+	}
+
+	@Override
+	public int computeHorizontalScrollOffset(RecyclerView.State state)
+	{
+		return canUseSizeCache(false) ? computeCachedScrollOffset() : super.computeHorizontalScrollOffset(state);
+	}
+
+	@Override
+	public int computeHorizontalScrollExtent(RecyclerView.State state)
+	{
+		return canUseSizeCache(false) ? getWidth() : super.computeHorizontalScrollExtent(state);
+	}
+
+	@Override
+	public int computeHorizontalScrollRange(RecyclerView.State state)
+	{
+		return canUseSizeCache(false) ? computeCachedScrollRange() : super.computeHorizontalScrollRange(state);
+	}
+
+	private void observe(RecyclerView.Adapter adapter)
+	{
+		unobserve();
+		mObservedAdapter = adapter;
+		if(mSizeCacheEnabled && adapter != null)
+		{
+			mSizeCache = new SizeCache(adapter);
+			adapter.registerAdapterDataObserver(mSizeCache);
+		}
+	}
+
+	private void unobserve()
+	{
+		if(mSizeCache != null)
+		{
+			mObservedAdapter.unregisterAdapterDataObserver(mSizeCache);
+			mSizeCache = null;
+		}
+		mObservedAdapter = null;
+	}
+
+	private void recordExtents()
+	{
+		if(mSizeCache == null){return;}
+		boolean vertical = getOrientation() == VERTICAL;
+		int cross = vertical ? getWidth() : getHeight();
+		if(cross != mCachedCrossExtent)
+		{
+			//Items may wrap differently at another width
+			mSizeCache.clear();
+			mCachedCrossExtent = cross;
+		}
+		for(int c = 0; c < getChildCount(); c++)
+		{
+			View child = getChildAt(c);
+			RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams)child.getLayoutParams();
+			int position = lp.getViewAdapterPosition();
+			if(lp.isItemRemoved() || position == RecyclerView.NO_POSITION){continue;}
+			mSizeCache.put(position, vertical
+					? getDecoratedMeasuredHeight(child) + lp.topMargin + lp.bottomMargin
+					: getDecoratedMeasuredWidth(child) + lp.leftMargin + lp.rightMargin);
+		}
+	}
+
+	private boolean canUseSizeCache(boolean vertical)
+	{
+		return mSizeCache != null
+				&& (getOrientation() == VERTICAL) == vertical
+				&& getChildCount() > 0
+				&& !mSizeCache.isEmpty();
+	}
+
+	private int computeCachedScrollRange()
+	{
+		boolean vertical = getOrientation() == VERTICAL;
+		int padding = vertical ? getPaddingTop() + getPaddingBottom() : getPaddingLeft() + getPaddingRight();
+		return (int)Math.min(Integer.MAX_VALUE, mSizeCache.getTotal() + padding);
+	}
+
+	private int computeCachedScrollOffset()
+	{
+		boolean vertical = getOrientation() == VERTICAL;
+		//Find the first item in adapter order, and where it starts or, if reversed, ends
+		View first = null;
+		int firstPosition = Integer.MAX_VALUE;
+		for(int c = 0; c < getChildCount(); c++)
+		{
+			View child = getChildAt(c);
+			RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams)child.getLayoutParams();
+			int position = lp.getViewAdapterPosition();
+			if(lp.isItemRemoved() || position == RecyclerView.NO_POSITION){continue;}
+			if(position < firstPosition)
+			{
+				first = child;
+				firstPosition = position;
+			}
+		}
+		if(first == null){return 0;}
+		RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams)first.getLayoutParams();
+		int size = vertical ? getHeight() : getWidth();
+		int range = computeCachedScrollRange();
+		long before = mSizeCache.getOffset(firstPosition);
+		long offset;
+		if(getReverseLayout() ^ (!vertical && isLayoutRTL()))
+		{
+			int end = vertical ? getDecoratedBottom(first) + lp.bottomMargin : getDecoratedRight(first) + lp.rightMargin;
+			int paddingEnd = vertical ? getPaddingBottom() : getPaddingRight();
+			offset = range - size - (paddingEnd + before - (size - end));
+		}
+		else
+		{
+			int start = vertical ? getDecoratedTop(first) - lp.topMargin : getDecoratedLeft(first) - lp.leftMargin;
+			int paddingStart = vertical ? getPaddingTop() : getPaddingLeft();
+			offset = paddingStart + before - start;
+		}
+		return (int)Math.max(0, Math.min(offset, range - size));
+	}
 }
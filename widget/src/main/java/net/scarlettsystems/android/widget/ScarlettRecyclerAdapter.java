@@ -4,11 +4,21 @@ import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
 import android.graphics.PorterDuff;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.support.v7.util.AdapterListUpdateCallback;
+import android.support.v7.util.BatchingListUpdateCallback;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.StaggeredGridLayoutManager;
 import android.util.Log;
 import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -16,20 +26,36 @@ import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 import android.widget.ProgressBar;
 import android.widget.RelativeLayout;
+import android.widget.TextView;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
 
 class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 {
 	private int mOrientation = EasyRecyclerView.VERTICAL;
 
 	private boolean mAnimationEnabled = true;
-	private ArrayList<Object> mDataset = new ArrayList<>();
-	private ArrayList<Integer> mTypeset = new ArrayList<>();
+	private ItemStore mItems = new ItemStore();
+	private PageCache mPages = null;
+	//Page each bound holder pins in the page cache
+	private final IdentityHashMap<RecyclerView.ViewHolder, Integer> mPinnedPages = new IdentityHashMap<>();
+	private FilteredView mFiltered = null;
+	private SectionIndex mSections = null;
+	private TextPrefetcher mTextPrefetcher = null;
+	private Comparator<Object> mComparator = null;
 	private OnItemClickListener mItemClickListener = null;
 	private OnItemLongClickListener mItemLongClickListener = null;
 	private SparseArray<ItemViewListener> mItemViewListeners = new SparseArray<>();
+	private SparseIntArray mLayoutResources = new SparseIntArray();
+	private SparseIntArray mPoolCapacities = new SparseIntArray();
 	private ItemViewListener mErrorListener;
+	private View mPreinflatedView = null;
+	private ItemTimingRecorder mTimings = null;
+	private ClassTypeRegistry mClassTypes = new ClassTypeRegistry();
 	private RecyclerView mRecyclerView;
 	private LoaderHolder mLoaderHolder;
 	private EmptyPromptHolder mEmptyPromptHolder;
@@ -38,18 +64,34 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 	private Interpolator mLoaderShowInterpolator = new LinearInterpolator();
 	private Interpolator mLoaderHideInterpolator = new LinearInterpolator();
 
+	private volatile int mSubmitGeneration = 0;
+	private int mRestoreModCount = 0;
+
+	private ListUpdateCallback mUpdateCallback = new AdapterListUpdateCallback(this);
+	private BatchingListUpdateCallback mBatchCallback = null;
+	private int mBatchDepth = 0;
+
 	private int mDuration;
+	private int mPlaceholderLayout = 0;
 	private int mLoaderSize = 100;
 	private int[] mLoaderPadding = {0, 0, 0, 0};
 
 	private static final int TYPE_LOADER = -1;
 	private static final int TYPE_EMPTY_PROMPT = -2;
+	private static final int TYPE_PLACEHOLDER = -3;
+
+	private static final int DEFAULT_POOL_CAPACITY = 5;
+	//Layout inflations queued at once when preinflating
+	private static final int MAX_QUEUED_INFLATIONS = 3;
+
+	private static final long ID_LOADER = Long.MIN_VALUE;
+	private static final long ID_EMPTY_PROMPT = Long.MIN_VALUE + 1;
+	//Placeholders of keyed paged items take ids from here up, below any permitted item key
+	private static final long ID_PLACEHOLDER = Long.MIN_VALUE + 2;
 
 	ScarlettRecyclerAdapter()
 	{
 		setHasStableIds(true);
-		mDataset.add(new LoaderObject());
-		mDataset.add(new EmptyPromptObject());
 		mErrorListener = new ItemViewListener()
 		{
 			@Override
@@ -74,7 +116,7 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 
 	//Holder Classes
 
-	private abstract class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener, View.OnLongClickListener
+	private static abstract class ViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener, View.OnLongClickListener
 	{
 		ViewHolder(@NonNull View itemView)
 		{
@@ -82,39 +124,52 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 		}
 	}
 
-	private class ItemHolder extends ViewHolder
+	/**
+	 * Holder for user item views. Holders do not belong to the adapter that created them, so
+	 * they can be shared between adapters through a common RecycledViewPool; the adapter that
+	 * last bound a holder receives its clicks.
+	 */
+	private static class ItemHolder extends ViewHolder
 	{
+		private ScarlettRecyclerAdapter mOwner;
 		private View mView;
 		private Object mItem;
-		private SparseArray<View> mChildViewCache = new SparseArray<>();
+		private SparseArray<View> mChildViewCache = null;
+		private BindingPlan mPlan = null;
+		private ItemViews mViews = null;
+		private BindingPlan mTextPlan = null;
+		private View[] mTextViews = null;
 
-		ItemHolder(View view)
+		ItemHolder(ScarlettRecyclerAdapter owner, View view)
 		{
 			super(view);
+			mOwner = owner;
 			mView = view;
 			view.setOnClickListener(this);
 			view.setOnLongClickListener(this);
-			cacheChildren(mView);
 		}
 
 		@Override
 		public void onClick(View v)
 		{
-			if(mItemClickListener == null){return;}
-			mItemClickListener.OnItemClick(v, mItem);
+			if(mOwner.mItemClickListener == null){return;}
+			mOwner.mItemClickListener.OnItemClick(v, mItem);
 		}
 
 		@Override
 		public boolean onLongClick(View v)
 		{
-			if(mItemLongClickListener == null){return false;}
-			mItemLongClickListener.OnItemLongClick(v, mItem);
+			if(mOwner.mItemLongClickListener == null){return false;}
+			mOwner.mItemLongClickListener.OnItemLongClick(v, mItem);
 			return true;
 		}
 
 		void cacheChildren(View view)
 		{
-			mChildViewCache.append(view.getId(), view);
+			if(view.getId() != View.NO_ID)
+			{
+				mChildViewCache.put(view.getId(), view);
+			}
 			if(view instanceof ViewGroup)
 			{
 				for(int c = 0; c < ((ViewGroup) view).getChildCount(); c++)
@@ -129,6 +184,11 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 			this.mItem = item;
 		}
 
+		void setOwner(ScarlettRecyclerAdapter owner)
+		{
+			mOwner = owner;
+		}
+
 		Object getItem()
 		{
 			return mItem;
@@ -139,10 +199,49 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 			return mView;
 		}
 
+		/**
+		 * Get the id cache of the whole item view hierarchy, built on first use for binders that
+		 * do not declare their views.
+		 */
 		SparseArray<View> getViewCache()
 		{
+			if(mChildViewCache == null)
+			{
+				mChildViewCache = new SparseArray<>();
+				cacheChildren(mView);
+			}
 			return mChildViewCache;
 		}
+
+		/**
+		 * Get the views declared by {@code plan}, resolving them if this holder was last used
+		 * with a different plan.
+		 */
+		ItemViews getViews(BindingPlan plan)
+		{
+			if(mPlan != plan)
+			{
+				mViews = new ItemViews(plan.size());
+				plan.resolve(mView, mViews.getArray());
+				mPlan = plan;
+			}
+			return mViews;
+		}
+
+		/**
+		 * Get the TextViews of the text fields located by {@code plan}, resolving them if this
+		 * holder was last used with a different plan.
+		 */
+		View[] getTextViews(BindingPlan plan)
+		{
+			if(mTextPlan != plan)
+			{
+				mTextViews = new View[plan.size()];
+				plan.resolve(mView, mTextViews);
+				mTextPlan = plan;
+			}
+			return mTextViews;
+		}
 	}
 
 	private class EmptyPromptHolder extends ViewHolder
@@ -221,6 +320,23 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 		}
 	}
 
+	private class PlaceholderHolder extends ViewHolder
+	{
+		PlaceholderHolder(View itemView)
+		{
+			super(itemView);
+		}
+
+		@Override
+		public void onClick(View view){}
+
+		@Override
+		public boolean onLongClick(View view)
+		{
+			return false;
+		}
+	}
+
 	private class LoaderHolder extends ViewHolder
 	{
 		private RelativeLayout loaderContainer;
@@ -378,32 +494,89 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 		}
 	}
 
-	private class LoaderObject
+	//Interfaces
+
+	public interface OnItemClickListener
 	{
+		void OnItemClick(View v, Object object);
+	}
 
+	public interface OnItemLongClickListener
+	{
+		void OnItemLongClick(View v, Object object);
 	}
 
-	private class EmptyPromptObject
+	public static abstract class ItemViewListener
 	{
+		public abstract View OnCreateItemView(ViewGroup parent);
+
+		public void OnBindItemView(View v, SparseArray<View> cache, Object item){}
+
+		public void OnBindItemView(View v, ItemViews views, Object item){}
+
+		/**
+		 * Bind a change described by {@code payloads}. Rebinds the whole item view unless
+		 * overridden.
+		 */
+		public void OnBindItemView(View v, SparseArray<View> cache, Object item, List<Object> payloads)
+		{
+			OnBindItemView(v, cache, item);
+		}
+
+		/**
+		 * Bind a change described by {@code payloads}. Rebinds the whole item view unless
+		 * overridden.
+		 */
+		public void OnBindItemView(View v, ItemViews views, Object item, List<Object> payloads)
+		{
+			OnBindItemView(v, views, item);
+		}
 
+		/**
+		 * Get the plan locating the views this listener binds, or null to bind through the id
+		 * cache of the whole item view.
+		 */
+		BindingPlan getBindingPlan()
+		{
+			return null;
+		}
 	}
 
-	//Interfaces
+	public interface TypeResolver
+	{
+		int getTypeCode(Object item);
+	}
 
-	public interface OnItemClickListener
+	public interface ItemKeyProvider
 	{
-		void OnItemClick(View v, Object object);
+		long getKey(Object item);
 	}
 
-	public interface OnItemLongClickListener
+	public interface ItemFilter
 	{
-		void OnItemLongClick(View v, Object object);
+		boolean matches(Object item);
+	}
+
+	public interface SectionResolver
+	{
+		Object getSection(Object item);
 	}
 
-	public interface ItemViewListener
+	public interface TextProvider
 	{
-		View OnCreateItemView(ViewGroup parent);
-		void OnBindItemView(View v, SparseArray<View> cache, Object item);
+		CharSequence getText(Object item);
+	}
+
+	public interface PagedSource
+	{
+		int getItemCount();
+		int getPageSize();
+		void loadPage(int pageIndex, PageCallback callback);
+	}
+
+	public interface PageCallback
+	{
+		void onPageLoaded(List<?> items, int typeCode);
 	}
 
 	//Callback Methods
@@ -442,16 +615,35 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 		{
 			return mEmptyPromptHolder;
 		}
+		else if(viewType == TYPE_PLACEHOLDER)
+		{
+			return new PlaceholderHolder(createPlaceholderView(parent));
+		}
 		else if(viewType >= 0)
 		{
-			View view = mItemViewListeners
-					.get(viewType, mErrorListener)
-					.OnCreateItemView(parent);
+			View view = mPreinflatedView;
+			if(view == null)
+			{
+				long start = mTimings != null ? System.nanoTime() : 0;
+				view = mItemViewListeners
+						.get(viewType, mErrorListener)
+						.OnCreateItemView(parent);
+				if(mTimings != null)
+				{
+					mTimings.record(viewType, EasyRecyclerView.PHASE_CREATE, System.nanoTime() - start);
+				}
+			}
 			if(view == null)
 			{
 				throw new IllegalArgumentException("OnCreateItemView must return a view.");
 			}
-			return new ItemHolder(view);
+			ItemHolder holder = new ItemHolder(this, view);
+			BindingPlan plan = mItemViewListeners.get(viewType, mErrorListener).getBindingPlan();
+			if(plan != null)
+			{
+				holder.getViews(plan);
+			}
+			return holder;
 		}
 		else
 		{
@@ -463,14 +655,113 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 	@Override
 	public void onBindViewHolder(@NonNull RecyclerView.ViewHolder vh, int position)
 	{
+		if(mPages != null)
+		{
+			unpinPage(vh);
+			if(position < mPages.size())
+			{
+				mPages.onPositionBound(position);
+				mPinnedPages.put(vh, mPages.pin(position));
+			}
+		}
 		if(vh instanceof ItemHolder)
 		{
 			ItemHolder h = (ItemHolder)vh;
-			h.setItem(mDataset.get(position));
-			mItemViewListeners
-					.get(mTypeset.get(position), mErrorListener)
-					.OnBindItemView(h.getView(), h.getViewCache(), h.getItem());
+			h.setOwner(this);
+			h.setItem(itemAt(position));
+			int typeCode = typeAt(position);
+			long start = mTimings != null ? System.nanoTime() : 0;
+			ItemViewListener listener = mItemViewListeners.get(typeCode, mErrorListener);
+			BindingPlan plan = listener.getBindingPlan();
+			if(plan != null)
+			{
+				listener.OnBindItemView(h.getView(), h.getViews(plan), h.getItem());
+			}
+			else
+			{
+				listener.OnBindItemView(h.getView(), h.getViewCache(), h.getItem());
+			}
+			bindText(h, position, typeCode);
+			if(mTimings != null)
+			{
+				mTimings.record(typeCode, EasyRecyclerView.PHASE_BIND, System.nanoTime() - start);
+			}
+		}
+	}
+
+	@Override
+	public void onBindViewHolder(@NonNull RecyclerView.ViewHolder vh, int position, @NonNull List<Object> payloads)
+	{
+		if(payloads.isEmpty() || !(vh instanceof ItemHolder))
+		{
+			onBindViewHolder(vh, position);
+			return;
 		}
+		ItemHolder h = (ItemHolder)vh;
+		h.setOwner(this);
+		h.setItem(itemAt(position));
+		int typeCode = typeAt(position);
+		long start = mTimings != null ? System.nanoTime() : 0;
+		ItemViewListener listener = mItemViewListeners.get(typeCode, mErrorListener);
+		BindingPlan plan = listener.getBindingPlan();
+		if(plan != null)
+		{
+			listener.OnBindItemView(h.getView(), h.getViews(plan), h.getItem(), payloads);
+		}
+		else
+		{
+			listener.OnBindItemView(h.getView(), h.getViewCache(), h.getItem(), payloads);
+		}
+		bindText(h, position, typeCode);
+		if(mTimings != null)
+		{
+			mTimings.record(typeCode, EasyRecyclerView.PHASE_BIND, System.nanoTime() - start);
+		}
+	}
+
+	private void bindText(ItemHolder h, int position, int typeCode)
+	{
+		if(mTextPrefetcher == null){return;}
+		List<TextPrefetcher.Field> fields = mTextPrefetcher.getFields(typeCode);
+		if(fields == null){return;}
+		boolean keyed = mItems.getKeyProvider() != null;
+		long key = keyed ? getItemId(position) : 0;
+		View[] views = h.getTextViews(mTextPrefetcher.getPlan(typeCode));
+		for(int c = 0; c < views.length; c++)
+		{
+			if(views[c] instanceof TextView)
+			{
+				mTextPrefetcher.bind(fields.get(c), (TextView)views[c], h.getItem(), key, keyed);
+			}
+		}
+	}
+
+	private View createPlaceholderView(ViewGroup parent)
+	{
+		if(mPlaceholderLayout != 0)
+		{
+			return LayoutInflater
+					.from(parent.getContext())
+					.inflate(mPlaceholderLayout, parent, false);
+		}
+		View view = new View(parent.getContext());
+		int extent = Helpers.Dp2Pix(48, parent.getContext());
+		if(mOrientation == EasyRecyclerView.VERTICAL)
+			view.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, extent));
+		else
+			view.setLayoutParams(new ViewGroup.LayoutParams(extent, ViewGroup.LayoutParams.MATCH_PARENT));
+		return view;
+	}
+
+	private Object itemAt(int position)
+	{
+		return mPages != null ? mPages.get(position) : mItems.get(storeIndex(position));
+	}
+
+	private int typeAt(int position)
+	{
+		if(mPages == null){return mItems.getType(storeIndex(position));}
+		return mPages.isLoaded(position) ? mPages.getType(position) : TYPE_PLACEHOLDER;
 	}
 
 	//Getters & Setters
@@ -500,16 +791,176 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 	void addOnItemViewListener(ItemViewListener l, int typeCode)
 	{
 		mItemViewListeners.append(typeCode, l);
+		mLayoutResources.delete(typeCode);
+	}
+
+	void addOnItemViewListener(ItemViewListener l, int typeCode, @LayoutRes int resId)
+	{
+		mItemViewListeners.append(typeCode, l);
+		mLayoutResources.put(typeCode, resId);
 	}
 
 	void removeOnItemViewListener(int typeCode)
 	{
 		mItemViewListeners.remove(typeCode);
+		mLayoutResources.delete(typeCode);
 	}
 
 	void clearOnItemViewListeners()
 	{
 		mItemViewListeners.clear();
+		mLayoutResources.clear();
+	}
+
+	/**
+	 * Create {@code count} item views of type {@code typeCode} ahead of time and place their
+	 * holders in the recycled view pool. Types declared with a layout resource are inflated off
+	 * the main thread; other types are created on the main thread, one per idle pass of its
+	 * message queue. Must be called on the main thread.
+	 */
+	void preinflate(final int typeCode, final int count)
+	{
+		if(mRecyclerView == null || count <= 0){return;}
+		final ItemViewListener listener = mItemViewListeners.get(typeCode);
+		if(listener == null){return;}
+		int resId = mLayoutResources.get(typeCode);
+		if(resId != 0)
+		{
+			InflateChain chain = new InflateChain(typeCode, listener, resId, count);
+			for(int c = 0; c < Math.min(count, MAX_QUEUED_INFLATIONS); c++)
+			{
+				chain.queueNext();
+			}
+			return;
+		}
+		Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler()
+		{
+			private int mRemaining = count;
+
+			@Override
+			public boolean queueIdle()
+			{
+				if(mRecyclerView == null || mItemViewListeners.get(typeCode) != listener){return false;}
+				seedPool(typeCode, listener, listener.OnCreateItemView(mRecyclerView));
+				return --mRemaining > 0;
+			}
+		});
+	}
+
+	/**
+	 * Inflates views of one type off the main thread, a few at a time. The inflater's request
+	 * queue is small and blocks the main thread when full, so each finished inflation queues
+	 * the next rather than queueing them all at once.
+	 */
+	private class InflateChain implements AsyncLayoutInflater.OnInflateFinishedListener
+	{
+		private final AsyncLayoutInflater mInflater;
+		private final int mTypeCode;
+		private final ItemViewListener mListener;
+		private final int mLayout;
+		private int mUnqueued;
+
+		InflateChain(int typeCode, ItemViewListener listener, int layout, int count)
+		{
+			mInflater = new AsyncLayoutInflater(mRecyclerView.getContext());
+			mTypeCode = typeCode;
+			mListener = listener;
+			mLayout = layout;
+			mUnqueued = count;
+		}
+
+		void queueNext()
+		{
+			mUnqueued--;
+			mInflater.inflate(mLayout, mRecyclerView, this);
+		}
+
+		@Override
+		public void onInflateFinished(@NonNull View view, int resid, ViewGroup parent)
+		{
+			seedPool(mTypeCode, mListener, view);
+			//Stop once the type is reconfigured or the RecyclerView goes away
+			if(mUnqueued > 0 && mRecyclerView != null && mItemViewListeners.get(mTypeCode) == mListener)
+			{
+				queueNext();
+			}
+		}
+	}
+
+	//Timing
+
+	void setTimingEnabled(boolean enabled)
+	{
+		if(enabled == (mTimings != null)){return;}
+		mTimings = enabled ? new ItemTimingRecorder() : null;
+	}
+
+	ItemTimingRecorder getTimings()
+	{
+		return mTimings;
+	}
+
+	void setMaxRecycledViews(int typeCode, int max)
+	{
+		mPoolCapacities.put(typeCode, max);
+		if(mRecyclerView != null)
+		{
+			mRecyclerView.getRecycledViewPool().setMaxRecycledViews(typeCode, max);
+		}
+	}
+
+	/**
+	 * Prepare a RecycledViewPool that may be shared with other adapters. The loader and empty
+	 * prompt holders belong to this adapter and placeholders depend on its placeholder layout,
+	 * so none of them are kept in the pool; item holders are shared by type code.
+	 */
+	void onRecycledViewPoolChanged(RecyclerView.RecycledViewPool pool)
+	{
+		pool.setMaxRecycledViews(TYPE_LOADER, 0);
+		pool.setMaxRecycledViews(TYPE_EMPTY_PROMPT, 0);
+		pool.setMaxRecycledViews(TYPE_PLACEHOLDER, 0);
+		for(int c = 0; c < mPoolCapacities.size(); c++)
+		{
+			pool.setMaxRecycledViews(mPoolCapacities.keyAt(c), mPoolCapacities.valueAt(c));
+		}
+	}
+
+	/**
+	 * Discard the pooled holders of every item type that is not in {@code keep}, keeping the
+	 * capacity of each type.
+	 */
+	void trimPool(RecyclerView.RecycledViewPool pool, SparseBooleanArray keep)
+	{
+		for(int c = 0; c < mItemViewListeners.size(); c++)
+		{
+			int typeCode = mItemViewListeners.keyAt(c);
+			if(keep.get(typeCode) || pool.getRecycledViewCount(typeCode) == 0){continue;}
+			pool.setMaxRecycledViews(typeCode, 0);
+			pool.setMaxRecycledViews(typeCode, mPoolCapacities.get(typeCode, DEFAULT_POOL_CAPACITY));
+		}
+	}
+
+	private void seedPool(int typeCode, ItemViewListener listener, View view)
+	{
+		//Drop views whose type was reconfigured or whose RecyclerView went away while inflating
+		if(view == null || mRecyclerView == null || mItemViewListeners.get(typeCode) != listener){return;}
+		RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+		int capacity = mPoolCapacities.get(typeCode, DEFAULT_POOL_CAPACITY);
+		if(pool.getRecycledViewCount(typeCode) >= capacity)
+		{
+			capacity++;
+			mPoolCapacities.put(typeCode, capacity);
+			pool.setMaxRecycledViews(typeCode, capacity);
+		}
+		mPreinflatedView = view;
+		try
+		{
+			pool.putRecycledView(createViewHolder(mRecyclerView, typeCode));
+		}
+		finally
+		{
+			mPreinflatedView = null;
+		}
 	}
 
 	void setAnimationDuration(int value)
@@ -528,52 +979,95 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 		{
 			throw new IndexOutOfBoundsException();
 		}
-		return mDataset.get(index);
+		return itemAt(index);
 	}
 
 	ArrayList<Object> getItems(int startIndex, int count)
 	{
-		return new ArrayList<>(mDataset.subList(startIndex, startIndex + count));
+		if(mPages == null && mFiltered == null){return mItems.toList(startIndex, count);}
+		ArrayList<Object> list = new ArrayList<>(count);
+		for(int c = startIndex; c < startIndex + count; c++)
+		{
+			list.add(itemAt(c));
+		}
+		return list;
 	}
 
 	ArrayList<Object> getItems()
 	{
-		return new ArrayList<>(mDataset.subList(0, getItemCountProtected()));
+		return getItems(0, getItemCountProtected());
+	}
+
+	void forEachItem(int startIndex, int endIndex, EasyRecyclerView.ItemVisitor visitor)
+	{
+		if(mPages == null && mFiltered == null)
+		{
+			mItems.forEach(startIndex, endIndex, visitor);
+			return;
+		}
+		for(int c = startIndex; c < endIndex; c++)
+		{
+			if(!visitor.onVisitItem(c, itemAt(c))){return;}
+		}
 	}
 
 	@Override
 	public long getItemId(int position)
 	{
-		return position;
+		int count = getItemCountProtected();
+		if(position < count)
+		{
+			if(mPages == null)
+			{
+				return mItems.hasKeys() ? mItems.getKey(storeIndex(position)) : position;
+			}
+			ItemKeyProvider keyProvider = mItems.getKeyProvider();
+			if(keyProvider == null){return position;}
+			if(mPages.isLoaded(position)){return keyProvider.getKey(mPages.get(position));}
+			return ID_PLACEHOLDER + position;
+		}
+		return position == count ? ID_LOADER : ID_EMPTY_PROMPT;
+	}
+
+	/**
+	 * Get whether the id of the item at {@code position} is the item's key, which identifies
+	 * it across dataset changes, rather than a position.
+	 */
+	boolean hasItemKey(int position)
+	{
+		if(position < 0 || position >= getItemCountProtected()){return false;}
+		if(mPages == null){return mItems.hasKeys();}
+		return mItems.getKeyProvider() != null && mPages.isLoaded(position);
 	}
 
 	@Override
 	public int getItemCount()
 	{
-		return mDataset.size();
+		//Loader and empty prompt always follow the items
+		return getItemCountProtected() + 2;
 	}
 
 	public int getItemCountProtected()
 	{
-		return mDataset.size() - 2;
+		if(mPages != null){return mPages.size();}
+		return mFiltered != null ? mFiltered.size() : mItems.size();
 	}
 
 	@Override
 	public int getItemViewType(int position)
 	{
-		if(mDataset.get(position) instanceof LoaderObject)
+		int count = getItemCountProtected();
+		if(position < count)
 		{
-			return TYPE_LOADER;
+			return typeAt(position);
 		}
-		else if(mDataset.get(position) instanceof EmptyPromptObject)
+		else if(position == count)
 		{
-			return TYPE_EMPTY_PROMPT;
+			return TYPE_LOADER;
 		}
 		else
 		{
-			int index = mTypeset.get(position);
-			if(index == -1){throw new IllegalStateException();}
-			return index;
+			return TYPE_EMPTY_PROMPT;
 		}
 	}
 
@@ -581,63 +1075,962 @@ class ScarlettRecyclerAdapter extends RecyclerView.Adapter<RecyclerView.ViewHold
 
 	void addItem(Object item, int typeCode)
 	{
-		mDataset.add(getItemCountProtected(), item);
-		mTypeset.add(typeCode);
-		notifyInternal();
-		notifyItemInserted(getItemCountProtected());
+		checkNotPaged();
+		int index = mComparator != null ? sortedIndexOf(item, 0, mItems.size()) : mItems.size();
+		mItems.add(index, item, typeCode);
+		onStoreInserted(index, 1);
 	}
 
-	void addItems(ArrayList<?> items, int typeCode)
+	void addItems(List<?> items, int typeCode)
 	{
-		mDataset.addAll(getItemCountProtected(), items);
-		for(int c = 0; c < items.size(); c++){mTypeset.add(typeCode);}
-		notifyInternal();
-		notifyItemRangeInserted(getItemCountProtected(), items.size());
+		checkNotPaged();
+		if(mComparator != null)
+		{
+			addSorted(items.toArray(), typeCode, false);
+			return;
+		}
+		int start = mItems.size();
+		mItems.addAll(start, items, typeCode);
+		onStoreInserted(start, items.size());
+	}
+
+	void addItems(List<?> items)
+	{
+		checkNotPaged();
+		if(mComparator != null)
+		{
+			addSorted(items.toArray(), 0, true);
+			return;
+		}
+		int start = mItems.size();
+		mItems.addAll(start, items, typesOf(items));
+		onStoreInserted(start, items.size());
+	}
+
+	private void onStoreInserted(int index, int count)
+	{
+		if(mFiltered != null)
+		{
+			mFiltered.onInserted(index, count);
+			return;
+		}
+		dispatchInserted(index, count);
+	}
+
+	private void onStoreMoved(int fromIndex, int toIndex)
+	{
+		if(mFiltered != null)
+		{
+			mFiltered.onMoved(fromIndex, toIndex);
+			return;
+		}
+		dispatchMoved(fromIndex, toIndex);
 	}
 
 	void addItemAt(Object item, int index, int typeCode)
 	{
-		mDataset.add(index, item);
-		mTypeset.add(index, typeCode);
-		notifyInternal();
-		notifyItemInserted(index);
+		checkNotPaged();
+		checkNotSorted();
+		checkNotFiltered();
+		mItems.add(index, item, typeCode);
+		dispatchInserted(index, 1);
+	}
+
+	void addItemsAt(List<?> items, int index, int typeCode)
+	{
+		checkNotPaged();
+		checkNotSorted();
+		checkNotFiltered();
+		mItems.addAll(index, items, typeCode);
+		dispatchInserted(index, items.size());
+	}
+
+	void addItemsAt(List<?> items, int index)
+	{
+		checkNotPaged();
+		checkNotSorted();
+		checkNotFiltered();
+		mItems.addAll(index, items, typesOf(items));
+		dispatchInserted(index, items.size());
+	}
+
+	private int[] typesOf(List<?> items)
+	{
+		int[] types = new int[items.size()];
+		for(int c = 0; c < types.length; c++)
+		{
+			types[c] = typeCodeOf(items.get(c));
+		}
+		return types;
 	}
 
 	void removeItem(int index)
 	{
+		checkNotPaged();
+		checkNotFiltered();
 		if(index >= getItemCountProtected())
 		{
 			Log.e("SRA", "nope");
 		}
-		mDataset.remove(index);
-		mTypeset.remove(index);
-		notifyInternal();
-		notifyItemRemoved(index);
+		mItems.remove(index);
+		dispatchRemoved(index, 1);
+	}
+
+	void removeItems(int index, int count)
+	{
+		checkNotPaged();
+		checkNotFiltered();
+		mItems.removeRange(index, count);
+		dispatchRemoved(index, count);
+	}
+
+	void moveItem(int fromIndex, int toIndex)
+	{
+		checkNotPaged();
+		checkNotSorted();
+		checkNotFiltered();
+		mItems.move(fromIndex, toIndex);
+		dispatchMoved(fromIndex, toIndex);
 	}
 
 	void replaceItem(Object item, int index, int typeCode)
 	{
-		mDataset.set(index, item);
-		mTypeset.set(index, typeCode);
-		notifyInternal();
-		notifyItemChanged(index);
+		replaceItem(item, index, typeCode, null);
 	}
 
-	void removeAll()
+	void replaceItem(Object item, int index, int typeCode, Object payload)
 	{
-		int originalItemCount = getItemCountProtected();
-		Object loader = mDataset.get(originalItemCount);
-		Object emptyPrompt = mDataset.get(originalItemCount + 1);
-		mDataset.clear();
-		mTypeset.clear();
-		mDataset.add(loader);
-		mDataset.add(emptyPrompt);
-		notifyDataSetChanged();
+		checkNotPaged();
+		int storeIndex = storeIndex(index);
+		mItems.set(storeIndex, item, typeCode);
+		dispatchChanged(index, 1, payload);
+		if(mComparator != null)
+		{
+			resort(storeIndex);
+		}
 	}
 
-	int indexOf(Object item)
+	void replaceItems(List<?> items, int index, int typeCode)
+	{
+		checkNotPaged();
+		if(mComparator != null)
+		{
+			replaceSorted(items, index, typeCode);
+			return;
+		}
+		if(mFiltered == null)
+		{
+			mItems.setRange(index, items, typeCode);
+		}
+		else
+		{
+			//Displayed items are not adjacent in the store
+			for(int c = 0; c < items.size(); c++)
+			{
+				mItems.set(mFiltered.storeIndex(index + c), items.get(c), typeCode);
+			}
+		}
+		dispatchChanged(index, items.size(), null);
+	}
+
+	void removeAll()
+	{
+		mSubmitGeneration++;
+		if(mPages != null)
+		{
+			mPages.release();
+			mPages = null;
+		}
+		mPinnedPages.clear();
+		mItems.clear();
+		if(mFiltered != null){mFiltered.clear();}
+		dispatchDataSetChanged();
+	}
+
+	//Sorting
+
+	void setComparator(Comparator<Object> comparator)
+	{
+		checkNotPaged();
+		mComparator = comparator;
+		//A pending list sorted by another comparator is sorted again once diffed
+		if(comparator == null || mItems.size() < 2){return;}
+		if(mFiltered != null){mFiltered.onReplacingAll();}
+		sortStore();
+		if(mFiltered != null)
+		{
+			mFiltered.onReplacedAll();
+			return;
+		}
+		dispatchDataSetChanged();
+	}
+
+	/**
+	 * Move the item displayed at {@code position} to its place in sort order.
+	 *
+	 * @return the new position of the item
+	 */
+	int resortItem(int position)
+	{
+		checkNotPaged();
+		if(mComparator == null){return position;}
+		return positionOf(resort(storeIndex(position)));
+	}
+
+	private void sortStore()
+	{
+		int count = mItems.size();
+		Object[] items = mItems.copyItems();
+		int[] types = mItems.copyTypes();
+		//Sort items together with their types
+		SortEntry[] entries = new SortEntry[count];
+		for(int c = 0; c < count; c++)
+		{
+			entries[c] = new SortEntry(items[c], types[c]);
+		}
+		final Comparator<Object> comparator = mComparator;
+		ParallelSort.sort(entries, new Comparator<SortEntry>()
+		{
+			@Override
+			public int compare(SortEntry a, SortEntry b)
+			{
+				return comparator.compare(a.item, b.item);
+			}
+		});
+		for(int c = 0; c < count; c++)
+		{
+			items[c] = entries[c].item;
+			types[c] = entries[c].type;
+		}
+		mItems.setAll(items, types);
+	}
+
+	private static class SortEntry
+	{
+		final Object item;
+		final int type;
+
+		SortEntry(Object item, int type)
+		{
+			this.item = item;
+			this.type = type;
+		}
+	}
+
+	/**
+	 * Get the store index within [from, to) before which {@code item} belongs, after any equal
+	 * items so that equal items keep the order they were added in.
+	 */
+	private int sortedIndexOf(Object item, int from, int to)
+	{
+		int low = from, high = to;
+		while(low < high)
+		{
+			int middle = (low + high) >>> 1;
+			if(mComparator.compare(mItems.get(middle), item) > 0)
+			{
+				high = middle;
+			}
+			else
+			{
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Move the item at {@code storeIndex}, the only item out of order, to its place.
+	 *
+	 * @return new store index of the item
+	 */
+	private int resort(int storeIndex)
+	{
+		Object item = mItems.get(storeIndex);
+		int target = storeIndex;
+		if(storeIndex > 0 && mComparator.compare(mItems.get(storeIndex - 1), item) > 0)
+		{
+			target = sortedIndexOf(item, 0, storeIndex);
+		}
+		else if(storeIndex < mItems.size() - 1 && mComparator.compare(item, mItems.get(storeIndex + 1)) > 0)
+		{
+			//Positions after the item shift down once it is taken out
+			target = sortedIndexOf(item, storeIndex + 1, mItems.size()) - 1;
+		}
+		if(target == storeIndex){return storeIndex;}
+		mItems.move(storeIndex, target);
+		onStoreMoved(storeIndex, target);
+		return target;
+	}
+
+	/**
+	 * Sort items and merge them into the store in as few runs as the existing items allow,
+	 * with {@code typeCode} or, if {@code classTypes} is set, the type code of each item's class.
+	 */
+	private void addSorted(Object[] sorted, int typeCode, boolean classTypes)
+	{
+		ParallelSort.sort(sorted, mComparator);
+		List<Object> list = Arrays.asList(sorted);
+		int[] types = classTypes ? typesOf(list) : null;
+		beginBatch();
+		try
+		{
+			int from = 0;
+			int c = 0;
+			while(c < sorted.length)
+			{
+				int index = sortedIndexOf(sorted[c], from, mItems.size());
+				int end = c + 1;
+				//Following items belong at the same index until an existing item sorts between
+				while(end < sorted.length
+						&& (index == mItems.size() || mComparator.compare(mItems.get(index), sorted[end]) > 0))
+				{
+					end++;
+				}
+				if(types == null)
+				{
+					mItems.addAll(index, list.subList(c, end), typeCode);
+				}
+				else
+				{
+					mItems.addAll(index, list.subList(c, end), Arrays.copyOfRange(types, c, end));
+				}
+				onStoreInserted(index, end - c);
+				from = index + end - c;
+				c = end;
+			}
+		}
+		finally
+		{
+			commitBatch();
+		}
+	}
+
+	/**
+	 * Replace items displayed from {@code position} one at a time, moving each into place
+	 * before the next, so only one item is ever out of order.
+	 */
+	private void replaceSorted(List<?> items, int position, int typeCode)
+	{
+		int[] storeIndices = new int[items.size()];
+		for(int c = 0; c < storeIndices.length; c++)
+		{
+			storeIndices[c] = storeIndex(position + c);
+		}
+		beginBatch();
+		try
+		{
+			for(int c = 0; c < storeIndices.length; c++)
+			{
+				int from = storeIndices[c];
+				mItems.set(from, items.get(c), typeCode);
+				int displayed = positionOf(from);
+				if(displayed >= 0){dispatchChanged(displayed, 1, null);}
+				int to = resort(from);
+				for(int i = c + 1; i < storeIndices.length; i++)
+				{
+					int index = storeIndices[i];
+					if(from < index && index <= to){storeIndices[i]--;}
+					else if(to <= index && index < from){storeIndices[i]++;}
+				}
+			}
+		}
+		finally
+		{
+			commitBatch();
+		}
+	}
+
+	private void checkNotSorted()
+	{
+		if(mComparator != null)
+		{
+			throw new IllegalStateException("Items cannot be placed by position while a comparator is set.");
+		}
+	}
+
+	//Filtering
+
+	void setFilter(ItemFilter filter)
+	{
+		if(filter != null){checkNotPaged();}
+		if(filter == null)
+		{
+			if(mFiltered == null){return;}
+			beginBatch();
+			mFiltered.release();
+			mFiltered = null;
+			commitBatch();
+			return;
+		}
+		if(mFiltered == null)
+		{
+			mFiltered = new FilteredView(mItems, new FilteredView.Listener()
+			{
+				@Override
+				public void onUpdateStarted()
+				{
+					beginBatch();
+				}
+
+				@Override
+				public void onInserted(int position, int count)
+				{
+					dispatchInserted(position, count);
+				}
+
+				@Override
+				public void onRemoved(int position, int count)
+				{
+					dispatchRemoved(position, count);
+				}
+
+				@Override
+				public void onMoved(int fromPosition, int toPosition)
+				{
+					dispatchMoved(fromPosition, toPosition);
+				}
+
+				@Override
+				public void onUpdateFinished()
+				{
+					commitBatch();
+				}
+			});
+		}
+		mFiltered.setFilter(filter);
+	}
+
+	boolean isFiltering()
+	{
+		return mFiltered != null && mFiltered.isFiltering();
+	}
+
+	int storeIndex(int position)
+	{
+		return mFiltered != null ? mFiltered.storeIndex(position) : position;
+	}
+
+	int positionOf(int storeIndex)
+	{
+		return mFiltered != null ? mFiltered.positionOf(storeIndex) : storeIndex;
+	}
+
+	private void checkNotFiltered()
+	{
+		if(mFiltered != null)
+		{
+			throw new IllegalStateException("Items can only be appended or replaced while a filter is set.");
+		}
+	}
+
+	//Text Prefetch
+
+	void addTextField(int typeCode, int viewId, TextProvider provider)
+	{
+		if(mTextPrefetcher == null){mTextPrefetcher = new TextPrefetcher();}
+		mTextPrefetcher.addField(typeCode, viewId, provider);
+	}
+
+	void clearTextFields()
+	{
+		if(mTextPrefetcher == null){return;}
+		mTextPrefetcher.clear();
+		mTextPrefetcher = null;
+	}
+
+	void clearTextCache()
+	{
+		if(mTextPrefetcher != null){mTextPrefetcher.clearCache();}
+	}
+
+	/**
+	 * Precompute the text of the items at {@code positions} on the background executor.
+	 */
+	void prefetchText(int[] positions)
+	{
+		if(mTextPrefetcher == null){return;}
+		int count = getItemCountProtected();
+		int size = 0;
+		Object[] items = new Object[positions.length];
+		long[] keys = new long[positions.length];
+		int[] types = new int[positions.length];
+		boolean keyed = mItems.getKeyProvider() != null;
+		for(int position : positions)
+		{
+			if(position < 0 || position >= count){continue;}
+			items[size] = itemAt(position);
+			keys[size] = keyed ? getItemId(position) : 0;
+			types[size] = typeAt(position);
+			size++;
+		}
+		mTextPrefetcher.prefetch(Arrays.copyOf(items, size), Arrays.copyOf(keys, size), keyed,
+				Arrays.copyOf(types, size));
+	}
+
+	//Snapshots
+
+	Object[] copyItems()
+	{
+		checkNotPaged();
+		return mItems.copyItems();
+	}
+
+	int[] copyTypes()
+	{
+		checkNotPaged();
+		return mItems.copyTypes();
+	}
+
+	/**
+	 * Start restoring a snapshot, abandoning pending submitted lists.
+	 *
+	 * @return generation to pass to {@link #finishRestore(int, Object[], int[])}
+	 */
+	int beginRestore()
+	{
+		checkNotPaged();
+		mRestoreModCount = mItems.getModCount();
+		return ++mSubmitGeneration;
+	}
+
+	/**
+	 * Replace the dataset with restored items, unless the dataset was edited or another list
+	 * submitted since the restore began.
+	 *
+	 * @return true if the items were restored
+	 */
+	boolean finishRestore(int generation, Object[] items, int[] types)
+	{
+		if(generation != mSubmitGeneration || mRestoreModCount != mItems.getModCount()){return false;}
+		if(mFiltered != null){mFiltered.onReplacingAll();}
+		mItems.setAll(items, types);
+		if(mComparator != null && items.length > 1)
+		{
+			//Saved in sort order, unless the comparator changed since
+			sortStore();
+		}
+		if(mFiltered != null)
+		{
+			mFiltered.onReplacedAll();
+			return true;
+		}
+		dispatchDataSetChanged();
+		return true;
+	}
+
+	//Sections
+
+	void setSectionResolver(SectionResolver resolver)
+	{
+		if(mSections != null)
+		{
+			unregisterAdapterDataObserver(mSections);
+			mSections = null;
+		}
+		if(resolver == null){return;}
+		mSections = new SectionIndex(new SectionIndex.Items()
+		{
+			@Override
+			public int getItemCount()
+			{
+				return getItemCountProtected();
+			}
+
+			@Override
+			public Object getItem(int position)
+			{
+				return ScarlettRecyclerAdapter.this.getItem(position);
+			}
+		}, resolver);
+		registerAdapterDataObserver(mSections);
+	}
+
+	boolean hasSections()
+	{
+		return mSections != null;
+	}
+
+	int getSectionCount()
+	{
+		return mSections != null ? mSections.getSectionCount() : 0;
+	}
+
+	int getSectionForPosition(int position)
+	{
+		return mSections != null ? mSections.getSectionForPosition(position) : -1;
+	}
+
+	int getSectionStart(int section)
+	{
+		if(mSections == null){throw new IndexOutOfBoundsException();}
+		return mSections.getSectionStart(section);
+	}
+
+	Object getSectionKey(int section)
+	{
+		if(mSections == null){throw new IndexOutOfBoundsException();}
+		return mSections.getSectionKey(section);
+	}
+
+	boolean isSectionStart(int position)
+	{
+		return mSections != null && mSections.isSectionStart(position);
+	}
+
+	//Class Types
+
+	int registerItemClass(Class<?> itemClass)
+	{
+		return mClassTypes.register(itemClass);
+	}
+
+	/**
+	 * Get the type code registered for the class of {@code item}.
+	 */
+	int typeCodeOf(Object item)
+	{
+		int typeCode = mClassTypes.typeCodeOf(item);
+		if(typeCode == ClassTypeRegistry.NOT_FOUND)
+		{
+			throw new IllegalArgumentException("No binder registered for item class "
+					+ (item == null ? "null" : item.getClass().getName()) + ".");
+		}
+		return typeCode;
+	}
+
+	TypeResolver getClassTypeResolver()
+	{
+		return new TypeResolver()
+		{
+			@Override
+			public int getTypeCode(Object item)
+			{
+				return typeCodeOf(item);
+			}
+		};
+	}
+
+	//Paging
+
+	@Override
+	public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder)
+	{
+		super.onViewRecycled(holder);
+		unpinPage(holder);
+	}
+
+	private void unpinPage(RecyclerView.ViewHolder holder)
+	{
+		Integer pageIndex = mPinnedPages.remove(holder);
+		if(pageIndex != null && mPages != null){mPages.unpin(pageIndex);}
+	}
+
+	void setDataSource(PagedSource source, int maxPages)
+	{
+		mSubmitGeneration++;
+		if(mPages != null){mPages.release();}
+		mPinnedPages.clear();
+		if(mFiltered != null)
+		{
+			mFiltered.clear();
+			mFiltered = null;
+		}
+		mItems.clear();
+		mPages = source == null ? null : new PageCache(source, maxPages, new PageCache.Listener()
+		{
+			@Override
+			public void onPageLoaded(int startPosition, int count)
+			{
+				//Placeholders become items
+				dispatchChanged(startPosition, count, null);
+			}
+
+			@Override
+			public void onPageEvicted(int startPosition, int count)
+			{
+				//Items become placeholders
+				dispatchChanged(startPosition, count, null);
+			}
+		});
+		dispatchDataSetChanged();
+		notifyInternal();
+	}
+
+	void invalidateDataSource()
+	{
+		if(mPages == null){return;}
+		mPages.invalidate();
+		dispatchDataSetChanged();
+		notifyInternal();
+	}
+
+	void setPlaceholderLayout(@LayoutRes int resId)
+	{
+		mPlaceholderLayout = resId;
+	}
+
+	private void checkNotPaged()
+	{
+		if(mPages != null)
+		{
+			throw new IllegalStateException("Items cannot be edited while a paged data source is set.");
+		}
+	}
+
+	//Batching
+
+	/**
+	 * Start recording notifications. Adjacent operations are merged into range notifications,
+	 * and the empty prompt is evaluated once when the outermost batch is committed.
+	 */
+	void beginBatch()
+	{
+		if(mBatchDepth++ == 0)
+		{
+			mBatchCallback = new BatchingListUpdateCallback(new AdapterListUpdateCallback(this));
+			mUpdateCallback = mBatchCallback;
+		}
+	}
+
+	void commitBatch()
+	{
+		if(mBatchDepth == 0){throw new IllegalStateException("No batch in progress.");}
+		if(--mBatchDepth > 0){return;}
+		mBatchCallback.dispatchLastEvent();
+		mBatchCallback = null;
+		mUpdateCallback = new AdapterListUpdateCallback(this);
+		notifyInternal();
+	}
+
+	private void dispatchInserted(int position, int count)
+	{
+		if(mBatchDepth == 0){notifyInternal();}
+		mUpdateCallback.onInserted(position, count);
+	}
+
+	private void dispatchRemoved(int position, int count)
+	{
+		if(mBatchDepth == 0){notifyInternal();}
+		mUpdateCallback.onRemoved(position, count);
+	}
+
+	private void dispatchMoved(int fromPosition, int toPosition)
+	{
+		mUpdateCallback.onMoved(fromPosition, toPosition);
+	}
+
+	private void dispatchChanged(int position, int count, Object payload)
+	{
+		if(mBatchDepth == 0){notifyInternal();}
+		mUpdateCallback.onChanged(position, count, payload);
+	}
+
+	private void dispatchDataSetChanged()
+	{
+		//Pending merged operations refer to the old dataset and must reach observers first
+		if(mBatchCallback != null){mBatchCallback.dispatchLastEvent();}
+		notifyDataSetChanged();
+	}
+
+	void submitList(List<?> items, final TypeResolver resolver)
+	{
+		checkNotPaged();
+		final int generation = ++mSubmitGeneration;
+		final int modCount = mItems.getModCount();
+		final Object[] oldItems = mItems.copyItems();
+		final int[] oldTypes = mItems.copyTypes();
+		final long[] oldKeys = mItems.copyKeys();
+		final ItemKeyProvider keyProvider = mItems.getKeyProvider();
+		final Object[] newItems = items.toArray();
+		//Resolved here so that an invalid type code is reported to the caller
+		final int[] newTypes = new int[newItems.length];
+		for(int c = 0; c < newItems.length; c++)
+		{
+			newTypes[c] = resolver.getTypeCode(newItems[c]);
+			if(newTypes[c] < 0)
+			{
+				throw new IllegalArgumentException("Type code must be a positive integer, but "
+						+ newTypes[c] + " was resolved for the item at index " + c + ".");
+			}
+		}
+		//A filtered list is refiltered rather than diffed
+		final boolean diff = mFiltered == null;
+		final Comparator<Object> comparator = mComparator;
+		Helpers.getBackgroundExecutor().execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				if(generation != mSubmitGeneration){return;}
+				if(comparator != null)
+				{
+					//Sorted on this worker alone, leaving the rest of the executor to other work
+					sortWithTypes(newItems, newTypes, comparator);
+				}
+				long[] newKeys = null;
+				if(keyProvider != null)
+				{
+					newKeys = new long[newItems.length];
+					for(int c = 0; c < newItems.length; c++)
+					{
+						newKeys[c] = keyProvider.getKey(newItems[c]);
+					}
+				}
+				final DiffUtil.DiffResult result = !diff ? null : DiffUtil.calculateDiff(
+						new ItemDiffCallback(oldItems, oldTypes, oldKeys, newItems, newTypes, newKeys));
+				Helpers.getMainHandler().post(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						applyList(generation, modCount, comparator, newItems, newTypes, resolver, result);
+					}
+				});
+			}
+		});
+	}
+
+	private void applyList(int generation, int modCount, Comparator<Object> comparator, Object[] items,
+						   int[] types, TypeResolver resolver, DiffUtil.DiffResult result)
+	{
+		//A newer list has been submitted since; let it win
+		if(generation != mSubmitGeneration){return;}
+		//Items, keys or the comparator were changed directly while diffing, or the filter was
+		//removed, so the result no longer applies
+		if(modCount != mItems.getModCount() || comparator != mComparator || (result == null && mFiltered == null))
+		{
+			submitList(Arrays.asList(items), resolver);
+			return;
+		}
+		if(mFiltered != null){mFiltered.onReplacingAll();}
+		mItems.setAll(items, types);
+		if(mFiltered != null)
+		{
+			mFiltered.onReplacedAll();
+			return;
+		}
+		result.dispatchUpdatesTo(mUpdateCallback);
+		if(mBatchDepth == 0){notifyInternal();}
+	}
+
+	/**
+	 * Stable sort of {@code items}, permuting {@code types} alongside.
+	 */
+	private static void sortWithTypes(final Object[] items, int[] types, final Comparator<Object> comparator)
+	{
+		Integer[] order = new Integer[items.length];
+		for(int c = 0; c < order.length; c++)
+		{
+			order[c] = c;
+		}
+		Arrays.sort(order, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer a, Integer b)
+			{
+				return comparator.compare(items[a], items[b]);
+			}
+		});
+		Object[] sortedItems = new Object[items.length];
+		int[] sortedTypes = new int[types.length];
+		for(int c = 0; c < order.length; c++)
+		{
+			sortedItems[c] = items[order[c]];
+			sortedTypes[c] = types[order[c]];
+		}
+		System.arraycopy(sortedItems, 0, items, 0, items.length);
+		System.arraycopy(sortedTypes, 0, types, 0, types.length);
+	}
+
+	private static class ItemDiffCallback extends DiffUtil.Callback
+	{
+		private final Object[] mOldItems, mNewItems;
+		private final int[] mOldTypes, mNewTypes;
+		private final long[] mOldKeys, mNewKeys;
+
+		ItemDiffCallback(Object[] oldItems, int[] oldTypes, long[] oldKeys,
+						 Object[] newItems, int[] newTypes, long[] newKeys)
+		{
+			mOldItems = oldItems;
+			mOldTypes = oldTypes;
+			mOldKeys = oldKeys;
+			mNewItems = newItems;
+			mNewTypes = newTypes;
+			mNewKeys = newKeys;
+		}
+
+		@Override
+		public int getOldListSize()
+		{
+			return mOldItems.length;
+		}
+
+		@Override
+		public int getNewListSize()
+		{
+			return mNewItems.length;
+		}
+
+		@Override
+		public boolean areItemsTheSame(int oldPosition, int newPosition)
+		{
+			if(mOldTypes[oldPosition] != mNewTypes[newPosition]){return false;}
+			if(mOldKeys != null && mNewKeys != null)
+			{
+				return mOldKeys[oldPosition] == mNewKeys[newPosition];
+			}
+			return equals(mOldItems[oldPosition], mNewItems[newPosition]);
+		}
+
+		@Override
+		public boolean areContentsTheSame(int oldPosition, int newPosition)
+		{
+			return equals(mOldItems[oldPosition], mNewItems[newPosition]);
+		}
+
+		private static boolean equals(Object a, Object b)
+		{
+			return a == null ? b == null : a.equals(b);
+		}
+	}
+
+	int indexOf(Object item)
+	{
+		return mPages != null ? mPages.indexOf(item) : positionOf(mItems.indexOf(item));
+	}
+
+	boolean replaceItem(Object item)
+	{
+		checkNotPaged();
+		int index = mItems.indexOf(item);
+		if(index < 0){return false;}
+		int position = positionOf(index);
+		if(position < 0)
+		{
+			//Not displayed through the filter, so there is no view to update
+			mItems.set(index, item, mItems.getType(index));
+			return true;
+		}
+		replaceItem(item, position, mItems.getType(index));
+		return true;
+	}
+
+	void setItemIndexEnabled(boolean enabled)
+	{
+		mItems.setIdentityIndexEnabled(enabled);
+	}
+
+	void setItemKeyProvider(ItemKeyProvider provider)
+	{
+		//Every item id has changed, and a pending list is diffed again with the new keys
+		mItems.setKeyProvider(provider);
+		dispatchDataSetChanged();
+	}
+
+	int indexOfKey(long key)
 	{
-		return mDataset.indexOf(item);
+		return positionOf(mItems.indexOfKey(key));
 	}
 
 	void showLoader()
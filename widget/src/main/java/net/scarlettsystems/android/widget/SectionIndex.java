@@ -0,0 +1,248 @@
+package net.scarlettsystems.android.widget;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Index of the sections of an adapter's items, mapping positions to sections by binary search
+ * over the positions at which sections start.
+ *
+ * A section is a run of consecutive items with equal section keys. The index observes the
+ * adapter and shifts section starts as items are inserted, removed and moved, recording the
+ * ranges around each edit whose boundaries may have changed. Those ranges are re-examined on
+ * the next lookup, once the adapter holds the edited items, so that a batch of edits costs one
+ * pass over the edited ranges rather than a scan of the whole dataset.
+ */
+class SectionIndex extends RecyclerView.AdapterDataObserver
+{
+	/**
+	 * The items indexed, as displayed by the adapter.
+	 */
+	interface Items
+	{
+		int getItemCount();
+		Object getItem(int position);
+	}
+
+	//Beyond this many pending ranges the index is rebuilt instead
+	private static final int MAX_DIRTY_RANGES = 64;
+
+	private final Items mItems;
+	private final ScarlettRecyclerAdapter.SectionResolver mResolver;
+
+	//Start positions of sections, in ascending order, and their section keys
+	private int[] mStarts = new int[16];
+	private Object[] mKeys = new Object[16];
+	private int mCount = 0;
+
+	//Inclusive position ranges whose section boundaries must be re-examined, as pairs
+	private int[] mDirty = new int[2 * MAX_DIRTY_RANGES];
+	private int mDirtyCount = 0;
+	private boolean mRebuild = true;
+
+	SectionIndex(Items items, ScarlettRecyclerAdapter.SectionResolver resolver)
+	{
+		mItems = items;
+		mResolver = resolver;
+	}
+
+	int getSectionCount()
+	{
+		update();
+		return mCount;
+	}
+
+	/**
+	 * Get the section containing the item at {@code position}, or -1 if there is no such item.
+	 */
+	int getSectionForPosition(int position)
+	{
+		update();
+		if(position < 0 || position >= mItems.getItemCount()){return -1;}
+		int section = Arrays.binarySearch(mStarts, 0, mCount, position);
+		return section < 0 ? -section - 2 : section;
+	}
+
+	int getSectionStart(int section)
+	{
+		update();
+		if(section < 0 || section >= mCount){throw new IndexOutOfBoundsException();}
+		return mStarts[section];
+	}
+
+	Object getSectionKey(int section)
+	{
+		update();
+		if(section < 0 || section >= mCount){throw new IndexOutOfBoundsException();}
+		return mKeys[section];
+	}
+
+	boolean isSectionStart(int position)
+	{
+		update();
+		return Arrays.binarySearch(mStarts, 0, mCount, position) >= 0;
+	}
+
+	@Override
+	public void onChanged()
+	{
+		mRebuild = true;
+	}
+
+	@Override
+	public void onItemRangeChanged(int positionStart, int itemCount)
+	{
+		//A changed item may start or end a section, as may the item after it
+		markDirty(positionStart, positionStart + itemCount);
+	}
+
+	@Override
+	public void onItemRangeChanged(int positionStart, int itemCount, Object payload)
+	{
+		onItemRangeChanged(positionStart, itemCount);
+	}
+
+	@Override
+	public void onItemRangeInserted(int positionStart, int itemCount)
+	{
+		if(mRebuild){return;}
+		for(int c = lowerBound(positionStart); c < mCount; c++)
+		{
+			mStarts[c] += itemCount;
+		}
+		for(int c = 0; c < mDirtyCount; c++)
+		{
+			if(mDirty[c] >= positionStart){mDirty[c] += itemCount;}
+		}
+		markDirty(positionStart, positionStart + itemCount);
+	}
+
+	@Override
+	public void onItemRangeRemoved(int positionStart, int itemCount)
+	{
+		if(mRebuild){return;}
+		int end = positionStart + itemCount;
+		int from = lowerBound(positionStart);
+		int to = lowerBound(end);
+		removeStarts(from, to);
+		for(int c = from; c < mCount; c++)
+		{
+			mStarts[c] -= itemCount;
+		}
+		for(int c = 0; c < mDirtyCount; c++)
+		{
+			if(mDirty[c] >= end){mDirty[c] -= itemCount;}
+			else if(mDirty[c] > positionStart){mDirty[c] = positionStart;}
+		}
+		markDirty(positionStart, positionStart);
+	}
+
+	@Override
+	public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount)
+	{
+		onItemRangeRemoved(fromPosition, itemCount);
+		onItemRangeInserted(toPosition, itemCount);
+	}
+
+	private void markDirty(int from, int to)
+	{
+		if(mRebuild){return;}
+		if(mDirtyCount == mDirty.length)
+		{
+			mRebuild = true;
+			mDirtyCount = 0;
+			return;
+		}
+		mDirty[mDirtyCount++] = from;
+		mDirty[mDirtyCount++] = to;
+	}
+
+	private void update()
+	{
+		int size = mItems.getItemCount();
+		if(mRebuild)
+		{
+			mRebuild = false;
+			mDirtyCount = 0;
+			mCount = 0;
+			Object previous = null;
+			for(int c = 0; c < size; c++)
+			{
+				Object key = sectionOf(c);
+				if(c == 0 || !equal(previous, key))
+				{
+					insertStart(mCount, c, key);
+				}
+				previous = key;
+			}
+			return;
+		}
+		for(int c = 0; c < mDirtyCount; c += 2)
+		{
+			int from = mDirty[c];
+			int to = Math.min(mDirty[c + 1], size - 1);
+			//Starts past the end of the items belong to removed items
+			if(from >= size)
+			{
+				removeStarts(lowerBound(size), mCount);
+				continue;
+			}
+			removeStarts(lowerBound(from), lowerBound(to + 1));
+			Object previous = from > 0 ? sectionOf(from - 1) : null;
+			int index = lowerBound(from);
+			for(int position = from; position <= to; position++)
+			{
+				Object key = sectionOf(position);
+				if(position == 0 || !equal(previous, key))
+				{
+					insertStart(index++, position, key);
+				}
+				previous = key;
+			}
+		}
+		mDirtyCount = 0;
+	}
+
+	private Object sectionOf(int position)
+	{
+		return mResolver.getSection(mItems.getItem(position));
+	}
+
+	private static boolean equal(Object a, Object b)
+	{
+		return a == null ? b == null : a.equals(b);
+	}
+
+	/**
+	 * Get the index of the first section starting at or after {@code position}.
+	 */
+	private int lowerBound(int position)
+	{
+		int index = Arrays.binarySearch(mStarts, 0, mCount, position);
+		return index < 0 ? -index - 1 : index;
+	}
+
+	private void insertStart(int index, int position, Object key)
+	{
+		if(mCount == mStarts.length)
+		{
+			mStarts = Arrays.copyOf(mStarts, mCount * 2);
+			mKeys = Arrays.copyOf(mKeys, mCount * 2);
+		}
+		System.arraycopy(mStarts, index, mStarts, index + 1, mCount - index);
+		System.arraycopy(mKeys, index, mKeys, index + 1, mCount - index);
+		mStarts[index] = position;
+		mKeys[index] = key;
+		mCount++;
+	}
+
+	private void removeStarts(int from, int to)
+	{
+		if(to <= from){return;}
+		System.arraycopy(mStarts, to, mStarts, from, mCount - to);
+		System.arraycopy(mKeys, to, mKeys, from, mCount - to);
+		Arrays.fill(mKeys, mCount - (to - from), mCount, null);
+		mCount -= to - from;
+	}
+}
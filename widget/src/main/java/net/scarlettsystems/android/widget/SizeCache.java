@@ -0,0 +1,302 @@
+package net.scarlettsystems.android.widget;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Cache of the measured extents of an adapter's items, with prefix sums over them.
+ *
+ * Extents are held per position, and shifted as the cache observes items being inserted,
+ * removed and moved. Items with keys also hold them per key, so that they keep their extents
+ * when the whole dataset is replaced; other extents are forgotten then, as positions no longer
+ * identify the same items. Keys are the ids of a {@link ScarlettRecyclerAdapter}'s keyed items,
+ * or any stable ids of other adapters. Items that have not been measured are estimated at the
+ * average measured extent. Sums run over two Fenwick trees, one of the measured extents and
+ * one of the number of measured items, so that the offset of any position costs O(log n). The
+ * trees span the capacity of the cache rather than its count, so that small edits update them
+ * in place at O(log n) per shifted position; edits that shift more positions than a rebuild
+ * would visit rebuild them on the next lookup instead.
+ */
+class SizeCache extends RecyclerView.AdapterDataObserver
+{
+	/**
+	 * The items whose extents are cached.
+	 */
+	interface Items
+	{
+		int getItemCount();
+
+		long getItemId(int position);
+
+		/**
+		 * Get whether the id of the item at {@code position} identifies it across dataset changes.
+		 */
+		boolean hasKey(int position);
+	}
+
+	private static final int UNKNOWN = -1;
+
+	private final Items mItems;
+
+	private int[] mExtents = new int[0];
+	private int mCount = 0;
+	private LongIndexMap mById = new LongIndexMap();
+
+	//Fenwick trees, indexed from 1, of measured extents and of measured item counts
+	private long[] mSums = new long[1];
+	private int[] mMeasured = new int[1];
+	private long mTotalSum = 0;
+	private int mTotalMeasured = 0;
+	private boolean mRebuildTrees = true;
+	private boolean mReload = true;
+
+	SizeCache(Items items)
+	{
+		mItems = items;
+	}
+
+	/**
+	 * Create a cache of the extents of {@code adapter}'s items.
+	 */
+	SizeCache(final RecyclerView.Adapter adapter)
+	{
+		this(new Items()
+		{
+			@Override
+			public int getItemCount()
+			{
+				return adapter.getItemCount();
+			}
+
+			@Override
+			public long getItemId(int position)
+			{
+				return adapter.getItemId(position);
+			}
+
+			@Override
+			public boolean hasKey(int position)
+			{
+				//The adapter's own items always have stable ids, which are positions when no keys are set
+				if(adapter instanceof ScarlettRecyclerAdapter)
+				{
+					return ((ScarlettRecyclerAdapter)adapter).hasItemKey(position);
+				}
+				return adapter.hasStableIds();
+			}
+		});
+	}
+
+	/**
+	 * Record the measured extent of the item at {@code position}.
+	 */
+	void put(int position, int extent)
+	{
+		update();
+		if(position < 0 || position >= mCount || extent < 0){return;}
+		int previous = mExtents[position];
+		if(previous == extent){return;}
+		mExtents[position] = extent;
+		if(mItems.hasKey(position)){mById.put(mItems.getItemId(position), extent);}
+		if(mRebuildTrees){return;}
+		add(position, extent - (previous == UNKNOWN ? 0 : previous), previous == UNKNOWN ? 1 : 0);
+	}
+
+	/**
+	 * Get the total extent of the items before {@code position}.
+	 */
+	long getOffset(int position)
+	{
+		update();
+		position = Math.max(0, Math.min(position, mCount));
+		long sum = 0;
+		int measured = 0;
+		for(int c = position; c > 0; c -= c & -c)
+		{
+			sum += mSums[c];
+			measured += mMeasured[c];
+		}
+		return sum + (position - measured) * getEstimate();
+	}
+
+	long getTotal()
+	{
+		update();
+		return mTotalSum + (mCount - mTotalMeasured) * getEstimate();
+	}
+
+	boolean isEmpty()
+	{
+		update();
+		return mTotalMeasured == 0;
+	}
+
+	/**
+	 * Forget every extent, as when the items are laid out at another width.
+	 */
+	void clear()
+	{
+		mById = new LongIndexMap();
+		mReload = true;
+	}
+
+	@Override
+	public void onChanged()
+	{
+		mReload = true;
+	}
+
+	@Override
+	public void onItemRangeInserted(int positionStart, int itemCount)
+	{
+		if(mReload){return;}
+		boolean inPlace = removeRange(positionStart, mCount, mCount + itemCount);
+		ensureCapacity(mCount + itemCount);
+		System.arraycopy(mExtents, positionStart, mExtents, positionStart + itemCount, mCount - positionStart);
+		Arrays.fill(mExtents, positionStart, positionStart + itemCount, UNKNOWN);
+		mCount += itemCount;
+		if(inPlace){addRange(positionStart + itemCount, mCount);}
+	}
+
+	@Override
+	public void onItemRangeRemoved(int positionStart, int itemCount)
+	{
+		if(mReload){return;}
+		boolean inPlace = removeRange(positionStart, mCount, mCount);
+		int end = positionStart + itemCount;
+		System.arraycopy(mExtents, end, mExtents, positionStart, mCount - end);
+		mCount -= itemCount;
+		if(inPlace){addRange(positionStart, mCount);}
+	}
+
+	@Override
+	public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount)
+	{
+		if(mReload){return;}
+		int start = Math.min(fromPosition, toPosition);
+		int end = Math.max(fromPosition, toPosition) + itemCount;
+		boolean inPlace = removeRange(start, end, mCount);
+		int[] moved = Arrays.copyOfRange(mExtents, fromPosition, fromPosition + itemCount);
+		if(fromPosition < toPosition)
+		{
+			System.arraycopy(mExtents, fromPosition + itemCount, mExtents, fromPosition, toPosition - fromPosition);
+		}
+		else
+		{
+			System.arraycopy(mExtents, toPosition, mExtents, toPosition + itemCount, fromPosition - toPosition);
+		}
+		System.arraycopy(moved, 0, mExtents, toPosition, itemCount);
+		if(inPlace){addRange(start, end);}
+	}
+
+	private void update()
+	{
+		if(mReload)
+		{
+			reload();
+		}
+		if(mRebuildTrees)
+		{
+			rebuildTrees();
+		}
+	}
+
+	private void reload()
+	{
+		//Take extents over by key, dropping those of items no longer present
+		mCount = mItems.getItemCount();
+		mExtents = new int[mCount];
+		Arrays.fill(mExtents, UNKNOWN);
+		LongIndexMap byId = new LongIndexMap(mCount);
+		for(int c = 0; c < mCount && mById.size() > 0; c++)
+		{
+			if(!mItems.hasKey(c)){continue;}
+			long id = mItems.getItemId(c);
+			int extent = mById.get(id);
+			mExtents[c] = extent;
+			if(extent != LongIndexMap.NOT_FOUND){byId.put(id, extent);}
+		}
+		mById = byId;
+		mReload = false;
+		mRebuildTrees = true;
+	}
+
+	private void rebuildTrees()
+	{
+		int size = mExtents.length;
+		mSums = new long[size + 1];
+		mMeasured = new int[size + 1];
+		mTotalSum = 0;
+		mTotalMeasured = 0;
+		for(int c = 0; c < mCount; c++)
+		{
+			if(mExtents[c] == UNKNOWN){continue;}
+			mSums[c + 1] += mExtents[c];
+			mMeasured[c + 1]++;
+			mTotalSum += mExtents[c];
+			mTotalMeasured++;
+		}
+		//Build in place in linear time, pushing each node's total into its parent
+		for(int c = 1; c <= size; c++)
+		{
+			int parent = c + (c & -c);
+			if(parent > size){continue;}
+			mSums[parent] += mSums[c];
+			mMeasured[parent] += mMeasured[c];
+		}
+		mRebuildTrees = false;
+	}
+
+	private void add(int position, long extent, int measured)
+	{
+		for(int c = position + 1; c < mSums.length; c += c & -c)
+		{
+			mSums[c] += extent;
+			mMeasured[c] += measured;
+		}
+		mTotalSum += extent;
+		mTotalMeasured += measured;
+	}
+
+	/**
+	 * Take the extents from {@code start} to {@code end} out of the trees ahead of an edit that
+	 * shifts them, leaving {@code capacity} items, if that is cheaper than rebuilding the trees.
+	 * @return whether the extents were taken out, to be put back by {@link #addRange} after the edit
+	 */
+	private boolean removeRange(int start, int end, int capacity)
+	{
+		int depth = 32 - Integer.numberOfLeadingZeros(mSums.length);
+		if(mRebuildTrees || capacity >= mSums.length || (long)(end - start) * depth > mCount)
+		{
+			mRebuildTrees = true;
+			return false;
+		}
+		for(int c = start; c < end; c++)
+		{
+			if(mExtents[c] != UNKNOWN){add(c, -mExtents[c], -1);}
+		}
+		return true;
+	}
+
+	private void addRange(int start, int end)
+	{
+		for(int c = start; c < end; c++)
+		{
+			if(mExtents[c] != UNKNOWN){add(c, mExtents[c], 1);}
+		}
+	}
+
+	private long getEstimate()
+	{
+		return mTotalMeasured == 0 ? 0 : Math.round((double)mTotalSum / mTotalMeasured);
+	}
+
+	private void ensureCapacity(int capacity)
+	{
+		if(capacity > mExtents.length)
+		{
+			mExtents = Arrays.copyOf(mExtents, Math.max(capacity, mExtents.length * 2));
+		}
+	}
+}
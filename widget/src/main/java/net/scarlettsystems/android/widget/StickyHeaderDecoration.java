@@ -0,0 +1,202 @@
+package net.scarlettsystems.android.widget;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Item decoration drawing section headers above the first item of each section, with the
+ * header of the topmost section held at the top of the list until the next header pushes it
+ * off.
+ *
+ * Headers are not items: space is reserved above each section start and a header view, never
+ * attached to the window, is drawn into it. One view is kept bound and measured for each
+ * section key in view, so a frame only binds the headers of sections that have just scrolled
+ * in, and views of sections that scrolled out are reused for them. Headers are drawn in
+ * vertical linear lists only, and should have the same height for every section.
+ */
+class StickyHeaderDecoration extends RecyclerView.ItemDecoration
+{
+	interface HeaderBinder
+	{
+		void onBindHeader(View header, Object section);
+	}
+
+	private final ScarlettRecyclerAdapter mAdapter;
+	private final int mLayoutRes;
+	private final HeaderBinder mBinder;
+
+	//Bound headers by section key, for the sections drawn in the last frame
+	private HashMap<Object, View> mHeaders = new HashMap<>();
+	private HashMap<Object, View> mNextHeaders = new HashMap<>();
+	private final ArrayList<View> mSpare = new ArrayList<>();
+	private int mWidth = -1;
+	private int mHeight = -1;
+
+	//Headers to draw in the current frame, the sticky header last
+	private final ArrayList<Object> mDrawKeys = new ArrayList<>();
+	private int[] mDrawY = new int[8];
+
+	StickyHeaderDecoration(ScarlettRecyclerAdapter adapter, int layoutRes, HeaderBinder binder)
+	{
+		mAdapter = adapter;
+		mLayoutRes = layoutRes;
+		mBinder = binder;
+	}
+
+	@Override
+	public void getItemOffsets(Rect outRect, View view, RecyclerView parent, RecyclerView.State state)
+	{
+		outRect.set(0, 0, 0, 0);
+		if(!isVerticalList(parent)){return;}
+		int position = parent.getChildAdapterPosition(view);
+		if(position == RecyclerView.NO_POSITION || position >= mAdapter.getItemCountProtected()){return;}
+		if(!mAdapter.isSectionStart(position)){return;}
+		outRect.set(0, getHeaderHeight(parent), 0, 0);
+	}
+
+	@Override
+	public void onDrawOver(Canvas canvas, RecyclerView parent, RecyclerView.State state)
+	{
+		int children = parent.getChildCount();
+		if(children == 0 || !isVerticalList(parent)){return;}
+		int itemCount = mAdapter.getItemCountProtected();
+		int height = getHeaderHeight(parent);
+		int top = parent.getPaddingTop();
+		int stickySection = -1;
+		int stickyY = top;
+		int nextY = Integer.MAX_VALUE;
+		mDrawKeys.clear();
+		for(int c = 0; c < children; c++)
+		{
+			View child = parent.getChildAt(c);
+			int position = parent.getChildAdapterPosition(child);
+			if(position == RecyclerView.NO_POSITION || position >= itemCount){continue;}
+			int childTop = child.getTop() + (int)child.getTranslationY();
+			if(stickySection == -1 && child.getBottom() + (int)child.getTranslationY() > top)
+			{
+				stickySection = mAdapter.getSectionForPosition(position);
+			}
+			if(!mAdapter.isSectionStart(position)){continue;}
+			int section = mAdapter.getSectionForPosition(position);
+			int y = childTop - height;
+			if(section == stickySection)
+			{
+				//The topmost header sits in its own space until that scrolls off the top
+				stickyY = Math.max(top, y);
+			}
+			else if(stickySection != -1)
+			{
+				nextY = Math.min(nextY, y);
+				addDraw(mAdapter.getSectionKey(section), y);
+			}
+		}
+		if(stickySection != -1)
+		{
+			addDraw(mAdapter.getSectionKey(stickySection), Math.min(stickyY, nextY - height));
+		}
+		bindHeaders(parent);
+		for(int c = 0; c < mDrawKeys.size(); c++)
+		{
+			int save = canvas.save();
+			canvas.translate(parent.getPaddingLeft(), mDrawY[c]);
+			mHeaders.get(mDrawKeys.get(c)).draw(canvas);
+			canvas.restoreToCount(save);
+		}
+	}
+
+	private static boolean isVerticalList(RecyclerView parent)
+	{
+		RecyclerView.LayoutManager lm = parent.getLayoutManager();
+		if(!(lm instanceof LinearLayoutManager) || lm instanceof GridLayoutManager){return false;}
+		LinearLayoutManager llm = (LinearLayoutManager)lm;
+		return llm.getOrientation() == LinearLayoutManager.VERTICAL && !llm.getReverseLayout();
+	}
+
+	private void addDraw(Object key, int y)
+	{
+		if(mDrawKeys.size() == mDrawY.length)
+		{
+			mDrawY = Arrays.copyOf(mDrawY, mDrawY.length * 2);
+		}
+		mDrawY[mDrawKeys.size()] = y;
+		mDrawKeys.add(key);
+	}
+
+	/**
+	 * Make {@link #mHeaders} hold a bound header for each section key to draw, keeping the
+	 * headers already bound to those keys and rebinding others for the rest.
+	 */
+	private void bindHeaders(RecyclerView parent)
+	{
+		for(int c = 0; c < mDrawKeys.size(); c++)
+		{
+			Object key = mDrawKeys.get(c);
+			if(mHeaders.containsKey(key)){mNextHeaders.put(key, mHeaders.remove(key));}
+		}
+		//Headers of sections no longer in view are free to rebind
+		mSpare.addAll(mHeaders.values());
+		mHeaders.clear();
+		for(int c = 0; c < mDrawKeys.size(); c++)
+		{
+			Object key = mDrawKeys.get(c);
+			if(mNextHeaders.containsKey(key)){continue;}
+			View header = obtainHeader(parent);
+			mBinder.onBindHeader(header, key);
+			measureHeader(header);
+			mNextHeaders.put(key, header);
+		}
+		HashMap<Object, View> swap = mHeaders;
+		mHeaders = mNextHeaders;
+		mNextHeaders = swap;
+	}
+
+	private View obtainHeader(RecyclerView parent)
+	{
+		if(!mSpare.isEmpty()){return mSpare.remove(mSpare.size() - 1);}
+		return LayoutInflater.from(parent.getContext()).inflate(mLayoutRes, parent, false);
+	}
+
+	private int getHeaderHeight(RecyclerView parent)
+	{
+		int width = parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+		if(width != mWidth)
+		{
+			mWidth = width;
+			mHeight = -1;
+			//Spare headers are measured again when they are bound
+			for(View header : mHeaders.values())
+			{
+				measureHeader(header);
+			}
+		}
+		if(mHeight < 0)
+		{
+			//Measure a spare header until one has been bound
+			View header = obtainHeader(parent);
+			measureHeader(header);
+			mSpare.add(header);
+		}
+		return mHeight;
+	}
+
+	private void measureHeader(View header)
+	{
+		ViewGroup.LayoutParams lp = header.getLayoutParams();
+		int heightSpec = lp != null && lp.height >= 0
+				? View.MeasureSpec.makeMeasureSpec(lp.height, View.MeasureSpec.EXACTLY)
+				: View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+		header.measure(View.MeasureSpec.makeMeasureSpec(Math.max(mWidth, 0), View.MeasureSpec.EXACTLY), heightSpec);
+		header.layout(0, 0, header.getMeasuredWidth(), header.getMeasuredHeight());
+		mHeight = header.getMeasuredHeight();
+	}
+}
@@ -0,0 +1,257 @@
+package net.scarlettsystems.android.widget;
+
+import android.support.v4.text.PrecomputedTextCompat;
+import android.support.v4.widget.TextViewCompat;
+import android.util.Log;
+import android.util.LruCache;
+import android.util.SparseArray;
+import android.widget.TextView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Precomputes the text of item TextViews ahead of binding.
+ *
+ * Each declared text field pairs a TextView id of an item type with a provider of its text.
+ * The text metrics of a field are taken from its TextView the first time it is bound; from
+ * then on the text of upcoming items is measured into {@link PrecomputedTextCompat} on the
+ * background executor and cached, so that binding attaches text whose glyphs are already
+ * measured. Entries are keyed by item key, or item identity for unkeyed items, and TextView
+ * id. Precomputed text holds no line breaks, so one entry serves every width the TextView may
+ * be laid out at. Entries are only used while the provider still returns equal text for the
+ * item and the TextView still has the same text metrics; otherwise the text is set as usual.
+ * The TextViews of each item type are located through a {@link BindingPlan} of its field ids,
+ * so that holders resolve them once rather than searching their hierarchy on every bind.
+ * Must be used on the main thread.
+ */
+class TextPrefetcher
+{
+	private static final int CACHE_SIZE = 512;
+
+	static class Field
+	{
+		final int viewId;
+		final ScarlettRecyclerAdapter.TextProvider provider;
+		PrecomputedTextCompat.Params params = null;
+
+		Field(int viewId, ScarlettRecyclerAdapter.TextProvider provider)
+		{
+			this.viewId = viewId;
+			this.provider = provider;
+		}
+	}
+
+	private static class TextKey
+	{
+		//Unkeyed items are matched by identity
+		final Object item;
+		final long key;
+		final int viewId;
+
+		TextKey(Object item, long key, int viewId)
+		{
+			this.item = item;
+			this.key = key;
+			this.viewId = viewId;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if(!(o instanceof TextKey)){return false;}
+			TextKey other = (TextKey)o;
+			return viewId == other.viewId && item == other.item && key == other.key;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int hash = item != null ? System.identityHashCode(item) : (int)(key ^ (key >>> 32));
+			return 31 * hash + viewId;
+		}
+	}
+
+	private static class Entry
+	{
+		final CharSequence source;
+		final PrecomputedTextCompat text;
+
+		Entry(CharSequence source, PrecomputedTextCompat text)
+		{
+			this.source = source;
+			this.text = text;
+		}
+	}
+
+	private static class Job
+	{
+		final TextKey key;
+		final Object item;
+		final Field field;
+		final PrecomputedTextCompat.Params params;
+		CharSequence source;
+		PrecomputedTextCompat text;
+
+		Job(TextKey key, Object item, Field field)
+		{
+			this.key = key;
+			this.item = item;
+			this.field = field;
+			this.params = field.params;
+		}
+	}
+
+	private final SparseArray<List<Field>> mFields = new SparseArray<>();
+	private final SparseArray<BindingPlan> mPlans = new SparseArray<>();
+	private final LruCache<TextKey, Entry> mCache = new LruCache<>(CACHE_SIZE);
+	private final HashSet<TextKey> mPending = new HashSet<>();
+	private volatile int mGeneration = 0;
+
+	void addField(int typeCode, int viewId, ScarlettRecyclerAdapter.TextProvider provider)
+	{
+		List<Field> fields = mFields.get(typeCode);
+		if(fields == null)
+		{
+			fields = new ArrayList<>();
+			mFields.put(typeCode, fields);
+		}
+		for(int c = 0; c < fields.size(); c++)
+		{
+			if(fields.get(c).viewId == viewId)
+			{
+				fields.remove(c);
+				break;
+			}
+		}
+		fields.add(new Field(viewId, provider));
+		//Holders resolved with the previous plan resolve the new one on their next bind
+		mPlans.remove(typeCode);
+		clearCache();
+	}
+
+	List<Field> getFields(int typeCode)
+	{
+		return mFields.get(typeCode);
+	}
+
+	/**
+	 * Get the plan locating the TextViews of a type's fields, in the order of
+	 * {@link #getFields(int)}.
+	 */
+	BindingPlan getPlan(int typeCode)
+	{
+		BindingPlan plan = mPlans.get(typeCode);
+		if(plan != null){return plan;}
+		List<Field> fields = mFields.get(typeCode);
+		int[] ids = new int[fields.size()];
+		for(int c = 0; c < ids.length; c++)
+		{
+			ids[c] = fields.get(c).viewId;
+		}
+		plan = new BindingPlan(ids);
+		mPlans.put(typeCode, plan);
+		return plan;
+	}
+
+	/**
+	 * Set the text of a field's TextView, attaching precomputed text if it is cached.
+	 */
+	void bind(Field field, TextView view, Object item, long key, boolean keyed)
+	{
+		CharSequence text = field.provider.getText(item);
+		PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(view);
+		if(field.params == null){field.params = params;}
+		Entry entry = mCache.get(new TextKey(keyed ? null : item, key, field.viewId));
+		if(entry != null && text != null && entry.source.equals(text) && entry.text.getParams().equals(params))
+		{
+			TextViewCompat.setPrecomputedText(view, entry.text);
+			return;
+		}
+		view.setText(text);
+	}
+
+	/**
+	 * Precompute the text of items on the background executor, skipping fields whose
+	 * TextViews have not been bound yet and texts that are cached or already being computed.
+	 */
+	void prefetch(Object[] items, long[] keys, boolean keyed, int[] types)
+	{
+		final ArrayList<Job> jobs = new ArrayList<>();
+		for(int c = 0; c < items.length; c++)
+		{
+			List<Field> fields = mFields.get(types[c]);
+			if(fields == null || items[c] == null){continue;}
+			for(Field field : fields)
+			{
+				if(field.params == null){continue;}
+				TextKey key = new TextKey(keyed ? null : items[c], keys[c], field.viewId);
+				if(mPending.contains(key) || mCache.get(key) != null){continue;}
+				mPending.add(key);
+				jobs.add(new Job(key, items[c], field));
+			}
+		}
+		if(jobs.isEmpty()){return;}
+		final int generation = mGeneration;
+		Helpers.getBackgroundExecutor().execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					for(Job job : jobs)
+					{
+						if(generation != mGeneration){return;}
+						try
+						{
+							job.source = job.field.provider.getText(job.item);
+							if(job.source != null)
+							{
+								job.text = PrecomputedTextCompat.create(job.source, job.params);
+							}
+						}
+						catch(RuntimeException e)
+						{
+							//The text of a failed job is set as usual when bound
+							Log.w("TextPrefetcher", "Failed to precompute text.", e);
+							job.text = null;
+						}
+					}
+				}
+				finally
+				{
+					//Keys must leave the pending set even if a job fails, or they are never computed again
+					Helpers.getMainHandler().post(new Runnable()
+					{
+						@Override
+						public void run()
+						{
+							if(generation != mGeneration){return;}
+							for(Job job : jobs)
+							{
+								mPending.remove(job.key);
+								if(job.text != null){mCache.put(job.key, new Entry(job.source, job.text));}
+							}
+						}
+					});
+				}
+			}
+		});
+	}
+
+	void clearCache()
+	{
+		mGeneration++;
+		mPending.clear();
+		mCache.evictAll();
+	}
+
+	void clear()
+	{
+		mFields.clear();
+		mPlans.clear();
+		clearCache();
+	}
+}
@@ -0,0 +1,62 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ClassTypeRegistry}.
+ */
+public class ClassTypeRegistryTest
+{
+	private static class Photo {}
+	private static class Video {}
+	private static class Panorama extends Photo {}
+
+	@Test
+	public void register_givesClassesTheSameCodeInEveryRegistry()
+	{
+		ClassTypeRegistry first = new ClassTypeRegistry();
+		ClassTypeRegistry second = new ClassTypeRegistry();
+		int photo = first.register(Photo.class);
+		int video = first.register(Video.class);
+		//Registered in the other order, and only in part
+		assertEquals(video, second.register(Video.class));
+		assertEquals(photo, new ClassTypeRegistry().register(Photo.class));
+		assertEquals(photo, second.register(Photo.class));
+		assertNotEquals(photo, video);
+	}
+
+	@Test
+	public void typeCodeOf_resolvesOnlyRegisteredClasses()
+	{
+		ClassTypeRegistry registry = new ClassTypeRegistry();
+		int photo = registry.register(Photo.class);
+		assertEquals(photo, registry.typeCodeOf(new Photo()));
+		assertEquals(photo, registry.typeCodeOf(new Panorama()));
+		assertEquals(ClassTypeRegistry.NOT_FOUND, registry.typeCodeOf(new Video()));
+		assertEquals(ClassTypeRegistry.NOT_FOUND, registry.typeCodeOf(null));
+	}
+
+	@Test
+	public void register_takesOverResolvedSubclasses()
+	{
+		ClassTypeRegistry registry = new ClassTypeRegistry();
+		int photo = registry.register(Photo.class);
+		assertEquals(photo, registry.typeCodeOf(new Panorama()));
+		int panorama = registry.register(Panorama.class);
+		assertEquals(panorama, registry.typeCodeOf(new Panorama()));
+		assertEquals(photo, registry.typeCodeOf(new Photo()));
+	}
+
+	@Test
+	public void typeCodeOf_resolvesInterfaces()
+	{
+		ClassTypeRegistry registry = new ClassTypeRegistry();
+		int serializable = registry.register(Serializable.class);
+		assertEquals(serializable, registry.typeCodeOf(new ArrayList<>()));
+	}
+}
@@ -0,0 +1,120 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DatasetSnapshot}, encoding snapshots of string items and decoding them back.
+ */
+public class DatasetSnapshotTest
+{
+	private static final EasyRecyclerView.ItemCodec CODEC = new EasyRecyclerView.ItemCodec()
+	{
+		@Override
+		public void encode(Object item, int typeCode, DataOutput out) throws IOException
+		{
+			out.writeUTF((String)item);
+		}
+
+		@Override
+		public Object decode(int typeCode, DataInput in) throws IOException
+		{
+			//Type codes are restored before items, so the codec can rely on them
+			String item = in.readUTF();
+			assertTrue(item.startsWith(typeCode + ":"));
+			return item;
+		}
+	};
+
+	@Test
+	public void roundTrip_restoresRunsOfTypes()
+	{
+		int[] types = new int[1000];
+		Arrays.fill(types, 0, 600, 1);
+		Arrays.fill(types, 600, 1000, 4);
+		assertRoundTrip(types, 12, -30);
+	}
+
+	@Test
+	public void roundTrip_restoresMixedTypes()
+	{
+		Random random = new Random(9);
+		int[] types = new int[1000];
+		for(int c = 0; c < types.length; c++)
+		{
+			types[c] = random.nextInt(20);
+		}
+		assertRoundTrip(types, 0, 0);
+	}
+
+	@Test
+	public void roundTrip_restoresEmptyDataset()
+	{
+		assertRoundTrip(new int[0], -1, 0);
+	}
+
+	@Test
+	public void runs_areSmallerThanPackedTypes() throws IOException
+	{
+		int[] runs = new int[1000];
+		int[] mixed = new int[1000];
+		for(int c = 0; c < mixed.length; c++)
+		{
+			mixed[c] = c % 2;
+		}
+		assertTrue(encode(runs, 0, 0).length + 4 * 900 < encode(mixed, 0, 0).length);
+	}
+
+	@Test(expected = IOException.class)
+	public void decode_rejectsOtherData() throws IOException
+	{
+		DatasetSnapshot.decode(new ByteArrayInputStream(new byte[64]), CODEC);
+	}
+
+	@Test(expected = IOException.class)
+	public void decode_rejectsTruncatedSnapshot() throws IOException
+	{
+		byte[] bytes = encode(new int[]{1, 1, 2}, 0, 0);
+		DatasetSnapshot.decode(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3)), CODEC);
+	}
+
+	private static void assertRoundTrip(int[] types, int anchorPosition, int anchorOffset)
+	{
+		try
+		{
+			DatasetSnapshot snapshot = DatasetSnapshot.decode(
+					new ByteArrayInputStream(encode(types, anchorPosition, anchorOffset)), CODEC);
+			assertArrayEquals(types, snapshot.types);
+			assertArrayEquals(items(types), snapshot.items);
+			assertEquals(anchorPosition, snapshot.anchorPosition);
+			assertEquals(anchorOffset, snapshot.anchorOffset);
+		}
+		catch(IOException e)
+		{
+			throw new AssertionError(e);
+		}
+	}
+
+	private static byte[] encode(int[] types, int anchorPosition, int anchorOffset) throws IOException
+	{
+		return new DatasetSnapshot(items(types), types, anchorPosition, anchorOffset).encode(CODEC);
+	}
+
+	private static Object[] items(int[] types)
+	{
+		Object[] items = new Object[types.length];
+		for(int c = 0; c < types.length; c++)
+		{
+			items[c] = types[c] + ":" + c;
+		}
+		return items;
+	}
+}
@@ -0,0 +1,390 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FilteredView}. Chunks are filtered when the test runs their tasks, in any
+ * order, and every notification is applied to a model of the displayed list, which must agree
+ * with the view after each update.
+ */
+public class FilteredViewTest
+{
+	private static final int ITEM_COUNT = 5000;
+
+	private ItemStore mStore;
+	private FilteredView mView;
+	private final List<Runnable> mTasks = new ArrayList<>();
+	//Store indices of the displayed items as notified, with -1 for items just inserted
+	private final List<Integer> mModel = new ArrayList<>();
+	private int mInserted;
+	private int mRemoved;
+	private boolean mReleased;
+	//Items of the store before it was replaced, while the view is told of the replacement
+	private Object[] mReplacedItems;
+
+	@Before
+	public void setUp()
+	{
+		mStore = new ItemStore();
+		List<Integer> items = new ArrayList<>();
+		for(int c = 0; c < ITEM_COUNT; c++)
+		{
+			items.add(c);
+			mModel.add(c);
+		}
+		mStore.addAll(0, items, 0);
+		mView = new FilteredView(mStore, new FilteredView.Listener()
+		{
+			@Override
+			public void onUpdateStarted(){}
+
+			@Override
+			public void onInserted(int position, int count)
+			{
+				mInserted += count;
+				mModel.addAll(position, Collections.nCopies(count, -1));
+			}
+
+			@Override
+			public void onRemoved(int position, int count)
+			{
+				mRemoved += count;
+				mModel.subList(position, position + count).clear();
+			}
+
+			@Override
+			public void onMoved(int fromPosition, int toPosition)
+			{
+				mModel.add(toPosition, mModel.remove(fromPosition));
+			}
+
+			@Override
+			public void onUpdateFinished()
+			{
+				//A released view no longer maps positions
+				if(mReplacedItems != null){remapModel();}
+				if(!mReleased){assertModelMatchesView();}
+			}
+		}, new Executor()
+		{
+			@Override
+			public void execute(Runnable runnable)
+			{
+				mTasks.add(runnable);
+			}
+		}, new Executor()
+		{
+			@Override
+			public void execute(Runnable runnable)
+			{
+				runnable.run();
+			}
+		});
+	}
+
+	@Test
+	public void setFilter_publishesChunksInStoreOrder()
+	{
+		mView.setFilter(multiplesOf(2));
+		assertTrue(mView.isFiltering());
+		//Later chunks finish first, and are held back until the first one is published
+		List<Runnable> tasks = takeTasks();
+		for(int c = tasks.size() - 1; c > 0; c--)
+		{
+			tasks.get(c).run();
+			assertEquals(ITEM_COUNT, mView.size());
+		}
+		tasks.get(0).run();
+		assertFalse(mView.isFiltering());
+		assertDisplayed(multiplesOf(2));
+	}
+
+	@Test
+	public void setFilter_replacesPreviousResultsFromTheTop()
+	{
+		mView.setFilter(multiplesOf(2));
+		runTasks();
+		mView.setFilter(multiplesOf(3));
+		List<Runnable> tasks = takeTasks();
+		tasks.get(0).run();
+		//Past the first chunk, the previous filter's results are still displayed
+		for(int c = 0; c < mView.size(); c++)
+		{
+			int item = (Integer)mStore.get(mView.storeIndex(c));
+			assertTrue(item < 1024 ? item % 3 == 0 : item % 2 == 0);
+		}
+		for(Runnable task : tasks)
+		{
+			task.run();
+		}
+		assertDisplayed(multiplesOf(3));
+	}
+
+	@Test
+	public void setFilter_notifiesOnlyChangedItems()
+	{
+		mView.setFilter(multiplesOf(2));
+		runTasks();
+		mInserted = 0;
+		mRemoved = 0;
+		mView.setFilter(multiplesOf(4));
+		runTasks();
+		assertDisplayed(multiplesOf(4));
+		assertEquals(0, mInserted);
+		assertEquals(ITEM_COUNT / 4, mRemoved);
+	}
+
+	@Test
+	public void setFilter_abandonsEarlierPass()
+	{
+		mView.setFilter(multiplesOf(2));
+		List<Runnable> abandoned = takeTasks();
+		abandoned.get(0).run();
+		mView.setFilter(multiplesOf(5));
+		for(Runnable task : abandoned)
+		{
+			task.run();
+		}
+		runTasks();
+		assertDisplayed(multiplesOf(5));
+	}
+
+	@Test
+	public void onInserted_filtersSmallInsertionsImmediately()
+	{
+		mView.setFilter(multiplesOf(2));
+		runTasks();
+		List<Integer> items = new ArrayList<>();
+		for(int c = 0; c < 10; c++)
+		{
+			items.add(10000 + c);
+		}
+		insert(100, items);
+		assertTrue(mTasks.isEmpty());
+		assertDisplayed(multiplesOf(2));
+	}
+
+	@Test
+	public void onInserted_restartsRunningPass()
+	{
+		mView.setFilter(multiplesOf(2));
+		takeTasks().get(0).run();
+		insert(2000, Collections.<Integer>singletonList(20000));
+		runTasks();
+		assertDisplayed(multiplesOf(2));
+	}
+
+	@Test
+	public void release_reinsertsHiddenRanges()
+	{
+		mView.setFilter(multiplesOf(3));
+		runTasks();
+		release();
+	}
+
+	@Test
+	public void release_discardsRunningPass()
+	{
+		mView.setFilter(multiplesOf(7));
+		takeTasks().get(0).run();
+		release();
+		runTasks();
+		assertEquals(ITEM_COUNT, mModel.size());
+	}
+
+	@Test
+	public void replaceAll_keepsItemsStillPresent()
+	{
+		mView.setFilter(multiplesOf(2));
+		runTasks();
+		List<Integer> items = new ArrayList<>();
+		for(int c = 0; c < ITEM_COUNT; c++)
+		{
+			if(c % 3 != 0){items.add(c);}
+		}
+		mInserted = 0;
+		mRemoved = 0;
+		replaceAll(items);
+		//Only items that are gone are removed, and nothing is shown empty
+		assertEquals(0, mInserted);
+		assertEquals((ITEM_COUNT + 5) / 6, mRemoved);
+		runTasks();
+		assertEquals(0, mInserted);
+		assertDisplayed(multiplesOf(2));
+	}
+
+	@Test
+	public void replaceAll_removesItemsOutOfOrder()
+	{
+		mView.setFilter(multiplesOf(5));
+		runTasks();
+		List<Integer> items = new ArrayList<>();
+		for(int c = 0; c < ITEM_COUNT; c++)
+		{
+			items.add(c < 100 ? 99 - c : c);
+		}
+		mRemoved = 0;
+		replaceAll(items);
+		//Of the reversed items, one stays in place
+		assertEquals(19, mRemoved);
+		runTasks();
+		assertDisplayed(multiplesOf(5));
+	}
+
+	@Test
+	public void replaceAll_removesChangedItems()
+	{
+		mView.setFilter(multiplesOf(2));
+		runTasks();
+		List<Integer> items = new ArrayList<>();
+		for(int c = 0; c < ITEM_COUNT; c++)
+		{
+			items.add(c);
+		}
+		mRemoved = 0;
+		replaceAll(items);
+		assertEquals(0, mRemoved);
+		//Items of another type count as changed
+		int[] types = new int[ITEM_COUNT];
+		types[10] = 1;
+		mView.onReplacingAll();
+		mReplacedItems = mStore.copyItems();
+		mStore.setAll(items.toArray(), types);
+		mView.onReplacedAll();
+		mReplacedItems = null;
+		assertEquals(1, mRemoved);
+		runTasks();
+		assertDisplayed(multiplesOf(2));
+	}
+
+	@Test
+	public void increasingSubsequence_skipsMissingValues()
+	{
+		boolean[] flags = FilteredView.increasingSubsequence(new int[]{3, -1, 1, 2, 8, 4, -1, 5, 0});
+		assertArrayEquals(new boolean[]{false, false, true, true, false, true, false, true, false}, flags);
+		assertEquals(0, FilteredView.increasingSubsequence(new int[0]).length);
+	}
+
+	private static ScarlettRecyclerAdapter.ItemFilter multiplesOf(final int divisor)
+	{
+		return new ScarlettRecyclerAdapter.ItemFilter()
+		{
+			@Override
+			public boolean matches(Object item)
+			{
+				return (Integer)item % divisor == 0;
+			}
+		};
+	}
+
+	/**
+	 * Release the view, checking that every item is displayed again with the items that
+	 * stayed displayed in their own places.
+	 */
+	private void release()
+	{
+		mReleased = true;
+		mView.release();
+		assertEquals(ITEM_COUNT, mModel.size());
+		for(int c = 0; c < ITEM_COUNT; c++)
+		{
+			int storeIndex = mModel.get(c);
+			assertTrue(storeIndex == -1 || storeIndex == c);
+		}
+	}
+
+	/**
+	 * Replace every item of the store with {@code items}, all of type 0.
+	 */
+	private void replaceAll(List<Integer> items)
+	{
+		mView.onReplacingAll();
+		mReplacedItems = mStore.copyItems();
+		mStore.setAll(items.toArray(), new int[items.size()]);
+		mView.onReplacedAll();
+		mReplacedItems = null;
+	}
+
+	/**
+	 * Map the store indices of the model from the replaced items to the new ones.
+	 */
+	private void remapModel()
+	{
+		Map<Object, Integer> indices = new HashMap<>();
+		for(int c = 0; c < mStore.size(); c++)
+		{
+			indices.put(mStore.get(c), c);
+		}
+		for(int c = 0; c < mModel.size(); c++)
+		{
+			if(mModel.get(c) >= 0){mModel.set(c, indices.get(mReplacedItems[mModel.get(c)]));}
+		}
+		mReplacedItems = null;
+	}
+
+	private void insert(int index, List<Integer> items)
+	{
+		mStore.addAll(index, items, 0);
+		for(int c = 0; c < mModel.size(); c++)
+		{
+			if(mModel.get(c) >= index){mModel.set(c, mModel.get(c) + items.size());}
+		}
+		mView.onInserted(index, items.size());
+	}
+
+	private List<Runnable> takeTasks()
+	{
+		List<Runnable> tasks = new ArrayList<>(mTasks);
+		mTasks.clear();
+		return tasks;
+	}
+
+	private void runTasks()
+	{
+		while(!mTasks.isEmpty())
+		{
+			for(Runnable task : takeTasks())
+			{
+				task.run();
+			}
+		}
+	}
+
+	private void assertModelMatchesView()
+	{
+		assertEquals(mView.size(), mModel.size());
+		for(int c = 0; c < mModel.size(); c++)
+		{
+			if(mModel.get(c) == -1)
+			{
+				mModel.set(c, mView.storeIndex(c));
+			}
+			assertEquals(mView.storeIndex(c), (int)mModel.get(c));
+		}
+	}
+
+	private void assertDisplayed(ScarlettRecyclerAdapter.ItemFilter filter)
+	{
+		List<Integer> expected = new ArrayList<>();
+		for(int c = 0; c < mStore.size(); c++)
+		{
+			if(filter.matches(mStore.get(c))){expected.add(c);}
+		}
+		assertEquals(expected, mModel);
+		assertEquals(expected.size(), mView.size());
+		for(int c = 0; c < expected.size(); c++)
+		{
+			assertEquals((int)expected.get(c), mView.storeIndex(c));
+		}
+	}
+}
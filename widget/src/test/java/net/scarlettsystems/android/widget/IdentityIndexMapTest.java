@@ -0,0 +1,83 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Test;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link IdentityIndexMap}, comparing it against an {@link IdentityHashMap} model.
+ */
+public class IdentityIndexMapTest
+{
+	@Test
+	public void get_matchesByIdentityNotEquality()
+	{
+		IdentityIndexMap map = new IdentityIndexMap();
+		String a = new String("item");
+		String b = new String("item");
+		map.put(a, 1);
+		assertEquals(1, map.get(a));
+		assertEquals(IdentityIndexMap.NOT_FOUND, map.get(b));
+	}
+
+	@Test
+	public void remove_ignoresUnexpectedValue()
+	{
+		IdentityIndexMap map = new IdentityIndexMap();
+		Object item = new Object();
+		map.put(item, 1);
+		map.remove(item, 2);
+		assertEquals(1, map.get(item));
+		map.remove(item, 1);
+		assertEquals(IdentityIndexMap.NOT_FOUND, map.get(item));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	public void randomEdits_matchIdentityHashMap()
+	{
+		Random random = new Random(4);
+		Object[] keys = new Object[200];
+		for(int c = 0; c < keys.length; c++)
+		{
+			keys[c] = new Object();
+		}
+		IdentityIndexMap map = new IdentityIndexMap();
+		Map<Object, Integer> model = new IdentityHashMap<>();
+		for(int c = 0; c < 20000; c++)
+		{
+			Object key = keys[random.nextInt(keys.length)];
+			int value = random.nextInt(1000);
+			switch(random.nextInt(3))
+			{
+				case 0:
+					Integer previous = model.put(key, value);
+					assertEquals(previous == null ? IdentityIndexMap.NOT_FOUND : previous, map.put(key, value));
+					break;
+				case 1:
+					if(model.containsKey(key))
+					{
+						map.remove(key, model.remove(key));
+					}
+					break;
+				default:
+					if(model.containsKey(key))
+					{
+						map.replace(key, model.get(key), value);
+						model.put(key, value);
+					}
+					break;
+			}
+			assertEquals(model.size(), map.size());
+			for(Object k : keys)
+			{
+				Integer expected = model.get(k);
+				assertEquals(expected == null ? IdentityIndexMap.NOT_FOUND : expected, map.get(k));
+			}
+		}
+	}
+}
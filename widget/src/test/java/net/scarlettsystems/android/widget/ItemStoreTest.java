@@ -0,0 +1,326 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ItemStore}, comparing its gap buffer against a plain list model.
+ */
+public class ItemStoreTest
+{
+	private ItemStore mStore;
+	private List<Object> mItems;
+	private List<Integer> mTypes;
+	private int mNextItem;
+
+	@Before
+	public void setUp()
+	{
+		mStore = new ItemStore();
+		mItems = new ArrayList<>();
+		mTypes = new ArrayList<>();
+		mNextItem = 0;
+	}
+
+	@Test
+	public void add_appendsAndInsertsInOrder()
+	{
+		add(0);
+		add(1);
+		add(0);
+		add(2);
+		assertContents();
+	}
+
+	@Test
+	public void add_growsPastInitialCapacity()
+	{
+		for(int c = 0; c < 100; c++)
+		{
+			add(c / 2);
+		}
+		assertContents();
+	}
+
+	@Test
+	public void removeRange_movesGapBackwardsAndForwards()
+	{
+		for(int c = 0; c < 40; c++)
+		{
+			add(c);
+		}
+		removeRange(30, 5);
+		removeRange(2, 3);
+		removeRange(20, 10);
+		assertContents();
+	}
+
+	@Test
+	public void move_reordersItems()
+	{
+		for(int c = 0; c < 10; c++)
+		{
+			add(c);
+		}
+		move(0, 9);
+		move(9, 0);
+		move(3, 6);
+		move(7, 2);
+		assertContents();
+	}
+
+	@Test
+	public void setAll_replacesContents()
+	{
+		for(int c = 0; c < 10; c++)
+		{
+			add(c);
+		}
+		Object[] items = {"a", "b", "c"};
+		int[] types = {3, 2, 1};
+		mStore.setAll(items, types);
+		mItems = new ArrayList<>(Arrays.asList(items));
+		mTypes = new ArrayList<>(Arrays.asList(3, 2, 1));
+		assertContents();
+		add(1);
+		assertContents();
+	}
+
+	@Test
+	public void clear_emptiesStore()
+	{
+		for(int c = 0; c < 20; c++)
+		{
+			add(c);
+		}
+		mStore.clear();
+		mItems.clear();
+		mTypes.clear();
+		assertContents();
+		add(0);
+		assertContents();
+	}
+
+	@Test
+	public void modCount_changesOnEveryEdit()
+	{
+		int modCount = mStore.getModCount();
+		add(0);
+		assertNotEquals(modCount, mStore.getModCount());
+		modCount = mStore.getModCount();
+		mStore.set(0, "x", 1);
+		assertNotEquals(modCount, mStore.getModCount());
+		modCount = mStore.getModCount();
+		mStore.remove(0);
+		assertNotEquals(modCount, mStore.getModCount());
+		modCount = mStore.getModCount();
+		mStore.setKeyProvider(new ScarlettRecyclerAdapter.ItemKeyProvider()
+		{
+			@Override
+			public long getKey(Object item)
+			{
+				return item.hashCode();
+			}
+		});
+		assertNotEquals(modCount, mStore.getModCount());
+	}
+
+	@Test
+	public void randomEdits_matchListModel()
+	{
+		Random random = new Random(1);
+		for(int c = 0; c < 5000; c++)
+		{
+			int size = mItems.size();
+			switch(random.nextInt(6))
+			{
+				case 0:
+				case 1:
+					add(random.nextInt(size + 1));
+					break;
+				case 2:
+					addAll(random.nextInt(size + 1), 1 + random.nextInt(20));
+					break;
+				case 3:
+					if(size > 0)
+					{
+						int index = random.nextInt(size);
+						removeRange(index, 1 + random.nextInt(Math.min(size - index, 10)));
+					}
+					break;
+				case 4:
+					if(size > 0){move(random.nextInt(size), random.nextInt(size));}
+					break;
+				default:
+					if(size > 0)
+					{
+						int index = random.nextInt(size);
+						Object item = mNextItem++;
+						mStore.set(index, item, index);
+						mItems.set(index, item);
+						mTypes.set(index, index);
+					}
+					break;
+			}
+			assertContents();
+		}
+	}
+
+	@Test
+	public void keys_followItemsThroughEdits()
+	{
+		mStore.setKeyProvider(new ScarlettRecyclerAdapter.ItemKeyProvider()
+		{
+			@Override
+			public long getKey(Object item)
+			{
+				return (Integer)item * 10L;
+			}
+		});
+		Random random = new Random(3);
+		for(int c = 0; c < 2000; c++)
+		{
+			int size = mItems.size();
+			int op = random.nextInt(4);
+			if(op == 0 || size == 0){add(random.nextInt(size + 1));}
+			else if(op == 1){addAll(random.nextInt(size + 1), 1 + random.nextInt(5));}
+			else if(op == 2){removeRange(random.nextInt(size), 1);}
+			else{move(random.nextInt(size), random.nextInt(size));}
+			assertKeys();
+		}
+	}
+
+	@Test
+	public void setKeyProvider_reindexesExistingItems()
+	{
+		for(int c = 0; c < 30; c++)
+		{
+			add(c);
+		}
+		removeRange(10, 5);
+		mStore.setKeyProvider(new ScarlettRecyclerAdapter.ItemKeyProvider()
+		{
+			@Override
+			public long getKey(Object item)
+			{
+				return (Integer)item * 10L;
+			}
+		});
+		assertTrue(mStore.hasKeys());
+		assertKeys();
+		assertEquals(-1, mStore.indexOfKey(12 * 10L));
+		mStore.setKeyProvider(null);
+		assertFalse(mStore.hasKeys());
+		assertEquals(-1, mStore.indexOfKey(0));
+	}
+
+	@Test
+	public void identityIndex_followsItemsThroughEdits()
+	{
+		mStore.setIdentityIndexEnabled(true);
+		Random random = new Random(5);
+		for(int c = 0; c < 2000; c++)
+		{
+			int size = mItems.size();
+			int op = random.nextInt(4);
+			if(op == 0 || size == 0){add(random.nextInt(size + 1));}
+			else if(op == 1){addAll(random.nextInt(size + 1), 1 + random.nextInt(5));}
+			else if(op == 2){removeRange(random.nextInt(size), 1);}
+			else{move(random.nextInt(size), random.nextInt(size));}
+			assertContents();
+			for(int i = 0; i < mItems.size(); i++)
+			{
+				assertEquals(i, mStore.indexOf(mItems.get(i)));
+			}
+		}
+	}
+
+	@Test
+	public void identityIndex_findsRemainingCopyOfDuplicate()
+	{
+		mStore.setIdentityIndexEnabled(true);
+		Object item = new Object();
+		mStore.add(0, "a", 0);
+		mStore.add(1, item, 0);
+		mStore.add(2, "b", 0);
+		mStore.add(3, item, 0);
+		mStore.remove(3);
+		assertEquals(1, mStore.indexOf(item));
+		mStore.remove(1);
+		assertEquals(-1, mStore.indexOf(item));
+	}
+
+	private void add(int index)
+	{
+		Object item = mNextItem++;
+		mStore.add(index, item, index % 7);
+		mItems.add(index, item);
+		mTypes.add(index, index % 7);
+	}
+
+	private void addAll(int index, int count)
+	{
+		List<Object> items = new ArrayList<>();
+		int[] types = new int[count];
+		for(int c = 0; c < count; c++)
+		{
+			items.add(mNextItem++);
+			types[c] = c;
+			mTypes.add(index + c, c);
+		}
+		mStore.addAll(index, items, types);
+		mItems.addAll(index, items);
+	}
+
+	private void removeRange(int index, int count)
+	{
+		mStore.removeRange(index, count);
+		for(int c = 0; c < count; c++)
+		{
+			mItems.remove(index);
+			mTypes.remove(index);
+		}
+	}
+
+	private void move(int fromIndex, int toIndex)
+	{
+		mStore.move(fromIndex, toIndex);
+		mItems.add(toIndex, mItems.remove(fromIndex));
+		mTypes.add(toIndex, mTypes.remove(fromIndex));
+	}
+
+	private void assertKeys()
+	{
+		assertContents();
+		long[] keys = mStore.copyKeys();
+		for(int c = 0; c < mItems.size(); c++)
+		{
+			long key = (Integer)mItems.get(c) * 10L;
+			assertEquals(key, mStore.getKey(c));
+			assertEquals(key, keys[c]);
+			assertEquals(c, mStore.indexOfKey(key));
+			assertEquals(c, mStore.indexOf(mItems.get(c)));
+		}
+		assertEquals(-1, mStore.indexOfKey(-10));
+	}
+
+	private void assertContents()
+	{
+		assertEquals(mItems.size(), mStore.size());
+		int[] types = mStore.copyTypes();
+		for(int c = 0; c < mItems.size(); c++)
+		{
+			assertSame(mItems.get(c), mStore.get(c));
+			assertEquals((int)mTypes.get(c), mStore.getType(c));
+			assertEquals((int)mTypes.get(c), types[c]);
+		}
+		assertArrayEquals(mItems.toArray(), mStore.copyItems());
+	}
+}
@@ -0,0 +1,83 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the histogram bucket math of {@link ItemTimingRecorder}.
+ */
+public class ItemTimingRecorderTest
+{
+	@Test
+	public void bucketOf_smallValuesHaveTheirOwnBuckets()
+	{
+		for(int c = 0; c < 8; c++)
+		{
+			assertEquals(c, ItemTimingRecorder.upperBound(ItemTimingRecorder.bucketOf(c)));
+		}
+		assertEquals(0, ItemTimingRecorder.bucketOf(-5));
+	}
+
+	@Test
+	public void bucketOf_isMonotonicAndContiguous()
+	{
+		int previous = ItemTimingRecorder.bucketOf(0);
+		for(long nanos = 1; nanos < 100000; nanos++)
+		{
+			int bucket = ItemTimingRecorder.bucketOf(nanos);
+			assertTrue(bucket == previous || bucket == previous + 1);
+			if(bucket != previous)
+			{
+				//A new bucket starts right after the previous one ends
+				assertEquals(nanos - 1, ItemTimingRecorder.upperBound(previous));
+			}
+			previous = bucket;
+		}
+	}
+
+	@Test
+	public void bucketOf_staysWithinQuarterOfValue()
+	{
+		Random random = new Random(6);
+		for(int c = 0; c < 100000; c++)
+		{
+			long nanos = (random.nextLong() >>> 1) >>> random.nextInt(63);
+			int bucket = ItemTimingRecorder.bucketOf(nanos);
+			assertTrue(bucket < ItemTimingRecorder.bucketCount());
+			long upper = ItemTimingRecorder.upperBound(bucket);
+			assertTrue(upper >= nanos);
+			assertTrue(upper - nanos <= nanos / 4);
+		}
+		int last = ItemTimingRecorder.bucketOf(Long.MAX_VALUE);
+		assertTrue(last < ItemTimingRecorder.bucketCount());
+		assertEquals(Long.MAX_VALUE, ItemTimingRecorder.upperBound(last));
+	}
+
+	@Test
+	public void quantile_approximatesSortedSamples()
+	{
+		Random random = new Random(7);
+		long[] samples = new long[1001];
+		int[] buckets = new int[ItemTimingRecorder.bucketCount()];
+		long max = 0;
+		for(int c = 0; c < samples.length; c++)
+		{
+			samples[c] = 1000 + random.nextInt(5000000);
+			buckets[ItemTimingRecorder.bucketOf(samples[c])]++;
+			max = Math.max(max, samples[c]);
+		}
+		Arrays.sort(samples);
+		for(double q : new double[]{0.5, 0.95})
+		{
+			long exact = samples[(int)Math.ceil(q * samples.length) - 1];
+			long estimate = ItemTimingRecorder.quantile(buckets, samples.length, max, q);
+			assertTrue(estimate >= exact);
+			assertTrue(estimate - exact <= exact / 4);
+		}
+		assertEquals(max, ItemTimingRecorder.quantile(buckets, samples.length, max, 1.0));
+	}
+}
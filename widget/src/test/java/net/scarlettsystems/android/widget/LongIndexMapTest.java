@@ -0,0 +1,106 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LongIndexMap}, comparing it against a {@link HashMap} model.
+ */
+public class LongIndexMapTest
+{
+	@Test
+	public void put_returnsPreviousValue()
+	{
+		LongIndexMap map = new LongIndexMap();
+		assertEquals(LongIndexMap.NOT_FOUND, map.put(5, 1));
+		assertEquals(1, map.put(5, 2));
+		assertEquals(2, map.get(5));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	public void remove_ignoresUnexpectedValue()
+	{
+		LongIndexMap map = new LongIndexMap();
+		map.put(5, 1);
+		map.remove(5, 2);
+		assertEquals(1, map.get(5));
+		map.remove(5, 1);
+		assertEquals(LongIndexMap.NOT_FOUND, map.get(5));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	public void replace_ignoresUnexpectedValue()
+	{
+		LongIndexMap map = new LongIndexMap();
+		map.put(5, 1);
+		map.replace(5, 2, 3);
+		assertEquals(1, map.get(5));
+		map.replace(5, 1, 3);
+		assertEquals(3, map.get(5));
+		map.replace(6, LongIndexMap.NOT_FOUND, 3);
+		assertEquals(LongIndexMap.NOT_FOUND, map.get(6));
+	}
+
+	@Test
+	public void randomEdits_matchHashMap()
+	{
+		//A small key range keeps the table crowded, so deletions shift long probe runs
+		Random random = new Random(2);
+		LongIndexMap map = new LongIndexMap();
+		Map<Long, Integer> model = new HashMap<>();
+		for(int c = 0; c < 20000; c++)
+		{
+			long key = random.nextInt(300) - 150;
+			int value = random.nextInt(1000);
+			switch(random.nextInt(3))
+			{
+				case 0:
+					Integer previous = model.put(key, value);
+					assertEquals(previous == null ? LongIndexMap.NOT_FOUND : previous, map.put(key, value));
+					break;
+				case 1:
+					if(model.containsKey(key))
+					{
+						map.remove(key, model.remove(key));
+					}
+					break;
+				default:
+					if(model.containsKey(key))
+					{
+						map.replace(key, model.get(key), value);
+						model.put(key, value);
+					}
+					break;
+			}
+			assertEquals(model.size(), map.size());
+			for(long k = -150; k < 150; k++)
+			{
+				Integer expected = model.get(k);
+				assertEquals(expected == null ? LongIndexMap.NOT_FOUND : expected, map.get(k));
+			}
+		}
+	}
+
+	@Test
+	public void clear_removesEverything()
+	{
+		LongIndexMap map = new LongIndexMap();
+		for(int c = 0; c < 100; c++)
+		{
+			map.put(c, c);
+		}
+		map.clear();
+		assertEquals(0, map.size());
+		for(int c = 0; c < 100; c++)
+		{
+			assertEquals(LongIndexMap.NOT_FOUND, map.get(c));
+		}
+	}
+}
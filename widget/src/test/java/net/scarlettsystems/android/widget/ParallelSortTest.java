@@ -0,0 +1,144 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ParallelSort}, comparing it against {@link Arrays#sort(Object[], Comparator)}.
+ */
+public class ParallelSortTest
+{
+	//Orders entries by key alone, so entries with equal keys keep their original order
+	private static final Comparator<int[]> BY_KEY = new Comparator<int[]>()
+	{
+		@Override
+		public int compare(int[] a, int[] b)
+		{
+			return a[0] < b[0] ? -1 : (a[0] == b[0] ? 0 : 1);
+		}
+	};
+
+	private static final Executor NEVER_RUNS = new Executor()
+	{
+		@Override
+		public void execute(Runnable runnable){}
+	};
+
+	@Test
+	public void sort_isStableAcrossRuns()
+	{
+		//Few distinct keys, so runs are merged over long stretches of ties
+		int[][] entries = entries(50000, 10, 1);
+		int[][] expected = entries.clone();
+		Arrays.sort(expected, BY_KEY);
+		ParallelSort.sort(entries, BY_KEY, NEVER_RUNS, 4);
+		assertSameEntries(expected, entries);
+	}
+
+	@Test
+	public void sort_matchesSequentialSortForAnyRunCount()
+	{
+		for(int parallelism = 1; parallelism <= 9; parallelism++)
+		{
+			int length = 8192 + parallelism * 3001;
+			int[][] entries = entries(length, length / 3, parallelism);
+			int[][] expected = entries.clone();
+			Arrays.sort(expected, BY_KEY);
+			ParallelSort.sort(entries, BY_KEY, NEVER_RUNS, parallelism);
+			assertSameEntries(expected, entries);
+		}
+	}
+
+	@Test
+	public void sort_doesNotWaitForQueuedWorkers()
+	{
+		//Workers that never run must not hold up the sort, whichever thread finishes it
+		final List<Runnable> queued = new ArrayList<>();
+		int[][] entries = entries(30000, 100, 4);
+		int[][] expected = entries.clone();
+		Arrays.sort(expected, BY_KEY);
+		ParallelSort.sort(entries, BY_KEY, new Executor()
+		{
+			@Override
+			public void execute(Runnable runnable)
+			{
+				queued.add(runnable);
+			}
+		}, 6);
+		assertSameEntries(expected, entries);
+		//Workers run late find nothing left to do
+		for(Runnable worker : queued)
+		{
+			worker.run();
+		}
+		assertSameEntries(expected, entries);
+	}
+
+	@Test
+	public void sort_sharesRunsWithRunningWorkers() throws InterruptedException
+	{
+		final List<Thread> threads = new ArrayList<>();
+		int[][] entries = entries(60000, 1000, 5);
+		int[][] expected = entries.clone();
+		Arrays.sort(expected, BY_KEY);
+		ParallelSort.sort(entries, BY_KEY, new Executor()
+		{
+			@Override
+			public void execute(Runnable runnable)
+			{
+				Thread thread = new Thread(runnable);
+				threads.add(thread);
+				thread.start();
+			}
+		}, 7);
+		assertSameEntries(expected, entries);
+		for(Thread thread : threads)
+		{
+			thread.join();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void sort_rethrowsComparatorFailure()
+	{
+		ParallelSort.sort(entries(20000, 100, 6), new Comparator<int[]>()
+		{
+			@Override
+			public int compare(int[] a, int[] b)
+			{
+				throw new IllegalStateException();
+			}
+		}, NEVER_RUNS, 4);
+	}
+
+	/**
+	 * Create {@code length} entries of a random key below {@code keys} and their original index.
+	 */
+	private static int[][] entries(int length, int keys, long seed)
+	{
+		Random random = new Random(seed);
+		int[][] entries = new int[length][];
+		for(int c = 0; c < length; c++)
+		{
+			entries[c] = new int[]{random.nextInt(keys), c};
+		}
+		return entries;
+	}
+
+	private static void assertSameEntries(int[][] expected, int[][] actual)
+	{
+		assertEquals(expected.length, actual.length);
+		for(int c = 0; c < expected.length; c++)
+		{
+			assertTrue(expected[c] == actual[c]);
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SectionIndex}. Edits are made to a list of section keys standing in for the
+ * displayed items and notified to the index, which must then agree with a scan of the list.
+ */
+public class SectionIndexTest
+{
+	private final List<Object> mItems = new ArrayList<>();
+	private SectionIndex mIndex;
+	private int mLookups;
+
+	@Before
+	public void setUp()
+	{
+		SectionIndex.Items items = new SectionIndex.Items()
+		{
+			@Override
+			public int getItemCount()
+			{
+				return mItems.size();
+			}
+
+			@Override
+			public Object getItem(int position)
+			{
+				return mItems.get(position);
+			}
+		};
+		mIndex = new SectionIndex(items, new ScarlettRecyclerAdapter.SectionResolver()
+		{
+			@Override
+			public Object getSection(Object item)
+			{
+				mLookups++;
+				return item;
+			}
+		});
+	}
+
+	@Test
+	public void sections_areRunsOfEqualKeys()
+	{
+		insert(0, "a", "a", "b", null, null, "a");
+		assertSections();
+		assertEquals(4, mIndex.getSectionCount());
+		assertEquals(3, mIndex.getSectionForPosition(5));
+		assertEquals(-1, mIndex.getSectionForPosition(6));
+	}
+
+	@Test
+	public void insert_splitsAndJoinsSections()
+	{
+		insert(0, "a", "a", "b", "b");
+		assertSections();
+		insert(1, "c");
+		assertSections();
+		insert(4, "a");
+		assertSections();
+		insert(0, "a");
+		assertSections();
+	}
+
+	@Test
+	public void remove_joinsNeighbouringSections()
+	{
+		insert(0, "a", "b", "a", "c", "c");
+		assertSections();
+		remove(1, 1);
+		assertSections();
+		remove(2, 2);
+		assertSections();
+		remove(0, 2);
+		assertSections();
+	}
+
+	@Test
+	public void change_reexaminesChangedItemsAndTheirNeighbours()
+	{
+		insert(0, "a", "a", "a", "b");
+		assertSections();
+		change(1, "b");
+		assertSections();
+		change(3, "a");
+		assertSections();
+	}
+
+	@Test
+	public void dirtyRanges_areRepairedWithoutRescanning()
+	{
+		List<Object> items = new ArrayList<>();
+		for(int c = 0; c < 10000; c++)
+		{
+			items.add(c / 10);
+		}
+		insert(0, items.toArray());
+		assertSections();
+		mLookups = 0;
+		insert(5000, "x", "x");
+		remove(200, 3);
+		change(9000, "y");
+		mIndex.getSectionCount();
+		//Only the edited ranges and the items before them are looked up again
+		assertTrue(mLookups < 20);
+		assertSections();
+	}
+
+	@Test
+	public void tooManyDirtyRanges_rebuildTheIndex()
+	{
+		insert(0, "a", "b", "c");
+		for(int c = 0; c < 200; c++)
+		{
+			insert(c % mItems.size(), "d");
+		}
+		assertSections();
+	}
+
+	@Test
+	public void randomEdits_matchScan()
+	{
+		Random random = new Random(7);
+		for(int c = 0; c < 3000; c++)
+		{
+			int size = mItems.size();
+			//A few distinct keys make sections both split and join
+			Object key = random.nextInt(5) == 0 ? null : random.nextInt(3);
+			switch(size == 0 ? 0 : random.nextInt(4))
+			{
+				case 0:
+					insert(random.nextInt(size + 1), key, key);
+					break;
+				case 1:
+					int index = random.nextInt(size);
+					remove(index, 1 + random.nextInt(Math.min(size - index, 3)));
+					break;
+				case 2:
+					change(random.nextInt(size), key);
+					break;
+				default:
+					move(random.nextInt(size), random.nextInt(size));
+					break;
+			}
+			//Several edits may be batched before the next lookup
+			if(random.nextInt(3) == 0){assertSections();}
+		}
+		assertSections();
+	}
+
+	private void insert(int index, Object... keys)
+	{
+		for(int c = 0; c < keys.length; c++)
+		{
+			mItems.add(index + c, keys[c]);
+		}
+		mIndex.onItemRangeInserted(index, keys.length);
+	}
+
+	private void remove(int index, int count)
+	{
+		mItems.subList(index, index + count).clear();
+		mIndex.onItemRangeRemoved(index, count);
+	}
+
+	private void change(int index, Object key)
+	{
+		mItems.set(index, key);
+		mIndex.onItemRangeChanged(index, 1);
+	}
+
+	private void move(int from, int to)
+	{
+		mItems.add(to, mItems.remove(from));
+		mIndex.onItemRangeMoved(from, to, 1);
+	}
+
+	private void assertSections()
+	{
+		List<Integer> starts = new ArrayList<>();
+		for(int c = 0; c < mItems.size(); c++)
+		{
+			Object key = mItems.get(c);
+			if(c == 0 || (key == null ? mItems.get(c - 1) != null : !key.equals(mItems.get(c - 1))))
+			{
+				starts.add(c);
+			}
+		}
+		assertEquals(starts.size(), mIndex.getSectionCount());
+		for(int c = 0; c < starts.size(); c++)
+		{
+			assertEquals((int)starts.get(c), mIndex.getSectionStart(c));
+			assertEquals(mItems.get(starts.get(c)), mIndex.getSectionKey(c));
+		}
+		for(int c = 0; c < mItems.size(); c++)
+		{
+			int section = mIndex.getSectionForPosition(c);
+			assertTrue(mIndex.getSectionStart(section) <= c);
+			assertTrue(section == starts.size() - 1 || mIndex.getSectionStart(section + 1) > c);
+			assertEquals(starts.contains(c), mIndex.isSectionStart(c));
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package net.scarlettsystems.android.widget;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SizeCache}. Items are keys standing in for an adapter's items, edits are
+ * notified to the cache, and its sums must match those of a list of the recorded extents.
+ */
+public class SizeCacheTest
+{
+	private final List<Long> mItems = new ArrayList<>();
+	//Extent recorded for each item, or null if not measured
+	private final List<Integer> mExtents = new ArrayList<>();
+	private boolean mKeyed = true;
+	private long mNextItem = 0;
+	private SizeCache mCache;
+
+	@Before
+	public void setUp()
+	{
+		mCache = new SizeCache(new SizeCache.Items()
+		{
+			@Override
+			public int getItemCount()
+			{
+				return mItems.size();
+			}
+
+			@Override
+			public long getItemId(int position)
+			{
+				return mKeyed ? mItems.get(position) : position;
+			}
+
+			@Override
+			public boolean hasKey(int position)
+			{
+				return mKeyed;
+			}
+		});
+		insert(0, 100);
+	}
+
+	@Test
+	public void unmeasuredItems_countAsAverage()
+	{
+		assertTrue(mCache.isEmpty());
+		assertEquals(0, mCache.getTotal());
+		put(0, 10);
+		put(1, 30);
+		assertFalse(mCache.isEmpty());
+		assertEquals(2000, mCache.getTotal());
+		assertEquals(40 + 20 * 3, mCache.getOffset(5));
+		assertSums();
+	}
+
+	@Test
+	public void put_updatesSumsAfterEachEdit()
+	{
+		Random random = new Random(11);
+		for(int c = 0; c < 3000; c++)
+		{
+			int size = mItems.size();
+			switch(size == 0 ? 0 : random.nextInt(5))
+			{
+				case 0:
+					insert(random.nextInt(size + 1), 1 + random.nextInt(4));
+					break;
+				case 1:
+					int index = random.nextInt(size);
+					remove(index, 1 + random.nextInt(Math.min(size - index, 4)));
+					break;
+				case 2:
+					int count = 1 + random.nextInt(Math.min(size, 4));
+					move(random.nextInt(size - count + 1), random.nextInt(size - count + 1), count);
+					break;
+				default:
+					put(random.nextInt(size), random.nextInt(200));
+					break;
+			}
+			assertSums();
+		}
+	}
+
+	@Test
+	public void smallEdits_updateSumsInPlace()
+	{
+		Random random = new Random(5);
+		insert(100, 900);
+		for(int c = 0; c < mItems.size(); c++)
+		{
+			put(c, random.nextInt(200));
+		}
+		assertSums();
+		//Edits near the end shift few positions, so the trees are updated rather than rebuilt
+		for(int c = 0; c < 500; c++)
+		{
+			int size = mItems.size();
+			int index = size - 1 - random.nextInt(20);
+			switch(random.nextInt(4))
+			{
+				case 0:
+					int count = 1 + random.nextInt(3);
+					insert(index, count);
+					for(int d = index; d < index + count; d++)
+					{
+						put(d, random.nextInt(200));
+					}
+					break;
+				case 1:
+					remove(index, 1);
+					break;
+				case 2:
+					move(index, size - 1, 1);
+					break;
+				default:
+					put(index, random.nextInt(200));
+					break;
+			}
+			assertEquals(sum(mItems.size() - 30), mCache.getOffset(mItems.size() - 30));
+		}
+		assertSums();
+	}
+
+	@Test
+	public void reload_keepsExtentsOfKeyedItems()
+	{
+		put(0, 10);
+		put(1, 20);
+		put(2, 30);
+		//Replace the dataset with the same items in another order, and one new item
+		Collections.swap(mItems, 0, 2);
+		mItems.add(1, mNextItem++);
+		mExtents.clear();
+		mExtents.add(30);
+		mExtents.add(null);
+		mExtents.add(20);
+		mExtents.add(10);
+		for(int c = 4; c < mItems.size(); c++)
+		{
+			mExtents.add(null);
+		}
+		mCache.onChanged();
+		assertSums();
+	}
+
+	@Test
+	public void reload_forgetsExtentsWithoutKeys()
+	{
+		mKeyed = false;
+		put(0, 10);
+		put(1, 20);
+		Collections.swap(mItems, 0, 1);
+		mCache.onChanged();
+		Collections.fill(mExtents, null);
+		assertTrue(mCache.isEmpty());
+		assertSums();
+	}
+
+	@Test
+	public void clear_forgetsEveryExtent()
+	{
+		put(3, 10);
+		mCache.clear();
+		Collections.fill(mExtents, null);
+		assertTrue(mCache.isEmpty());
+		assertSums();
+	}
+
+	private void put(int position, int extent)
+	{
+		mExtents.set(position, extent);
+		mCache.put(position, extent);
+	}
+
+	private void insert(int index, int count)
+	{
+		for(int c = 0; c < count; c++)
+		{
+			mItems.add(index + c, mNextItem++);
+			mExtents.add(index + c, null);
+		}
+		mCache.onItemRangeInserted(index, count);
+	}
+
+	private void remove(int index, int count)
+	{
+		mItems.subList(index, index + count).clear();
+		mExtents.subList(index, index + count).clear();
+		mCache.onItemRangeRemoved(index, count);
+	}
+
+	private void move(int from, int to, int count)
+	{
+		List<Long> items = new ArrayList<>(mItems.subList(from, from + count));
+		List<Integer> extents = new ArrayList<>(mExtents.subList(from, from + count));
+		mItems.subList(from, from + count).clear();
+		mExtents.subList(from, from + count).clear();
+		mItems.addAll(to, items);
+		mExtents.addAll(to, extents);
+		mCache.onItemRangeMoved(from, to, count);
+	}
+
+	//Offset of position, given every item is measured
+	private long sum(int position)
+	{
+		long sum = 0;
+		for(int c = 0; c < position; c++)
+		{
+			sum += mExtents.get(c);
+		}
+		return sum;
+	}
+
+	private void assertSums()
+	{
+		long sum = 0;
+		int measured = 0;
+		for(Integer extent : mExtents)
+		{
+			if(extent != null)
+			{
+				sum += extent;
+				measured++;
+			}
+		}
+		long estimate = measured == 0 ? 0 : Math.round((double)sum / measured);
+		long offset = 0;
+		for(int c = 0; c <= mExtents.size(); c++)
+		{
+			assertEquals(offset, mCache.getOffset(c));
+			if(c < mExtents.size()){offset += mExtents.get(c) == null ? estimate : mExtents.get(c);}
+		}
+		assertEquals(offset, mCache.getTotal());
+	}
+}